@@ -0,0 +1,21 @@
+-- Route search: equality on both locations, range and ordering on the departure
+create index if not exists journey_location_id_from_location_id_to_date_time_idx
+    on journey (location_id_from, location_id_to, date_time);
+
+-- Journeys of a driver in departure order
+create index if not exists journey_driver_id_date_time_idx
+    on journey (driver_id, date_time);
+
+-- Journeys of a passenger
+create index if not exists passenger_journey_passenger_id_idx
+    on passenger_journey (passenger_id);
+
+-- A passenger can only be booked once on a journey; also serves lookups by journey
+delete from passenger_journey pj
+    using passenger_journey duplicate
+    where pj.journey_id = duplicate.journey_id
+      and pj.passenger_id = duplicate.passenger_id
+      and pj.id > duplicate.id;
+
+create unique index if not exists passenger_journey_journey_id_passenger_id_key
+    on passenger_journey (journey_id, passenger_id);
@@ -0,0 +1,12 @@
+-- Precomputed distances between locations, refreshed in the background and joined into journey reads
+create table if not exists location_distance
+(
+    location_id_from integer not null
+        constraint location_distance_location_id_from_fkey references location ON DELETE CASCADE,
+    location_id_to integer not null
+        constraint location_distance_location_id_to_fkey references location ON DELETE CASCADE,
+    km double precision not null,
+    mi double precision not null,
+    updated_date timestamp not null,
+    constraint location_distance_pkey primary key (location_id_from, location_id_to)
+);
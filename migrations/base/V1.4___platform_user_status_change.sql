@@ -0,0 +1,37 @@
+-- Latest access status change of each user, read by the API to enforce suspensions, lockouts and deletions on
+-- tokens issued before them. A null status means the user was deleted. Rows older than the token lifetime are
+-- pruned by the API. changed_date is compared with the issue time of tokens, so it is stored as an instant,
+-- whatever the time zone of the session recording it.
+create table if not exists platform_user_status_change
+(
+    platform_user_id integer not null
+        constraint platform_user_status_change_pkey primary key,
+    status varchar(100),
+    changed_date timestamptz not null
+);
+
+create index if not exists platform_user_status_change_changed_date_idx
+    on platform_user_status_change (changed_date);
+
+create or replace function record_platform_user_status_change() returns trigger as
+$$
+begin
+    if tg_op = 'UPDATE' and new.user_access_status_id = old.user_access_status_id then
+        return null;
+    end if;
+    insert into platform_user_status_change (platform_user_id, status, changed_date)
+    values (old.id,
+            case when tg_op = 'DELETE' then null
+                 else (select status from user_access_status where id = new.user_access_status_id) end,
+            now())
+    on conflict (platform_user_id) do update set status = excluded.status, changed_date = excluded.changed_date;
+    return null;
+end;
+$$ language plpgsql;
+
+drop trigger if exists platform_user_status_change on platform_user;
+create trigger platform_user_status_change
+    after update of user_access_status_id or delete
+    on platform_user
+    for each row
+execute function record_platform_user_status_change();
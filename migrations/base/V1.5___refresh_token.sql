@@ -0,0 +1,15 @@
+-- Refresh tokens are only stored as the SHA-256 of the token and are revoked with their user
+create table if not exists refresh_token
+(
+    id serial not null
+        constraint refresh_token_pkey primary key,
+    token_hash char(64) not null
+        constraint refresh_token_token_hash_key unique,
+    platform_user_id integer not null
+        constraint platform_user_id_fkey references platform_user ON DELETE CASCADE,
+    created_date timestamp not null,
+    expiry_date timestamp not null
+);
+
+create index if not exists refresh_token_platform_user_id_idx on refresh_token (platform_user_id);
+create index if not exists refresh_token_expiry_date_idx on refresh_token (expiry_date);
@@ -0,0 +1,3 @@
+-- Optimistic locking versions, also the source of the ETags of journeys and users
+alter table journey add column if not exists version integer not null default 0;
+alter table platform_user add column if not exists version integer not null default 0;
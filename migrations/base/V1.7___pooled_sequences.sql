@@ -0,0 +1,6 @@
+-- Blocks of 50 ids, matching the allocationSize of the entities: Hibernate hands out [nextval, nextval + 49]
+-- (pooled-lo) with one round trip per block, while plain inserts relying on the serial default still draw one
+-- whole block each and can never collide with it
+alter sequence journey_id_seq increment by 50;
+alter sequence passenger_journey_id_seq increment by 50;
+alter sequence refresh_token_id_seq increment by 50;
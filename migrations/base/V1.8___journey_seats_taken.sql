@@ -0,0 +1,10 @@
+-- Seats booked on each journey, moved only by the statements that book and release them
+alter table journey add column if not exists seats_taken integer not null default 0;
+
+-- One booking per passenger and journey is already enforced by passenger_journey_journey_id_passenger_id_key (V1.2)
+update journey
+    set seats_taken = (select count(*) from passenger_journey where passenger_journey.journey_id = journey.id);
+
+-- Not validated against existing rows, so a journey already overbooked does not stop the migration
+alter table journey
+    add constraint journey_seats_taken_check check (seats_taken >= 0 and seats_taken <= max_passengers) not valid;
@@ -0,0 +1,91 @@
+package com.unosquare.carmigo.benchmark;
+
+import com.flextrade.jfixture.JFixture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.openfeign.DistanceHolder;
+import com.unosquare.carmigo.service.DistanceService;
+import com.unosquare.carmigo.service.Gazetteer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The distance of a route as JourneyService asks it of DistanceService:<br>
+ * - gazetteer: both places known offline, converted from great-circle coordinates;<br>
+ * - remote: places only the distance service knows, its answer converted on every call, with the upstream call
+ * itself stubbed out;<br>
+ * - cached: the same route served from the distance cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+  private DistanceService uncachedDistanceService;
+  private DistanceService cachedDistanceService;
+  private CreateCalculateDistanceCriteria knownRoute;
+  private CreateCalculateDistanceCriteria unknownRoute;
+
+  @Setup
+  public void setUp() throws IOException {
+    final Gazetteer gazetteer = new Gazetteer("");
+    final JFixture jFixture = new JFixture();
+    jFixture.customise().circularDependencyBehaviour().omitSpecimen();
+    final DistanceHolder distanceHolder = jFixture.create(DistanceHolder.class);
+    uncachedDistanceService = distanceService(gazetteer, distanceHolder, 0);
+    cachedDistanceService = distanceService(gazetteer, distanceHolder, 100);
+    knownRoute = criteria("Belfast", "GB", "Dublin", "IE");
+    unknownRoute = criteria("Nowhere", "GB", "Elsewhere", "IE");
+    cachedDistanceService.calculateDistance(unknownRoute);
+  }
+
+  @Benchmark
+  public GrabDistanceDTO gazetteer() {
+    return uncachedDistanceService.calculateDistance(knownRoute);
+  }
+
+  @Benchmark
+  public GrabDistanceDTO remote() {
+    return uncachedDistanceService.calculateDistance(unknownRoute);
+  }
+
+  @Benchmark
+  public GrabDistanceDTO cached() {
+    return cachedDistanceService.calculateDistance(unknownRoute);
+  }
+
+  private static DistanceService distanceService(final Gazetteer gazetteer, final DistanceHolder distanceHolder,
+      final long maximumSize) {
+    return new DistanceService(route -> distanceHolder, gazetteer, new SimpleMeterRegistry(),
+        CircuitBreaker.ofDefaults("distance"), Bulkhead.ofDefaults("distance"),
+        MoreExecutors.newDirectExecutorService(), maximumSize, Duration.ofHours(1));
+  }
+
+  private static CreateCalculateDistanceCriteria criteria(final String locationFrom, final String countryFrom,
+      final String locationTo, final String countryTo) {
+    final CreateCalculateDistanceCriteria criteria = new CreateCalculateDistanceCriteria();
+    criteria.setLocationFrom(locationFrom);
+    criteria.setCountryFrom(countryFrom);
+    criteria.setLocationTo(locationTo);
+    criteria.setCountryTo(countryTo);
+    return criteria;
+  }
+}
@@ -0,0 +1,127 @@
+package com.unosquare.carmigo.benchmark;
+
+import com.unosquare.carmigo.CarMigoApplication;
+import com.unosquare.carmigo.dto.CreateJourneyDTO;
+import com.unosquare.carmigo.dto.GrabJourneyBatchItemDTO;
+import com.unosquare.carmigo.service.JourneyService;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Creating 10k journeys of one driver against a throwaway PostgreSQL migrated with the Flyway scripts, through the
+ * application context, so the Hibernate settings are those of application.yaml. Scores are per journey:<br>
+ * - oneByOne: what drivers publishing a recurring commute used to do, a createJourney transaction per journey;<br>
+ * - batch: a single createJourneys transaction, with jdbcBatchSize 1 standing for the inserts sent one at a time
+ * and 50 for the JDBC batches hibernate.jdbc.batch_size enables.<br><br>
+ *
+ * Needs Docker. The journeys are deleted after every iteration so each one starts from the same table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JourneyBatchBenchmark {
+
+  private static final int JOURNEYS = 10_000;
+
+  @Param({"1", "50"})
+  private int jdbcBatchSize;
+
+  private PostgreSQLContainer<?> postgres;
+  private ConfigurableApplicationContext context;
+  private JourneyService journeyService;
+  private JdbcTemplate jdbcTemplate;
+  private List<CreateJourneyDTO> createJourneyDTOs;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    postgres = new PostgreSQLContainer<>("postgres:14.2-bullseye").withUrlParam("reWriteBatchedInserts", "true");
+    postgres.start();
+    context = new SpringApplicationBuilder(CarMigoApplication.class)
+        .properties(
+            "server.port=0",
+            "logging.level.web=INFO",
+            "spring.flyway.locations=filesystem:../migrations/base",
+            "spring.datasource.url=" + postgres.getJdbcUrl(),
+            "spring.datasource.username=" + postgres.getUsername(),
+            "spring.datasource.password=" + postgres.getPassword(),
+            "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize)
+        .run();
+    journeyService = context.getBean(JourneyService.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    final int driverId = insertDriver();
+    final Instant departure = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+    createJourneyDTOs = IntStream.range(0, JOURNEYS)
+        .mapToObj(i -> {
+          final CreateJourneyDTO createJourneyDTO = new CreateJourneyDTO();
+          createJourneyDTO.setLocationIdFrom(1 + i % 2);
+          createJourneyDTO.setLocationIdTo(2 - i % 2);
+          createJourneyDTO.setMaxPassengers(3);
+          createJourneyDTO.setDateTime(departure.plus(i, ChronoUnit.HOURS));
+          createJourneyDTO.setDriverId(driverId);
+          return createJourneyDTO;
+        })
+        .collect(Collectors.toList());
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteJourneys() {
+    jdbcTemplate.update("delete from journey");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+    postgres.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(JOURNEYS)
+  public int oneByOne() {
+    int lastId = 0;
+    for (final CreateJourneyDTO createJourneyDTO : createJourneyDTOs) {
+      lastId = journeyService.createJourney(createJourneyDTO).getId();
+    }
+    return lastId;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(JOURNEYS)
+  public List<GrabJourneyBatchItemDTO> batch() {
+    return journeyService.createJourneys(createJourneyDTOs);
+  }
+
+  private int insertDriver() {
+    final Integer platformUserId = jdbcTemplate.queryForObject("insert into platform_user"
+        + " (created_date, first_name, last_name, dob, email, password, user_access_status_id)"
+        + " values (current_date, 'Bench', 'Mark', date '1990-01-01', 'benchmark@car-migo.com', 'password', 2)"
+        + " returning id", Integer.class);
+    jdbcTemplate.update("insert into driver (id, license_number, platform_user_id) values (?, 'BENCHMARK', ?)",
+        platformUserId, platformUserId);
+    return platformUserId;
+  }
+}
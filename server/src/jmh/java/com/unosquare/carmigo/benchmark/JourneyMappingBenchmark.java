@@ -0,0 +1,90 @@
+package com.unosquare.carmigo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flextrade.jfixture.JFixture;
+import com.unosquare.carmigo.configuration.MapperConfiguration;
+import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.mapper.JourneyMapper;
+import com.unosquare.carmigo.mapper.MapperTestConfiguration;
+import com.unosquare.carmigo.model.response.JourneyDriverViewModel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * The work behind the journey lists the search, driver and passenger endpoints return:<br>
+ * - generatedMapper: the GrabJourneyDTOs mapped to view models by the generated JourneyMapper;<br>
+ * - modelMapper: the same mapping through ModelMapper, configured as when the application used it;<br>
+ * - serialize: the mapped view models written as JSON by the application ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JourneyMappingBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  private int size;
+
+  private JourneyMapper journeyMapper;
+  private ModelMapper modelMapper;
+  private ObjectMapper objectMapper;
+  private List<GrabJourneyDTO> grabJourneyDTOs;
+  private List<JourneyDriverViewModel> journeyDriverViewModels;
+
+  @Setup
+  public void setUp() {
+    try (final AnnotationConfigApplicationContext context =
+        new AnnotationConfigApplicationContext(MapperTestConfiguration.class)) {
+      journeyMapper = context.getBean(JourneyMapper.class);
+    }
+    modelMapper = new ModelMapper();
+    modelMapper.getConfiguration()
+        .setAmbiguityIgnored(true)
+        .setMatchingStrategy(MatchingStrategies.STRICT)
+        .setPropertyCondition(Conditions.isNotNull());
+    objectMapper = new MapperConfiguration().objectMapper();
+    final JFixture jFixture = new JFixture();
+    jFixture.customise().circularDependencyBehaviour().omitSpecimen();
+    grabJourneyDTOs = Stream.generate(() -> jFixture.create(GrabJourneyDTO.class))
+        .limit(size)
+        .collect(Collectors.toList());
+    journeyDriverViewModels = journeyMapper.toJourneyDriverViewModels(grabJourneyDTOs);
+  }
+
+  @Benchmark
+  public List<JourneyDriverViewModel> generatedMapper() {
+    return journeyMapper.toJourneyDriverViewModels(grabJourneyDTOs);
+  }
+
+  @Benchmark
+  public List<JourneyDriverViewModel> modelMapper() {
+    return grabJourneyDTOs.stream()
+        .map(grabJourneyDTO -> modelMapper.map(grabJourneyDTO, JourneyDriverViewModel.class))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(journeyDriverViewModels);
+  }
+}
@@ -0,0 +1,68 @@
+package com.unosquare.carmigo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flextrade.jfixture.JFixture;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.github.fge.jsonpatch.JsonPatchException;
+import com.unosquare.carmigo.configuration.MapperConfiguration;
+import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.entity.Journey;
+import com.unosquare.carmigo.service.JourneyService;
+import com.unosquare.carmigo.util.JsonPatchCompiler;
+import com.unosquare.carmigo.util.PartialUpdate;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The in-memory work of JourneyService.patchJourney for a typical patch, leaving the database out:<br>
+ * - treeRoundTrip: what it used to do, converting the loaded journey to a tree, applying the patch and reading a
+ * new detached entity back, which was then merged with a SELECT and a full-row UPDATE;<br>
+ * - compile: the patch compiled into the partial UPDATE now run as the only statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JourneyPatchBenchmark {
+
+  private ObjectMapper objectMapper;
+  private JsonPatchCompiler jsonPatchCompiler;
+  private GrabJourneyDTO grabJourneyDTO;
+  private JsonPatch patch;
+
+  @Setup
+  public void setUp() throws IOException {
+    objectMapper = new MapperConfiguration().objectMapper();
+    jsonPatchCompiler = new JsonPatchCompiler(objectMapper, Validation.buildDefaultValidatorFactory().getValidator());
+    final JFixture jFixture = new JFixture();
+    jFixture.customise().circularDependencyBehaviour().omitSpecimen();
+    grabJourneyDTO = jFixture.create(GrabJourneyDTO.class);
+    patch = objectMapper.readValue("[{\"op\": \"replace\", \"path\": \"/locationFrom/id\", \"value\": \"5\"},"
+        + " {\"op\": \"replace\", \"path\": \"/maxPassengers\", \"value\": \"5\"}]", JsonPatch.class);
+  }
+
+  @Benchmark
+  public Journey treeRoundTrip() throws IOException, JsonPatchException {
+    final JsonNode patched = patch.apply(objectMapper.convertValue(grabJourneyDTO, JsonNode.class));
+    return objectMapper.treeToValue(patched, Journey.class);
+  }
+
+  @Benchmark
+  public PartialUpdate compile() {
+    return jsonPatchCompiler.compile(JourneyService.PATCHABLE_FIELDS, patch);
+  }
+}
@@ -0,0 +1,87 @@
+package com.unosquare.carmigo.benchmark;
+
+import com.unosquare.carmigo.util.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Token work JwtRequestFilter does for one authenticated request:<br>
+ * - threeParses: what the filter used to do, verifying and parsing the token for the username, then again for the
+ * username and the expiration when validating it;<br>
+ * - singleParse: the token verified once, with nothing cached;<br>
+ * - cachedClaims: a repeat request, served from the verified claims cache;<br>
+ * - generateToken: signing a new token, as on every login and refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+  private static final String KEY = "YmVuY2htYXJrIHNpZ25pbmcga2V5IGZvciB0aGUgY2FyLW1pZ28gand0IGZpbHRlcg==";
+
+  private final UserDetails userDetails = new User("benchmark@car-migo.com", "password", List.of());
+  private JwtTokenUtils uncachedJwtTokenUtils;
+  private JwtTokenUtils cachedJwtTokenUtils;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    uncachedJwtTokenUtils = new JwtTokenUtils(KEY, Duration.ofMinutes(15), 0, new SimpleMeterRegistry());
+    cachedJwtTokenUtils = new JwtTokenUtils(KEY, Duration.ofMinutes(15), 10_000, new SimpleMeterRegistry());
+    token = cachedJwtTokenUtils.generateToken(userDetails);
+    cachedJwtTokenUtils.parseClaims(token);
+  }
+
+  @Benchmark
+  public boolean threeParses() {
+    final String username = parse().getSubject();
+    return username.equals(userDetails.getUsername())
+        && parse().getSubject().equals(userDetails.getUsername())
+        && !parse().getExpiration().before(Date.from(Instant.now()));
+  }
+
+  @Benchmark
+  public boolean singleParse() {
+    return authenticate(uncachedJwtTokenUtils);
+  }
+
+  @Benchmark
+  public boolean cachedClaims() {
+    return authenticate(cachedJwtTokenUtils);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return uncachedJwtTokenUtils.generateToken(userDetails);
+  }
+
+  private boolean authenticate(final JwtTokenUtils jwtTokenUtils) {
+    final Claims claims = jwtTokenUtils.parseClaims(token);
+    return claims.getSubject().equals(userDetails.getUsername()) && jwtTokenUtils.validateClaims(claims, userDetails);
+  }
+
+  private Claims parse() {
+    return Jwts.parser().setSigningKey(KEY).parseClaimsJws(token).getBody();
+  }
+}
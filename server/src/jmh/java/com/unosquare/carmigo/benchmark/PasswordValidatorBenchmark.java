@@ -0,0 +1,37 @@
+package com.unosquare.carmigo.benchmark;
+
+import com.unosquare.carmigo.annotation.PasswordValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The password rules checked on every user creation and password change, for a valid password, one with a
+ * character outside the allowed set and one too long to be checked any further.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordValidatorBenchmark {
+
+  private final PasswordValidator passwordValidator = new PasswordValidator();
+
+  @Param({"Pa$$w0rd1", "Pass word1", "Pa$$w0rdPa$$w0rdPa$$w0rd"})
+  private String password;
+
+  @Benchmark
+  public boolean isValid() {
+    return passwordValidator.isValid(password, null);
+  }
+}
@@ -0,0 +1,19 @@
+package com.unosquare.carmigo.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Access statuses a user needs to reach their own resources through the annotated handler method. Handlers without
+ * it are open to ACTIVE users only; ADMIN and DEV users are always allowed.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AllowedAccessStatus {
+
+  String[] value();
+}
@@ -0,0 +1,81 @@
+package com.unosquare.carmigo.configuration;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Circuit breaker and bulkhead guarding the calls to the distance service, the bounded executor distance matrix
+ * calls fan out on and the single thread location distances are precomputed on, away from the scheduler. Timeouts
+ * of the calls themselves are set on the Feign client under feign.client.config.distance.
+ */
+@Configuration
+public class DistanceResilienceConfiguration {
+
+  private static final String DISTANCE = "distance";
+
+  @Bean
+  public CircuitBreaker distanceCircuitBreaker(final MeterRegistry meterRegistry,
+      @Value("${application.distance.circuit-breaker.failure-rate-threshold:50}") final float failureRateThreshold,
+      @Value("${application.distance.circuit-breaker.sliding-window-size:20}") final int slidingWindowSize,
+      @Value("${application.distance.circuit-breaker.wait-duration-in-open-state:30s}")
+      final Duration waitDurationInOpenState) {
+    final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+        .failureRateThreshold(failureRateThreshold)
+        .slidingWindowSize(slidingWindowSize)
+        .minimumNumberOfCalls(slidingWindowSize)
+        .waitDurationInOpenState(waitDurationInOpenState)
+        .build());
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+    return circuitBreakerRegistry.circuitBreaker(DISTANCE);
+  }
+
+  @Bean
+  public Bulkhead distanceBulkhead(final MeterRegistry meterRegistry,
+      @Value("${application.distance.bulkhead.max-concurrent-calls:10}") final int maxConcurrentCalls) {
+    // Callers over the limit are turned away at once rather than queueing request threads behind the upstream
+    final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+        .maxConcurrentCalls(maxConcurrentCalls)
+        .maxWaitDuration(Duration.ZERO)
+        .build());
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    return bulkheadRegistry.bulkhead(DISTANCE);
+  }
+
+  @Bean
+  public ExecutorService distanceExecutor(final MeterRegistry meterRegistry,
+      @Value("${application.distance.matrix.parallelism:4}") final int parallelism,
+      @Value("${application.distance.matrix.queue-capacity:100}") final int queueCapacity) {
+    // Once the queue is full the request thread runs its own calls, which throttles it instead of failing it
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new ThreadFactoryBuilder().setNameFormat(DISTANCE + "-%d").setDaemon(true).build(),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, DISTANCE);
+  }
+
+  @Bean
+  public ExecutorService distancePrecomputeExecutor(final MeterRegistry meterRegistry) {
+    // A run waits on the rate limiter for most of its duration, which must not hold a scheduler thread
+    final ExecutorService executor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setNameFormat(DISTANCE + "-precompute-%d").setDaemon(true).build());
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, DISTANCE + "-precompute");
+  }
+}
@@ -3,9 +3,6 @@ package com.unosquare.carmigo.configuration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.modelmapper.Conditions;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,17 +11,6 @@ import org.springframework.context.annotation.Scope;
 @Configuration
 public class MapperConfiguration {
 
-  @Bean
-  @Scope(value = ConfigurableBeanFactory.SCOPE_SINGLETON)
-  public ModelMapper modelMapper() {
-    final ModelMapper mapper = new ModelMapper();
-    mapper.getConfiguration()
-        .setAmbiguityIgnored(true)
-        .setMatchingStrategy(MatchingStrategies.STRICT)
-        .setPropertyCondition(Conditions.isNotNull());
-    return mapper;
-  }
-
   @Bean
   @Scope(value = ConfigurableBeanFactory.SCOPE_SINGLETON)
   public ObjectMapper objectMapper() {
@@ -0,0 +1,51 @@
+package com.unosquare.carmigo.configuration;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.unosquare.carmigo.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt encoder used for logins and sign ups, running on its own bounded executor. The cost factor is
+ * configurable, and the time one hash takes with it is measured and logged at startup.
+ */
+@Slf4j
+@Configuration
+public class PasswordEncoderConfiguration {
+
+  private static final String PASSWORD_HASHING = "password-hashing";
+
+  @Bean
+  public ExecutorService passwordHashingExecutor(final MeterRegistry meterRegistry,
+      @Value("${application.password.hashing.pool-size:2}") final int poolSize,
+      @Value("${application.password.hashing.queue-capacity:50}") final int queueCapacity) {
+    // Once the queue is full new hashes are rejected, which turns the login or sign up away with a 429
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new ThreadFactoryBuilder().setNameFormat(PASSWORD_HASHING + "-%d").setDaemon(true).build(),
+        new ThreadPoolExecutor.AbortPolicy());
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, PASSWORD_HASHING);
+  }
+
+  @Bean
+  public PasswordEncoder passwordEncoder(final ExecutorService passwordHashingExecutor,
+      final MeterRegistry meterRegistry, @Value("${application.password.bcrypt-strength:10}") final int strength) {
+    final PasswordEncoder passwordEncoder = new BoundedPasswordEncoder(
+        new BCryptPasswordEncoder(strength), passwordHashingExecutor, meterRegistry);
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    passwordEncoder.encode(PASSWORD_HASHING);
+    log.info("BCrypt strength {} takes {} ms per hash", strength, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    return passwordEncoder;
+  }
+}
@@ -0,0 +1,19 @@
+package com.unosquare.carmigo.configuration;
+
+import com.unosquare.carmigo.security.AccessPolicyInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+  private final AccessPolicyInterceptor accessPolicyInterceptor;
+
+  @Override
+  public void addInterceptors(final InterceptorRegistry registry) {
+    registry.addInterceptor(accessPolicyInterceptor);
+  }
+}
@@ -13,7 +13,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @EnableWebSecurity
@@ -28,8 +27,11 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     httpSecurity.csrf().disable().authorizeRequests()
         .antMatchers(HttpMethod.POST, "/v1/users/create").permitAll()
         .antMatchers(HttpMethod.POST, "/v1/login").permitAll()
+        .antMatchers(HttpMethod.POST, "/v1/login/refresh").permitAll()
+        .antMatchers(HttpMethod.POST, "/v1/logout").permitAll()
         .antMatchers(HttpMethod.GET, "/v1/journeys/calculateDistance").permitAll()
         .antMatchers(HttpMethod.GET, "/v1/journeys/search").permitAll()
+        .antMatchers(HttpMethod.GET, "/v1/journeys/search/stream").permitAll()
         .antMatchers(HttpMethod.GET, "/actuator/**").hasAnyAuthority(ADMIN, DEV)
         .antMatchers(HttpMethod.GET, "/swagger-ui/**").permitAll()
         .antMatchers(HttpMethod.GET, "/v3/api-docs**").permitAll()
@@ -44,9 +46,4 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
   public AuthenticationManager authenticationManagerBean() throws Exception {
     return super.authenticationManagerBean();
   }
-
-  @Bean
-  public BCryptPasswordEncoder bCryptPasswordEncoder() {
-    return new BCryptPasswordEncoder();
-  }
 }
@@ -16,4 +16,6 @@ public interface AppConstants {
   String SUSPENDED = "SUSPENDED";
 
   String NOT_PERMITTED = "Not permitted";
+
+  String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
 }
@@ -2,13 +2,15 @@ package com.unosquare.carmigo.controller;
 
 import com.unosquare.carmigo.dto.CreateAuthenticationDTO;
 import com.unosquare.carmigo.dto.GrabAuthenticationDTO;
+import com.unosquare.carmigo.mapper.AuthenticationMapper;
 import com.unosquare.carmigo.model.request.CreateAuthenticationViewModel;
+import com.unosquare.carmigo.model.request.CreateRefreshTokenViewModel;
 import com.unosquare.carmigo.model.response.AuthenticationViewModel;
 import com.unosquare.carmigo.service.PlatformUserService;
+import com.unosquare.carmigo.service.RefreshTokenService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,19 +26,38 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Authentication Controller")
 public class AuthenticationController {
 
-  private final ModelMapper modelMapper;
+  private final AuthenticationMapper authenticationMapper;
   private final PlatformUserService platformUserService;
+  private final RefreshTokenService refreshTokenService;
 
   @PostMapping(value = "/login", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
   public ResponseEntity<AuthenticationViewModel> createAuthenticationToken(
       @Valid @RequestBody final CreateAuthenticationViewModel createAuthenticationViewModel) {
-    final CreateAuthenticationDTO createAuthenticationDTO = modelMapper.map(
-        createAuthenticationViewModel, CreateAuthenticationDTO.class);
+    final CreateAuthenticationDTO createAuthenticationDTO = authenticationMapper.toCreateAuthenticationDTO(
+        createAuthenticationViewModel);
     final GrabAuthenticationDTO grabAuthenticationDTO =
         platformUserService.createAuthenticationToken(createAuthenticationDTO);
-    final AuthenticationViewModel authenticationViewModel = modelMapper.map(
-        grabAuthenticationDTO, AuthenticationViewModel.class);
+    final AuthenticationViewModel authenticationViewModel = authenticationMapper.toAuthenticationViewModel(
+        grabAuthenticationDTO);
     return new ResponseEntity<>(authenticationViewModel, HttpStatus.CREATED);
   }
+
+  @PostMapping(value = "/login/refresh", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public ResponseEntity<AuthenticationViewModel> refreshAuthenticationToken(
+      @Valid @RequestBody final CreateRefreshTokenViewModel createRefreshTokenViewModel) {
+    final GrabAuthenticationDTO grabAuthenticationDTO =
+        refreshTokenService.refreshAuthenticationToken(createRefreshTokenViewModel.getRefreshToken());
+    final AuthenticationViewModel authenticationViewModel = authenticationMapper.toAuthenticationViewModel(
+        grabAuthenticationDTO);
+    return new ResponseEntity<>(authenticationViewModel, HttpStatus.CREATED);
+  }
+
+  @PostMapping(value = "/logout")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public ResponseEntity<?> logout(@Valid @RequestBody final CreateRefreshTokenViewModel createRefreshTokenViewModel) {
+    refreshTokenService.revokeRefreshToken(createRefreshTokenViewModel.getRefreshToken());
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -0,0 +1,27 @@
+package com.unosquare.carmigo.controller;
+
+import com.unosquare.carmigo.util.EntityTag;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GETs: the body is only built when the client does not hold the current representation already.
+ */
+final class ConditionalResponse {
+
+  private ConditionalResponse() {}
+
+  /**
+   * 304 when If-None-Match names the given tag, otherwise 200 with the body and the tag. The tag has to be read
+   * before the body, so that a change in between leaves the client with an older tag rather than a stale body.
+   */
+  static <T> ResponseEntity<T> ok(final WebRequest webRequest, final EntityTag entityTag, final Supplier<T> body) {
+    // Set on the returned entity rather than left to checkNotModified, as @ResponseStatus would override it
+    if (webRequest.checkNotModified(entityTag.getValue())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag.getValue()).build();
+    }
+    return ResponseEntity.ok().eTag(entityTag.getValue()).body(body.get());
+  }
+}
@@ -2,6 +2,7 @@ package com.unosquare.carmigo.controller;
 
 import com.unosquare.carmigo.dto.CreateDriverDTO;
 import com.unosquare.carmigo.dto.GrabDriverDTO;
+import com.unosquare.carmigo.mapper.DriverMapper;
 import com.unosquare.carmigo.model.request.CreateDriverViewModel;
 import com.unosquare.carmigo.model.response.DriverViewModel;
 import com.unosquare.carmigo.security.AppUser;
@@ -9,7 +10,6 @@ import com.unosquare.carmigo.service.DriverService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,20 +31,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class DriverController {
 
   private final DriverService driverService;
-  private final ModelMapper modelMapper;
+  private final DriverMapper driverMapper;
   private final AppUser appUser;
 
   @GetMapping(value = "/profile", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<DriverViewModel> getCurrentDriverProfile() {
-    return ResponseEntity.ok(getDriver(0));
+  public ResponseEntity<DriverViewModel> getCurrentDriverProfile(final WebRequest webRequest) {
+    return getDriver(0, webRequest);
   }
 
   @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   @PreAuthorize("hasAuthority('ADMIN')")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<DriverViewModel> getDriverById(@PathVariable final int id) {
-    return ResponseEntity.ok(getDriver(id));
+  public ResponseEntity<DriverViewModel> getDriverById(@PathVariable final int id, final WebRequest webRequest) {
+    return getDriver(id, webRequest);
   }
 
   @PostMapping(value = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -76,15 +77,16 @@ public class DriverController {
     return ResponseEntity.noContent().build();
   }
 
-  private DriverViewModel getDriver(final int id) {
-    final GrabDriverDTO grabDriverDTO = driverService.getDriverById(getCurrentId(id));
-    return modelMapper.map(grabDriverDTO, DriverViewModel.class);
+  private ResponseEntity<DriverViewModel> getDriver(final int id, final WebRequest webRequest) {
+    final int currentId = getCurrentId(id);
+    return ConditionalResponse.ok(webRequest, driverService.getDriverEntityTag(currentId),
+        () -> driverMapper.toDriverViewModel(driverService.getDriverById(currentId)));
   }
 
   private DriverViewModel createDriver(final int id, final CreateDriverViewModel createDriverViewModel) {
-    final CreateDriverDTO createDriverDTO = modelMapper.map(createDriverViewModel, CreateDriverDTO.class);
+    final CreateDriverDTO createDriverDTO = driverMapper.toCreateDriverDTO(createDriverViewModel);
     final GrabDriverDTO grabDriverDTO = driverService.createDriverById(getCurrentId(id), createDriverDTO);
-    return modelMapper.map(grabDriverDTO, DriverViewModel.class);
+    return driverMapper.toDriverViewModel(grabDriverDTO);
   }
 
   private void deleteDriver(final int id) {
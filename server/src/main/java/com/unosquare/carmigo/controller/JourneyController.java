@@ -1,22 +1,37 @@
 package com.unosquare.carmigo.controller;
 
+import static com.unosquare.carmigo.constant.AppConstants.CONTINUATION_TOKEN_HEADER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatch;
+import com.unosquare.carmigo.dto.CreateDistanceMatrixDTO;
 import com.unosquare.carmigo.dto.CreateJourneyDTO;
 import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.GrabJourneyBatchItemDTO;
 import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.dto.GrabJourneyPageDTO;
+import com.unosquare.carmigo.mapper.DistanceMapper;
+import com.unosquare.carmigo.mapper.JourneyMapper;
 import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.model.request.CreateDistanceMatrixViewModel;
 import com.unosquare.carmigo.model.request.CreateJourneyViewModel;
 import com.unosquare.carmigo.model.request.CreateSearchJourneysCriteria;
+import com.unosquare.carmigo.model.response.DistanceMatrixViewModel;
 import com.unosquare.carmigo.model.response.DistanceViewModel;
+import com.unosquare.carmigo.model.response.JourneyBatchItemViewModel;
 import com.unosquare.carmigo.model.response.JourneyDriverViewModel;
 import com.unosquare.carmigo.model.response.JourneyPassengerViewModel;
 import com.unosquare.carmigo.service.JourneyService;
-import com.unosquare.carmigo.util.MapperUtils;
+import com.unosquare.carmigo.util.Tagged;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,9 +41,12 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -36,33 +54,59 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Journey Controller")
 public class JourneyController {
 
-  private final ModelMapper modelMapper;
+  private final JourneyMapper journeyMapper;
+  private final DistanceMapper distanceMapper;
   private final JourneyService journeyService;
+  private final ObjectMapper objectMapper;
 
   @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<JourneyDriverViewModel> getJourneyById(@PathVariable final int id) {
-    final GrabJourneyDTO grabJourneyDTO = journeyService.getJourneyById(id);
-    final JourneyDriverViewModel journeyDriverViewModel = modelMapper.map(grabJourneyDTO, JourneyDriverViewModel.class);
-    return ResponseEntity.ok(journeyDriverViewModel);
+  public ResponseEntity<JourneyDriverViewModel> getJourneyById(@PathVariable final int id,
+      final WebRequest webRequest) {
+    return ConditionalResponse.ok(webRequest, journeyService.getJourneyEntityTag(id),
+        () -> journeyMapper.toJourneyDriverViewModel(journeyService.getJourneyById(id)));
   }
 
   @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
   public ResponseEntity<List<JourneyDriverViewModel>> searchJourneys(
       @Valid final CreateSearchJourneysCriteria createSearchJourneysCriteria) {
-    final List<GrabJourneyDTO> grabJourneyDTOList = journeyService.searchJourneys(createSearchJourneysCriteria);
-    final List<JourneyDriverViewModel> journeyDriverViewModelList = MapperUtils.mapList(grabJourneyDTOList,
-        JourneyDriverViewModel.class, modelMapper);
-    return ResponseEntity.ok(journeyDriverViewModelList);
+    final GrabJourneyPageDTO grabJourneyPageDTO = journeyService.searchJourneys(createSearchJourneysCriteria);
+    final List<JourneyDriverViewModel> journeyDriverViewModelList = journeyMapper.toJourneyDriverViewModels(
+        grabJourneyPageDTO.getJourneys());
+    final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (grabJourneyPageDTO.getContinuationToken() != null) {
+      response.header(CONTINUATION_TOKEN_HEADER, grabJourneyPageDTO.getContinuationToken());
+    }
+    return response.body(journeyDriverViewModelList);
+  }
+
+  @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<StreamingResponseBody> streamJourneys(
+      @Valid final CreateSearchJourneysCriteria createSearchJourneysCriteria) {
+    final StreamingResponseBody responseBody = outputStream -> {
+      final JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream);
+      jsonGenerator.writeStartArray();
+      journeyService.streamJourneys(createSearchJourneysCriteria, grabJourneyDTO -> {
+        try {
+          jsonGenerator.writeObject(journeyMapper.toJourneyDriverViewModel(grabJourneyDTO));
+        } catch (final IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+      jsonGenerator.writeEndArray();
+      jsonGenerator.flush();
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseBody);
   }
 
   @GetMapping(value = "/drivers/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
   public ResponseEntity<List<JourneyPassengerViewModel>> getJourneysByDriverId(@PathVariable final int id) {
     final List<GrabJourneyDTO> grabJourneyDTOList = journeyService.getJourneysByDriverId(id);
-    final List<JourneyPassengerViewModel> journeyPassengerViewModelList = MapperUtils.mapList(grabJourneyDTOList,
-        JourneyPassengerViewModel.class, modelMapper);
+    final List<JourneyPassengerViewModel> journeyPassengerViewModelList =
+        journeyMapper.toJourneyPassengerViewModels(grabJourneyDTOList);
     return ResponseEntity.ok(journeyPassengerViewModelList);
   }
 
@@ -70,8 +114,8 @@ public class JourneyController {
   @ResponseStatus(HttpStatus.OK)
   public ResponseEntity<List<JourneyDriverViewModel>> getJourneysByPassengerId(@PathVariable final int id) {
     final List<GrabJourneyDTO> grabJourneyDTOList = journeyService.getJourneysByPassengersId(id);
-    final List<JourneyDriverViewModel> journeyDriverViewModelList = MapperUtils.mapList(grabJourneyDTOList,
-        JourneyDriverViewModel.class, modelMapper);
+    final List<JourneyDriverViewModel> journeyDriverViewModelList =
+        journeyMapper.toJourneyDriverViewModels(grabJourneyDTOList);
     return ResponseEntity.ok(journeyDriverViewModelList);
   }
 
@@ -79,19 +123,33 @@ public class JourneyController {
   @ResponseStatus(HttpStatus.CREATED)
   public ResponseEntity<JourneyDriverViewModel> createJourney(
       @Valid @RequestBody final CreateJourneyViewModel createJourneyViewModel) {
-    final CreateJourneyDTO createJourneyDTO = modelMapper.map(createJourneyViewModel, CreateJourneyDTO.class);
+    final CreateJourneyDTO createJourneyDTO = journeyMapper.toCreateJourneyDTO(createJourneyViewModel);
     final GrabJourneyDTO grabJourneyDTO = journeyService.createJourney(createJourneyDTO);
-    final JourneyDriverViewModel journeyDriverViewModel = modelMapper.map(grabJourneyDTO, JourneyDriverViewModel.class);
+    final JourneyDriverViewModel journeyDriverViewModel = journeyMapper.toJourneyDriverViewModel(grabJourneyDTO);
     return new ResponseEntity<>(journeyDriverViewModel, HttpStatus.CREATED);
   }
 
+  @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.CREATED)
+  public ResponseEntity<List<JourneyBatchItemViewModel>> createJourneys(
+      @RequestBody final List<CreateJourneyViewModel> createJourneyViewModels) {
+    final List<CreateJourneyDTO> createJourneyDTOs = journeyMapper.toCreateJourneyDTOs(createJourneyViewModels);
+    final List<GrabJourneyBatchItemDTO> grabJourneyBatchItemDTOs = journeyService.createJourneys(createJourneyDTOs);
+    final boolean allCreated = grabJourneyBatchItemDTOs.stream()
+        .allMatch(item -> item.getStatus() == HttpStatus.CREATED.value());
+    return new ResponseEntity<>(journeyMapper.toJourneyBatchItemViewModels(grabJourneyBatchItemDTOs),
+        allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+  }
+
   @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
   @ResponseStatus(HttpStatus.OK)
   public ResponseEntity<JourneyDriverViewModel> patchJourney(@PathVariable final int id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
       @Valid @RequestBody final JsonPatch patch) {
-    final GrabJourneyDTO grabJourneyDTO = journeyService.patchJourney(id, patch);
-    final JourneyDriverViewModel journeyDriverViewModel = modelMapper.map(grabJourneyDTO, JourneyDriverViewModel.class);
-    return ResponseEntity.ok(journeyDriverViewModel);
+    final Tagged<GrabJourneyDTO> grabJourneyDTO = journeyService.patchJourney(id, patch, ifMatch);
+    final JourneyDriverViewModel journeyDriverViewModel =
+        journeyMapper.toJourneyDriverViewModel(grabJourneyDTO.getValue());
+    return ResponseEntity.ok().eTag(grabJourneyDTO.getEntityTag().getValue()).body(journeyDriverViewModel);
   }
 
   @DeleteMapping(value = "/{id}")
@@ -101,6 +159,14 @@ public class JourneyController {
     return ResponseEntity.noContent().build();
   }
 
+  @PostMapping(value = "{journeyId}/passengers/{passengerId}")
+  @ResponseStatus(HttpStatus.CREATED)
+  public ResponseEntity<?> createPassengerJourney(@PathVariable final int journeyId,
+      @PathVariable final int passengerId) {
+    journeyService.bookSeat(journeyId, passengerId);
+    return new ResponseEntity<>(HttpStatus.CREATED);
+  }
+
   @DeleteMapping(value = "{journeyId}/passengers/{passengerId}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
   public ResponseEntity<?> deletePassengerJourney(@PathVariable final int journeyId,
@@ -113,7 +179,17 @@ public class JourneyController {
   @ResponseStatus(HttpStatus.OK)
   public ResponseEntity<DistanceViewModel> calculateDistance(@Valid final CreateCalculateDistanceCriteria criteria) {
     final GrabDistanceDTO grabDistanceDTO = journeyService.calculateDistance(criteria);
-    final DistanceViewModel distanceViewModel = modelMapper.map(grabDistanceDTO,DistanceViewModel.class);
+    final DistanceViewModel distanceViewModel = distanceMapper.toDistanceViewModel(grabDistanceDTO);
     return ResponseEntity.ok(distanceViewModel);
   }
+
+  @PostMapping(value = "/distanceMatrix", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<DistanceMatrixViewModel> calculateDistanceMatrix(
+      @Valid @RequestBody final CreateDistanceMatrixViewModel createDistanceMatrixViewModel) {
+    final CreateDistanceMatrixDTO createDistanceMatrixDTO =
+        distanceMapper.toCreateDistanceMatrixDTO(createDistanceMatrixViewModel);
+    final GrabDistanceMatrixDTO grabDistanceMatrixDTO = journeyService.calculateDistanceMatrix(createDistanceMatrixDTO);
+    return ResponseEntity.ok(distanceMapper.toDistanceMatrixViewModel(grabDistanceMatrixDTO));
+  }
 }
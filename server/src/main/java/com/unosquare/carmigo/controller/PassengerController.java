@@ -1,12 +1,12 @@
 package com.unosquare.carmigo.controller;
 
 import com.unosquare.carmigo.dto.GrabPassengerDTO;
+import com.unosquare.carmigo.mapper.PassengerMapper;
 import com.unosquare.carmigo.model.response.PassengerViewModel;
 import com.unosquare.carmigo.security.AppUser;
 import com.unosquare.carmigo.service.PassengerService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -26,20 +27,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class PassengerController {
 
   private final PassengerService passengerService;
-  private final ModelMapper modelMapper;
+  private final PassengerMapper passengerMapper;
   private final AppUser appUser;
 
   @GetMapping(value = "/profile", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<PassengerViewModel> getCurrentPassengerProfile() {
-    return ResponseEntity.ok(getPassenger(0));
+  public ResponseEntity<PassengerViewModel> getCurrentPassengerProfile(final WebRequest webRequest) {
+    return getPassenger(0, webRequest);
   }
 
   @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   @PreAuthorize("hasAuthority('ADMIN')")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<PassengerViewModel> getPassengerById(@PathVariable final int id) {
-    return ResponseEntity.ok(getPassenger(id));
+  public ResponseEntity<PassengerViewModel> getPassengerById(@PathVariable final int id, final WebRequest webRequest) {
+    return getPassenger(id, webRequest);
   }
 
   @PostMapping(value = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -70,14 +71,15 @@ public class PassengerController {
     return ResponseEntity.noContent().build();
   }
 
-  private PassengerViewModel getPassenger(final int id) {
-    final GrabPassengerDTO grabPassengerDTO = passengerService.getPassengerById(getCurrentId(id));
-    return modelMapper.map(grabPassengerDTO, PassengerViewModel.class);
+  private ResponseEntity<PassengerViewModel> getPassenger(final int id, final WebRequest webRequest) {
+    final int currentId = getCurrentId(id);
+    return ConditionalResponse.ok(webRequest, passengerService.getPassengerEntityTag(currentId),
+        () -> passengerMapper.toPassengerViewModel(passengerService.getPassengerById(currentId)));
   }
 
   private PassengerViewModel createPassenger(final int id) {
     final GrabPassengerDTO grabPassengerDTO = passengerService.createPassengerById(getCurrentId(id));
-    return modelMapper.map(grabPassengerDTO, PassengerViewModel.class);
+    return passengerMapper.toPassengerViewModel(grabPassengerDTO);
   }
 
   private void deletePassenger(final int id) {
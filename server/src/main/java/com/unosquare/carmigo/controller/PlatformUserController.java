@@ -1,16 +1,22 @@
 package com.unosquare.carmigo.controller;
 
+import static com.unosquare.carmigo.constant.AppConstants.ACTIVE;
+import static com.unosquare.carmigo.constant.AppConstants.SUSPENDED;
+
 import com.github.fge.jsonpatch.JsonPatch;
+import com.unosquare.carmigo.annotation.AllowedAccessStatus;
 import com.unosquare.carmigo.dto.CreatePlatformUserDTO;
 import com.unosquare.carmigo.dto.GrabPlatformUserDTO;
+import com.unosquare.carmigo.mapper.PlatformUserMapper;
 import com.unosquare.carmigo.model.request.CreatePlatformUserViewModel;
 import com.unosquare.carmigo.model.response.PlatformUserViewModel;
 import com.unosquare.carmigo.security.AppUser;
 import com.unosquare.carmigo.service.PlatformUserService;
+import com.unosquare.carmigo.util.Tagged;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,9 +27,11 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,47 +39,57 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Platform User Controller")
 public class PlatformUserController {
 
-  private final ModelMapper modelMapper;
+  private final PlatformUserMapper platformUserMapper;
   private final PlatformUserService platformUserService;
   private final AppUser appUser;
 
   @GetMapping(value = "/profile", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<PlatformUserViewModel> getCurrentPlatformUserProfile() {
-    return ResponseEntity.ok(getPlatformUser(0));
+  @AllowedAccessStatus({ACTIVE, SUSPENDED})
+  public ResponseEntity<PlatformUserViewModel> getCurrentPlatformUserProfile(final WebRequest webRequest) {
+    return getPlatformUser(0, webRequest);
   }
 
   @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   @PreAuthorize("hasAuthority('ADMIN')")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<PlatformUserViewModel> getPlatformUserById(@PathVariable final int id) {
-    return ResponseEntity.ok(getPlatformUser(id));
+  @AllowedAccessStatus({ACTIVE, SUSPENDED})
+  public ResponseEntity<PlatformUserViewModel> getPlatformUserById(@PathVariable final int id,
+      final WebRequest webRequest) {
+    return getPlatformUser(id, webRequest);
   }
 
   @PostMapping(value = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
   public ResponseEntity<PlatformUserViewModel> createPlatformUser(
       @Valid @RequestBody final CreatePlatformUserViewModel createPlatformUserViewModel) {
-    final CreatePlatformUserDTO createPlatformUserDTO = modelMapper.map(
-        createPlatformUserViewModel, CreatePlatformUserDTO.class);
+    final CreatePlatformUserDTO createPlatformUserDTO = platformUserMapper.toCreatePlatformUserDTO(
+        createPlatformUserViewModel);
     final GrabPlatformUserDTO grabPlatformUserDTO = platformUserService.createPlatformUser(createPlatformUserDTO);
-    final PlatformUserViewModel platformUserViewModel = modelMapper.map(
-        grabPlatformUserDTO, PlatformUserViewModel.class);
+    final PlatformUserViewModel platformUserViewModel = platformUserMapper.toPlatformUserViewModel(
+        grabPlatformUserDTO);
     return new ResponseEntity<>(platformUserViewModel, HttpStatus.CREATED);
   }
 
   @PatchMapping(consumes = "application/json-patch+json")
   @ResponseStatus(HttpStatus.ACCEPTED)
-  public ResponseEntity<PlatformUserViewModel> patchCurrentPlatformUser(@RequestBody final JsonPatch patch) {
-    return new ResponseEntity<>(patchPlatformUser(0, patch), HttpStatus.ACCEPTED);
+  @AllowedAccessStatus({ACTIVE, SUSPENDED})
+  public ResponseEntity<PlatformUserViewModel> patchCurrentPlatformUser(
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+      @RequestBody final JsonPatch patch) {
+    final Tagged<GrabPlatformUserDTO> grabPlatformUserDTO =
+        platformUserService.patchCurrentPlatformUser(appUser.get().getId(), patch, ifMatch);
+    return patchedPlatformUser(grabPlatformUserDTO);
   }
 
   @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
   @PreAuthorize("hasAuthority('ADMIN')")
   @ResponseStatus(HttpStatus.ACCEPTED)
-  public ResponseEntity<PlatformUserViewModel> patchPlatformUserById(
-      @PathVariable final int id, @RequestBody final JsonPatch patch) {
-    return new ResponseEntity<>(patchPlatformUser(id, patch), HttpStatus.ACCEPTED);
+  @AllowedAccessStatus({ACTIVE, SUSPENDED})
+  public ResponseEntity<PlatformUserViewModel> patchPlatformUserById(@PathVariable final int id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+      @RequestBody final JsonPatch patch) {
+    return patchedPlatformUser(platformUserService.patchPlatformUserById(id, patch, ifMatch));
   }
 
   @DeleteMapping
@@ -89,14 +107,18 @@ public class PlatformUserController {
     return ResponseEntity.noContent().build();
   }
 
-  private PlatformUserViewModel getPlatformUser(final int id) {
-    final GrabPlatformUserDTO grabPlatformUserDTO = platformUserService.getPlatformUserById(getCurrentId(id));
-    return modelMapper.map(grabPlatformUserDTO, PlatformUserViewModel.class);
+  private ResponseEntity<PlatformUserViewModel> getPlatformUser(final int id, final WebRequest webRequest) {
+    final int currentId = getCurrentId(id);
+    return ConditionalResponse.ok(webRequest, platformUserService.getPlatformUserEntityTag(currentId),
+        () -> platformUserMapper.toPlatformUserViewModel(platformUserService.getPlatformUserById(currentId)));
   }
 
-  private PlatformUserViewModel patchPlatformUser(final int id, final JsonPatch patch) {
-    final GrabPlatformUserDTO grabPlatformUserDTO = platformUserService.patchPlatformUserById(getCurrentId(id), patch);
-    return modelMapper.map(grabPlatformUserDTO, PlatformUserViewModel.class);
+  private ResponseEntity<PlatformUserViewModel> patchedPlatformUser(
+      final Tagged<GrabPlatformUserDTO> grabPlatformUserDTO) {
+    final PlatformUserViewModel platformUserViewModel =
+        platformUserMapper.toPlatformUserViewModel(grabPlatformUserDTO.getValue());
+    return ResponseEntity.status(HttpStatus.ACCEPTED).eTag(grabPlatformUserDTO.getEntityTag().getValue())
+        .body(platformUserViewModel);
   }
 
   private void deletePlatformUser(final int id) {
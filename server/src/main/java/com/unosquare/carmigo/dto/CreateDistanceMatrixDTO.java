@@ -0,0 +1,20 @@
+package com.unosquare.carmigo.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class CreateDistanceMatrixDTO {
+
+  private List<Place> origins;
+
+  private List<Place> destinations;
+
+  @Data
+  public static class Place {
+
+    private String location;
+
+    private String country;
+  }
+}
@@ -6,4 +6,6 @@ import lombok.Data;
 public class GrabAuthenticationDTO {
 
   private String jwt;
+
+  private String refreshToken;
 }
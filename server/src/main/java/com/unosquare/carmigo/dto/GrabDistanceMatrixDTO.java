@@ -0,0 +1,16 @@
+package com.unosquare.carmigo.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class GrabDistanceMatrixDTO {
+
+  private List<GrabDistanceDTO.Location> origins;
+
+  private List<GrabDistanceDTO.Location> destinations;
+
+  private List<List<Double>> km;
+
+  private List<List<Double>> mi;
+}
@@ -0,0 +1,36 @@
+package com.unosquare.carmigo.dto;
+
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of one journey of a batch, in the order of the request: the id of the journey created, or why it was
+ * rejected.
+ */
+@Data
+public class GrabJourneyBatchItemDTO {
+
+  private int index;
+
+  private int status;
+
+  private Integer id;
+
+  private String error;
+
+  public static GrabJourneyBatchItemDTO created(final int index, final int id) {
+    final GrabJourneyBatchItemDTO grabJourneyBatchItemDTO = new GrabJourneyBatchItemDTO();
+    grabJourneyBatchItemDTO.setIndex(index);
+    grabJourneyBatchItemDTO.setStatus(HttpStatus.CREATED.value());
+    grabJourneyBatchItemDTO.setId(id);
+    return grabJourneyBatchItemDTO;
+  }
+
+  public static GrabJourneyBatchItemDTO rejected(final int index, final HttpStatus status, final String error) {
+    final GrabJourneyBatchItemDTO grabJourneyBatchItemDTO = new GrabJourneyBatchItemDTO();
+    grabJourneyBatchItemDTO.setIndex(index);
+    grabJourneyBatchItemDTO.setStatus(status.value());
+    grabJourneyBatchItemDTO.setError(error);
+    return grabJourneyBatchItemDTO;
+  }
+}
@@ -1,5 +1,6 @@
 package com.unosquare.carmigo.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.Instant;
 import java.util.List;
 import lombok.Data;
@@ -22,4 +23,11 @@ public class GrabJourneyDTO {
   private GrabDriverDTO driver;
 
   private List<GrabPassengerDTO> passengers;
+
+  /**
+   * Precomputed distance of the route, null until it has been resolved. Derived from the locations, so it is left
+   * out of the documents JSON patches are applied to.
+   */
+  @JsonIgnore
+  private GrabDistanceDTO.Distance distance;
 }
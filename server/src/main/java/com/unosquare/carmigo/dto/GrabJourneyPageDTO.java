@@ -0,0 +1,12 @@
+package com.unosquare.carmigo.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class GrabJourneyPageDTO {
+
+  private List<GrabJourneyDTO> journeys;
+
+  private String continuationToken;
+}
@@ -1,7 +1,7 @@
 package com.unosquare.carmigo.entity;
 
 import java.time.Instant;
-import java.util.List;
+import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -15,10 +15,14 @@ import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
 
 @Entity
 @Getter
@@ -29,7 +33,7 @@ import lombok.Setter;
 public class Journey {
 
   @Id
-  @SequenceGenerator(name = "journey_id_seq", sequenceName = "journey_id_seq", allocationSize = 1)
+  @SequenceGenerator(name = "journey_id_seq", sequenceName = "journey_id_seq", allocationSize = 50)
   @GeneratedValue(generator = "journey_id_seq", strategy = GenerationType.SEQUENCE)
   @Column(name = "id", updatable = false, nullable = false)
   private int id;
@@ -55,8 +59,25 @@ public class Journey {
   @JoinColumn(name = "driver_id", nullable = false)
   private Driver driver;
 
-  @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
+  /**
+   * Maintained by the database statements booking and releasing seats, never written through the entity.
+   */
+  @Column(name = "seats_taken", nullable = false, insertable = false, updatable = false)
+  private int seatsTaken;
+
+  /**
+   * Read only: bookings are only ever inserted and deleted a row at a time through PassengerJourneyRepository, which
+   * keeps seats_taken in step. Changing the collection fails the flush instead of rewriting every booking.
+   */
+  @Immutable
+  @BatchSize(size = 50)
+  @Setter(AccessLevel.NONE)
+  @ManyToMany(fetch = FetchType.LAZY)
   @JoinTable(name = "passenger_journey", joinColumns = @JoinColumn(name = "journey_id"),
       inverseJoinColumns = @JoinColumn(name = "passenger_id"))
-  private List<Passenger> passengers;
+  private Set<Passenger> passengers;
+
+  @Version
+  @Column(name = "version", nullable = false)
+  private int version;
 }
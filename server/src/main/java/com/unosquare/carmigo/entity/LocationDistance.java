@@ -0,0 +1,32 @@
+package com.unosquare.carmigo.entity;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "location_distance")
+public class LocationDistance {
+
+  @EmbeddedId
+  private LocationDistanceId id;
+
+  @Column(name = "km", nullable = false)
+  private double km;
+
+  @Column(name = "mi", nullable = false)
+  private double mi;
+
+  @Column(name = "updated_date", nullable = false)
+  private Instant updatedDate;
+}
@@ -0,0 +1,23 @@
+package com.unosquare.carmigo.entity;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDistanceId implements Serializable {
+
+  private static final long serialVersionUID = -3419872051846387512L;
+
+  @Column(name = "location_id_from", nullable = false)
+  private int locationIdFrom;
+
+  @Column(name = "location_id_to", nullable = false)
+  private int locationIdTo;
+}
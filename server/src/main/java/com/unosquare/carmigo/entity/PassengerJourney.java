@@ -9,6 +9,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -24,7 +25,8 @@ import lombok.Setter;
 public class PassengerJourney {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  @SequenceGenerator(name = "passenger_journey_id_seq", sequenceName = "passenger_journey_id_seq", allocationSize = 50)
+  @GeneratedValue(generator = "passenger_journey_id_seq", strategy = GenerationType.SEQUENCE)
   @Column(name = "id", updatable = false, nullable = false)
   private int id;
 
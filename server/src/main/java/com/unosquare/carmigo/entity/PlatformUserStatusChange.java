@@ -0,0 +1,36 @@
+package com.unosquare.carmigo.entity;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Written by a database trigger whenever the access status of a user changes or the user is deleted.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "platform_user_status_change")
+public class PlatformUserStatusChange {
+
+  @Id
+  @Column(name = "platform_user_id", updatable = false, nullable = false)
+  private int platformUserId;
+
+  /**
+   * Null when the user was deleted.
+   */
+  @Column(name = "status")
+  private String status;
+
+  @Column(name = "changed_date", nullable = false)
+  private Instant changedDate;
+}
@@ -0,0 +1,49 @@
+package com.unosquare.carmigo.entity;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A refresh token issued at login, stored as the SHA-256 of the token. Deleted when used, revoked on logout and
+ * cascaded away with its user.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "refresh_token")
+public class RefreshToken {
+
+  @Id
+  @SequenceGenerator(name = "refresh_token_id_seq", sequenceName = "refresh_token_id_seq", allocationSize = 50)
+  @GeneratedValue(generator = "refresh_token_id_seq", strategy = GenerationType.SEQUENCE)
+  @Column(name = "id", updatable = false, nullable = false)
+  private int id;
+
+  @Column(name = "token_hash", nullable = false, unique = true)
+  private String tokenHash;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "platform_user_id", nullable = false)
+  private PlatformUser platformUser;
+
+  @Column(name = "created_date", nullable = false)
+  private Instant createdDate;
+
+  @Column(name = "expiry_date", nullable = false)
+  private Instant expiryDate;
+}
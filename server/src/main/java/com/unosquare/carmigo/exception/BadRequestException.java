@@ -0,0 +1,10 @@
+package com.unosquare.carmigo.exception;
+
+public final class BadRequestException extends RuntimeException {
+
+  private static final long serialVersionUID = 2718204917263544381L;
+
+  public BadRequestException(final String message) {
+    super(message);
+  }
+}
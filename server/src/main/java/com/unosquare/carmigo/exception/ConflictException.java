@@ -0,0 +1,10 @@
+package com.unosquare.carmigo.exception;
+
+public final class ConflictException extends RuntimeException {
+
+  private static final long serialVersionUID = 6120938457712093846L;
+
+  public ConflictException(final String message) {
+    super(message);
+  }
+}
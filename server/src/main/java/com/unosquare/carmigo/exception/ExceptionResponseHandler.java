@@ -37,6 +37,33 @@ public class ExceptionResponseHandler {
     return ExceptionBuilder.buildErrorResponseRepresentation(HttpStatus.FORBIDDEN, exception.getMessage());
   }
 
+  @ExceptionHandler({
+      BadRequestException.class,
+      PatchException.class})
+  public ResponseEntity<ErrorResponse> handleBadRequestException(final Exception exception) {
+    return ExceptionBuilder.buildErrorResponseRepresentation(HttpStatus.BAD_REQUEST, exception.getMessage());
+  }
+
+  @ExceptionHandler({ConflictException.class})
+  public ResponseEntity<ErrorResponse> handleConflictException(final Exception exception) {
+    return ExceptionBuilder.buildErrorResponseRepresentation(HttpStatus.CONFLICT, exception.getMessage());
+  }
+
+  @ExceptionHandler({PreconditionFailedException.class})
+  public ResponseEntity<ErrorResponse> handlePreconditionFailedException(final Exception exception) {
+    return ExceptionBuilder.buildErrorResponseRepresentation(HttpStatus.PRECONDITION_FAILED, exception.getMessage());
+  }
+
+  @ExceptionHandler({TooManyRequestsException.class})
+  public ResponseEntity<ErrorResponse> handleTooManyRequestsException(final Exception exception) {
+    return ExceptionBuilder.buildErrorResponseRepresentation(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage());
+  }
+
+  @ExceptionHandler({ServiceUnavailableException.class})
+  public ResponseEntity<ErrorResponse> handleServiceUnavailableException(final Exception exception) {
+    return ExceptionBuilder.buildErrorResponseRepresentation(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+  }
+
   @ExceptionHandler({MethodArgumentNotValidException.class})
   public ResponseEntity<ErrorResponse> handleBeanValidationException(
       final MethodArgumentNotValidException methodArgumentNotValidException) {
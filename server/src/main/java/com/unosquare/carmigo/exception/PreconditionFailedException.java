@@ -0,0 +1,10 @@
+package com.unosquare.carmigo.exception;
+
+public final class PreconditionFailedException extends RuntimeException {
+
+  private static final long serialVersionUID = 2874095316620374591L;
+
+  public PreconditionFailedException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,10 @@
+package com.unosquare.carmigo.exception;
+
+public final class ServiceUnavailableException extends RuntimeException {
+
+  private static final long serialVersionUID = 6094718391862045723L;
+
+  public ServiceUnavailableException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,10 @@
+package com.unosquare.carmigo.exception;
+
+public final class TooManyRequestsException extends RuntimeException {
+
+  private static final long serialVersionUID = -3402968121743562208L;
+
+  public TooManyRequestsException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,15 @@
+package com.unosquare.carmigo.mapper;
+
+import com.unosquare.carmigo.dto.CreateAuthenticationDTO;
+import com.unosquare.carmigo.dto.GrabAuthenticationDTO;
+import com.unosquare.carmigo.model.request.CreateAuthenticationViewModel;
+import com.unosquare.carmigo.model.response.AuthenticationViewModel;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface AuthenticationMapper {
+
+  CreateAuthenticationDTO toCreateAuthenticationDTO(CreateAuthenticationViewModel createAuthenticationViewModel);
+
+  AuthenticationViewModel toAuthenticationViewModel(GrabAuthenticationDTO grabAuthenticationDTO);
+}
@@ -0,0 +1,21 @@
+package com.unosquare.carmigo.mapper;
+
+import com.unosquare.carmigo.dto.CreateDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDistanceMatrixDTO;
+import com.unosquare.carmigo.model.request.CreateDistanceMatrixViewModel;
+import com.unosquare.carmigo.model.response.DistanceMatrixViewModel;
+import com.unosquare.carmigo.model.response.DistanceViewModel;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface DistanceMapper {
+
+  DistanceViewModel toDistanceViewModel(GrabDistanceDTO grabDistanceDTO);
+
+  DistanceViewModel.Distance toDistanceViewModel(GrabDistanceDTO.Distance distance);
+
+  DistanceMatrixViewModel toDistanceMatrixViewModel(GrabDistanceMatrixDTO grabDistanceMatrixDTO);
+
+  CreateDistanceMatrixDTO toCreateDistanceMatrixDTO(CreateDistanceMatrixViewModel createDistanceMatrixViewModel);
+}
@@ -0,0 +1,20 @@
+package com.unosquare.carmigo.mapper;
+
+import com.unosquare.carmigo.dto.CreateDriverDTO;
+import com.unosquare.carmigo.dto.GrabDriverDTO;
+import com.unosquare.carmigo.entity.Driver;
+import com.unosquare.carmigo.model.request.CreateDriverViewModel;
+import com.unosquare.carmigo.model.response.DriverViewModel;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class, uses = PlatformUserMapper.class)
+public interface DriverMapper {
+
+  GrabDriverDTO toGrabDriverDTO(Driver driver);
+
+  Driver toDriver(CreateDriverDTO createDriverDTO);
+
+  CreateDriverDTO toCreateDriverDTO(CreateDriverViewModel createDriverViewModel);
+
+  DriverViewModel toDriverViewModel(GrabDriverDTO grabDriverDTO);
+}
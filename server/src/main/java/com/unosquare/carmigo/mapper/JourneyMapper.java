@@ -0,0 +1,40 @@
+package com.unosquare.carmigo.mapper;
+
+import com.unosquare.carmigo.dto.CreateJourneyDTO;
+import com.unosquare.carmigo.dto.GrabJourneyBatchItemDTO;
+import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.entity.Journey;
+import com.unosquare.carmigo.model.request.CreateJourneyViewModel;
+import com.unosquare.carmigo.model.response.JourneyBatchItemViewModel;
+import com.unosquare.carmigo.model.response.JourneyDriverViewModel;
+import com.unosquare.carmigo.model.response.JourneyPassengerViewModel;
+import java.util.List;
+import org.mapstruct.Mapper;
+
+/**
+ * Journey mappings, including the lists searches and the driver and passenger journey endpoints return.
+ */
+@Mapper(config = MappingConfig.class, uses = {DriverMapper.class, PassengerMapper.class, DistanceMapper.class})
+public interface JourneyMapper {
+
+  GrabJourneyDTO toGrabJourneyDTO(Journey journey);
+
+  /**
+   * Only the plain properties: the locations and the driver are set by the caller as entity references.
+   */
+  Journey toJourney(CreateJourneyDTO createJourneyDTO);
+
+  CreateJourneyDTO toCreateJourneyDTO(CreateJourneyViewModel createJourneyViewModel);
+
+  List<CreateJourneyDTO> toCreateJourneyDTOs(List<CreateJourneyViewModel> createJourneyViewModels);
+
+  JourneyDriverViewModel toJourneyDriverViewModel(GrabJourneyDTO grabJourneyDTO);
+
+  List<JourneyDriverViewModel> toJourneyDriverViewModels(List<GrabJourneyDTO> grabJourneyDTOs);
+
+  JourneyPassengerViewModel toJourneyPassengerViewModel(GrabJourneyDTO grabJourneyDTO);
+
+  List<JourneyPassengerViewModel> toJourneyPassengerViewModels(List<GrabJourneyDTO> grabJourneyDTOs);
+
+  List<JourneyBatchItemViewModel> toJourneyBatchItemViewModels(List<GrabJourneyBatchItemDTO> grabJourneyBatchItemDTOs);
+}
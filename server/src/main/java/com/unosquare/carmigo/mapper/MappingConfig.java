@@ -0,0 +1,18 @@
+package com.unosquare.carmigo.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings of the generated mappers, matching those ModelMapper was configured with: properties are matched
+ * by exact name, and a null source property is skipped rather than copied, so the target keeps its own value.
+ */
+@MapperConfig(
+    componentModel = "spring",
+    injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+    nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
+    unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MappingConfig {
+}
@@ -0,0 +1,14 @@
+package com.unosquare.carmigo.mapper;
+
+import com.unosquare.carmigo.dto.GrabPassengerDTO;
+import com.unosquare.carmigo.entity.Passenger;
+import com.unosquare.carmigo.model.response.PassengerViewModel;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class, uses = PlatformUserMapper.class)
+public interface PassengerMapper {
+
+  GrabPassengerDTO toGrabPassengerDTO(Passenger passenger);
+
+  PassengerViewModel toPassengerViewModel(GrabPassengerDTO grabPassengerDTO);
+}
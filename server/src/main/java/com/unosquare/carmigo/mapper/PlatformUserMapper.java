@@ -0,0 +1,20 @@
+package com.unosquare.carmigo.mapper;
+
+import com.unosquare.carmigo.dto.CreatePlatformUserDTO;
+import com.unosquare.carmigo.dto.GrabPlatformUserDTO;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.model.request.CreatePlatformUserViewModel;
+import com.unosquare.carmigo.model.response.PlatformUserViewModel;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface PlatformUserMapper {
+
+  GrabPlatformUserDTO toGrabPlatformUserDTO(PlatformUser platformUser);
+
+  PlatformUser toPlatformUser(CreatePlatformUserDTO createPlatformUserDTO);
+
+  CreatePlatformUserDTO toCreatePlatformUserDTO(CreatePlatformUserViewModel createPlatformUserViewModel);
+
+  PlatformUserViewModel toPlatformUserViewModel(GrabPlatformUserDTO grabPlatformUserDTO);
+}
@@ -0,0 +1,37 @@
+package com.unosquare.carmigo.model.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CreateDistanceMatrixViewModel {
+
+  @Valid
+  @NotEmpty
+  @Size(max = 50)
+  @JsonProperty("origins")
+  private List<Place> origins;
+
+  @Valid
+  @NotEmpty
+  @Size(max = 50)
+  @JsonProperty("destinations")
+  private List<Place> destinations;
+
+  @Data
+  public static class Place {
+
+    @NotBlank
+    @JsonProperty("location")
+    private String location;
+
+    @NotBlank
+    @JsonProperty("country")
+    private String country;
+  }
+}
@@ -0,0 +1,15 @@
+package com.unosquare.carmigo.model.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CreateRefreshTokenViewModel {
+
+  @Size(max = 100)
+  @NotNull
+  @JsonProperty("refreshToken")
+  private String refreshToken;
+}
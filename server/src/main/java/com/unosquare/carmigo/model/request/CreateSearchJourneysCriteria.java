@@ -19,4 +19,9 @@ public class CreateSearchJourneysCriteria {
 
   @NotNull
   private Instant dateTimeTo;
+
+  @Range(min = 1, max = 200)
+  private int limit = 50;
+
+  private String continuationToken;
 }
@@ -12,4 +12,7 @@ public class AuthenticationViewModel {
 
   @JsonProperty("jwt")
   private String jwt;
+
+  @JsonProperty("refreshToken")
+  private String refreshToken;
 }
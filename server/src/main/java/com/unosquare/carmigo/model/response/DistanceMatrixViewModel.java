@@ -0,0 +1,20 @@
+package com.unosquare.carmigo.model.response;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class DistanceMatrixViewModel {
+
+  private List<DistanceViewModel.Location> origins;
+
+  private List<DistanceViewModel.Location> destinations;
+
+  /**
+   * km.get(i).get(j) is the distance from origins.get(i) to destinations.get(j), or null when either place could not
+   * be resolved.
+   */
+  private List<List<Double>> km;
+
+  private List<List<Double>> mi;
+}
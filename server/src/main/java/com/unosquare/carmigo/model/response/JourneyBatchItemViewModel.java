@@ -0,0 +1,24 @@
+package com.unosquare.carmigo.model.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class JourneyBatchItemViewModel {
+
+  @JsonProperty("index")
+  private int index;
+
+  @JsonProperty("status")
+  private int status;
+
+  @JsonProperty("id")
+  private Integer id;
+
+  @JsonProperty("error")
+  private String error;
+}
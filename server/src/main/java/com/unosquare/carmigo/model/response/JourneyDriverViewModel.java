@@ -31,4 +31,7 @@ public class JourneyDriverViewModel {
 
   @JsonProperty("driver")
   private DriverViewModel driver;
+
+  @JsonProperty("distance")
+  private DistanceViewModel.Distance distance;
 }
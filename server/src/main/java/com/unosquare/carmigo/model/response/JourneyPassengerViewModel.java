@@ -32,4 +32,7 @@ public class JourneyPassengerViewModel {
 
   @JsonProperty("passengers")
   private List<PassengerViewModel> passengers;
+
+  @JsonProperty("distance")
+  private DistanceViewModel.Distance distance;
 }
@@ -7,8 +7,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 @FeignClient(value = "distance",
     url = "${open-feign.distance.endpoint}",
-    configuration = OpenFeignDistanceConfiguration.class,
-    fallback = DistanceApiFallback.class)
+    configuration = OpenFeignDistanceConfiguration.class)
 public interface DistanceApi {
 
   @GetMapping(value = "?route={route}")
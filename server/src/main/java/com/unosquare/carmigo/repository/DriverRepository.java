@@ -1,8 +1,21 @@
 package com.unosquare.carmigo.repository;
 
 import com.unosquare.carmigo.entity.Driver;
+import com.unosquare.carmigo.repository.projection.DriverVersionProjection;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface DriverRepository extends JpaRepository<Driver, Integer> {}
+public interface DriverRepository extends JpaRepository<Driver, Integer> {
+
+  @Query("SELECT pu.version AS version, d.licenseNumber AS licenseNumber FROM Driver d JOIN d.platformUser pu"
+      + " WHERE d.id = ?1")
+  Optional<DriverVersionProjection> findDriverVersionProjectionById(final int id);
+
+  @Query("SELECT d.id FROM Driver d WHERE d.id IN ?1")
+  Set<Integer> findIdsByIdIn(final Collection<Integer> ids);
+}
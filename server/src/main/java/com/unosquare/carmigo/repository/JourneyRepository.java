@@ -1,18 +1,100 @@
 package com.unosquare.carmigo.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import com.unosquare.carmigo.entity.Journey;
+import com.unosquare.carmigo.repository.projection.JourneyDriverProjection;
+import com.unosquare.carmigo.repository.projection.JourneyIndexProjection;
+import com.unosquare.carmigo.repository.projection.JourneyPassengerProjection;
+import com.unosquare.carmigo.repository.projection.JourneyVersionProjection;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface JourneyRepository extends JpaRepository<Journey, Integer> {
 
-  List<Journey> findJourneysByDriverId(final int id);
+  /**
+   * Selects a journey with its locations, driver and precomputed route distance straight into a
+   * {@link JourneyDriverProjection}, so reads never hydrate managed entities.
+   */
+  String JOURNEY_DRIVER_PROJECTION = "SELECT new com.unosquare.carmigo.repository.projection.JourneyDriverProjection("
+      + "j.id, j.createdDate, j.maxPassengers, j.dateTime, lf.id, lf.description, lt.id, lt.description,"
+      + " d.id, d.licenseNumber, pu.id, pu.createdDate, pu.firstName, pu.lastName, pu.dob, pu.email,"
+      + " pu.phoneNumber, uas.id, uas.status, ld.km, ld.mi)"
+      + " FROM Journey j JOIN j.locationFrom lf JOIN j.locationTo lt JOIN j.driver d JOIN d.platformUser pu"
+      + " JOIN pu.userAccessStatus uas"
+      + " LEFT JOIN LocationDistance ld ON ld.id.locationIdFrom = lf.id AND ld.id.locationIdTo = lt.id";
+
+  /**
+   * Selects one row per (journey, passenger) straight into a {@link JourneyPassengerProjection}.
+   */
+  String JOURNEY_PASSENGER_PROJECTION =
+      "SELECT new com.unosquare.carmigo.repository.projection.JourneyPassengerProjection("
+          + "j.id, p.id, pu.id, pu.createdDate, pu.firstName, pu.lastName, pu.dob, pu.email, pu.phoneNumber,"
+          + " uas.id, uas.status)"
+          + " FROM Journey j JOIN j.passengers p JOIN p.platformUser pu JOIN pu.userAccessStatus uas";
+
+  String JOURNEY_INDEX_PROJECTION = "SELECT j.id AS id, j.locationFrom.id AS locationIdFrom,"
+      + " j.locationTo.id AS locationIdTo, j.dateTime AS dateTime, j.maxPassengers AS maxPassengers,"
+      + " j.driver.id AS driverId, j.seatsTaken AS passengerCount FROM Journey j";
+
+  String ROUTE_WINDOW = " WHERE lf.id = :locationIdFrom AND lt.id = :locationIdTo"
+      + " AND j.dateTime BETWEEN :dateTimeFrom AND :dateTimeTo";
+
+  @Query(JOURNEY_DRIVER_PROJECTION + " WHERE j.id = ?1")
+  Optional<JourneyDriverProjection> findJourneyDriverProjectionById(final int id);
+
+  @Query(JOURNEY_DRIVER_PROJECTION + " WHERE j.id IN ?1")
+  List<JourneyDriverProjection> findJourneyDriverProjectionsByIdIn(final Collection<Integer> ids);
+
+  @Query(JOURNEY_DRIVER_PROJECTION + " WHERE d.id = ?1 ORDER BY j.dateTime, j.id")
+  List<JourneyDriverProjection> findJourneyDriverProjectionsByDriverId(final int id);
+
+  @Query(JOURNEY_DRIVER_PROJECTION + " JOIN j.passengers p WHERE p.id = ?1 ORDER BY j.dateTime, j.id")
+  List<JourneyDriverProjection> findJourneyDriverProjectionsByPassengerId(final int id);
+
+  @Query(JOURNEY_PASSENGER_PROJECTION + " WHERE j.driver.id = ?1")
+  List<JourneyPassengerProjection> findJourneyPassengerProjectionsByDriverId(final int id);
+
+  @Query(JOURNEY_DRIVER_PROJECTION + ROUTE_WINDOW
+      + " AND (j.dateTime > :afterDateTime OR (j.dateTime = :afterDateTime AND j.id > :afterId))"
+      + " ORDER BY j.dateTime, j.id")
+  List<JourneyDriverProjection> findJourneyDriverProjectionsByRouteAfter(
+      @Param("locationIdFrom") final int locationIdFrom, @Param("locationIdTo") final int locationIdTo,
+      @Param("dateTimeFrom") final Instant dateTimeFrom, @Param("dateTimeTo") final Instant dateTimeTo,
+      @Param("afterDateTime") final Instant afterDateTime, @Param("afterId") final int afterId,
+      final Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+  @Query(JOURNEY_DRIVER_PROJECTION + ROUTE_WINDOW + " ORDER BY j.dateTime, j.id")
+  Stream<JourneyDriverProjection> streamJourneyDriverProjectionsByRoute(
+      @Param("locationIdFrom") final int locationIdFrom, @Param("locationIdTo") final int locationIdTo,
+      @Param("dateTimeFrom") final Instant dateTimeFrom, @Param("dateTimeTo") final Instant dateTimeTo);
+
+  @Query("SELECT j.version AS version, pu.version AS driverVersion, ld.updatedDate AS distanceUpdatedDate"
+      + " FROM Journey j JOIN j.driver d JOIN d.platformUser pu LEFT JOIN LocationDistance ld"
+      + " ON ld.id.locationIdFrom = j.locationFrom.id AND ld.id.locationIdTo = j.locationTo.id WHERE j.id = ?1")
+  Optional<JourneyVersionProjection> findJourneyVersionProjectionById(final int id);
+
+  @Query("SELECT j.version FROM Journey j WHERE j.id = ?1")
+  Optional<Integer> findVersionById(final int id);
+
+  @Query("SELECT j.maxPassengers - j.seatsTaken FROM Journey j WHERE j.id = ?1")
+  Optional<Integer> findSeatsLeftById(final int id);
 
-  List<Journey> findJourneysByPassengersId(final int id);
+  @Query(JOURNEY_INDEX_PROJECTION)
+  List<JourneyIndexProjection> findAllForSearchIndex();
 
-  List<Journey> findJourneysByLocationFromIdAndLocationToIdAndDateTimeBetween(
-      final int locationIdFrom, final int locationIdTo, final Instant dateTimeFrom, final Instant dateTimeTo);
+  @Query(JOURNEY_INDEX_PROJECTION + " WHERE j.id = ?1")
+  Optional<JourneyIndexProjection> findForSearchIndexById(final int id);
 }
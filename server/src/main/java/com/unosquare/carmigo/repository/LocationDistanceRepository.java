@@ -0,0 +1,10 @@
+package com.unosquare.carmigo.repository;
+
+import com.unosquare.carmigo.entity.LocationDistance;
+import com.unosquare.carmigo.entity.LocationDistanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LocationDistanceRepository
+    extends JpaRepository<LocationDistance, LocationDistanceId>, LocationDistanceRepositoryCustom {}
@@ -0,0 +1,12 @@
+package com.unosquare.carmigo.repository;
+
+import com.unosquare.carmigo.entity.LocationDistance;
+import java.util.Collection;
+
+public interface LocationDistanceRepositoryCustom {
+
+  /**
+   * Inserts the distances, or overwrites the stored ones for the same pair of locations, in JDBC batches.
+   */
+  void upsertAll(final Collection<LocationDistance> locationDistances);
+}
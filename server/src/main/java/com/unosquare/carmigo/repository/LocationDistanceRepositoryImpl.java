@@ -0,0 +1,30 @@
+package com.unosquare.carmigo.repository;
+
+import com.unosquare.carmigo.entity.LocationDistance;
+import java.sql.Timestamp;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class LocationDistanceRepositoryImpl implements LocationDistanceRepositoryCustom {
+
+  private static final int BATCH_SIZE = 100;
+  private static final String UPSERT = "INSERT INTO location_distance"
+      + " (location_id_from, location_id_to, km, mi, updated_date) VALUES (?, ?, ?, ?, ?)"
+      + " ON CONFLICT (location_id_from, location_id_to)"
+      + " DO UPDATE SET km = excluded.km, mi = excluded.mi, updated_date = excluded.updated_date";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void upsertAll(final Collection<LocationDistance> locationDistances) {
+    jdbcTemplate.batchUpdate(UPSERT, locationDistances, BATCH_SIZE, (statement, locationDistance) -> {
+      statement.setInt(1, locationDistance.getId().getLocationIdFrom());
+      statement.setInt(2, locationDistance.getId().getLocationIdTo());
+      statement.setDouble(3, locationDistance.getKm());
+      statement.setDouble(4, locationDistance.getMi());
+      statement.setTimestamp(5, Timestamp.from(locationDistance.getUpdatedDate()));
+    });
+  }
+}
@@ -1,8 +1,15 @@
 package com.unosquare.carmigo.repository;
 
 import com.unosquare.carmigo.entity.Location;
+import java.util.Collection;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface LocationRepository extends JpaRepository<Location, Integer> {}
+public interface LocationRepository extends JpaRepository<Location, Integer> {
+
+  @Query("SELECT l.id FROM Location l WHERE l.id IN ?1")
+  Set<Integer> findIdsByIdIn(final Collection<Integer> ids);
+}
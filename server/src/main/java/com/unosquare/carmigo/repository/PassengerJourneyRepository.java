@@ -1,11 +1,72 @@
 package com.unosquare.carmigo.repository;
 
 import com.unosquare.carmigo.entity.PassengerJourney;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface PassengerJourneyRepository extends JpaRepository<PassengerJourney, Integer> {
 
-  void deleteByJourneyIdAndPassengerId(final int journeyId, final int passengerId);
+  boolean existsByJourneyIdAndPassengerId(final int journeyId, final int passengerId);
+
+  /**
+   * Takes a seat of the journey and books it for the passenger in a single statement. The seat is only taken while
+   * seats_taken is below max_passengers, a condition Postgres checks again on the latest row after waiting for any
+   * concurrent booking of the journey, and the booking row is only inserted when it was.
+   *
+   * @return 1 when booked, 0 when the journey is full, already booked by the passenger or does not exist
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "WITH seat AS (UPDATE journey SET seats_taken = seats_taken + 1"
+      + " WHERE id = ?1 AND seats_taken < max_passengers"
+      + " AND NOT EXISTS (SELECT 1 FROM passenger_journey WHERE journey_id = ?1 AND passenger_id = ?2)"
+      + " RETURNING id)"
+      + " INSERT INTO passenger_journey (passenger_id, journey_id) SELECT ?2, id FROM seat",
+      nativeQuery = true)
+  int bookSeat(final int journeyId, final int passengerId);
+
+  /**
+   * Deletes the booking and releases its seat in a single statement.
+   *
+   * @return 1 when a booking was deleted, otherwise 0
+   */
+  @Modifying
+  @Transactional
+  @Query(value = "WITH booking AS (DELETE FROM passenger_journey WHERE journey_id = ?1 AND passenger_id = ?2"
+      + " RETURNING journey_id)"
+      + " UPDATE journey SET seats_taken = seats_taken - 1 WHERE id IN (SELECT journey_id FROM booking)",
+      nativeQuery = true)
+  int deleteByJourneyIdAndPassengerId(final int journeyId, final int passengerId);
+
+  /**
+   * Deletes every booking of the passenger and releases their seats in a single statement, ahead of deleting the
+   * passenger, whose cascade would otherwise remove the bookings without releasing anything. Not @Modifying, so the
+   * ids of the journeys released come back.
+   *
+   * @return the ids of the journeys a seat was released on
+   */
+  @Transactional
+  @Query(value = "WITH booking AS (DELETE FROM passenger_journey WHERE passenger_id = ?1 RETURNING journey_id)"
+      + " UPDATE journey SET seats_taken = seats_taken - 1 FROM booking WHERE journey.id = booking.journey_id"
+      + " RETURNING journey.id",
+      nativeQuery = true)
+  List<Integer> releaseSeatsByPassengerId(final int passengerId);
+
+  /**
+   * As {@link #releaseSeatsByPassengerId}, for the passenger of a user about to be deleted.
+   *
+   * @return the ids of the journeys a seat was released on
+   */
+  @Transactional
+  @Query(value = "WITH booking AS (DELETE FROM passenger_journey WHERE passenger_id IN"
+      + " (SELECT id FROM passenger WHERE platform_user_id = ?1) RETURNING journey_id)"
+      + " UPDATE journey SET seats_taken = seats_taken - 1 FROM booking WHERE journey.id = booking.journey_id"
+      + " RETURNING journey.id",
+      nativeQuery = true)
+  List<Integer> releaseSeatsByPlatformUserId(final int platformUserId);
 }
@@ -1,8 +1,14 @@
 package com.unosquare.carmigo.repository;
 
 import com.unosquare.carmigo.entity.Passenger;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PassengerRepository extends JpaRepository<Passenger, Integer> {}
+public interface PassengerRepository extends JpaRepository<Passenger, Integer> {
+
+  @Query("SELECT pu.version FROM Passenger p JOIN p.platformUser pu WHERE p.id = ?1")
+  Optional<Integer> findPlatformUserVersionById(final int id);
+}
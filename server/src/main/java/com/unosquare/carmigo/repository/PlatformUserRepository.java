@@ -3,12 +3,27 @@ package com.unosquare.carmigo.repository;
 import com.unosquare.carmigo.entity.PlatformUser;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface PlatformUserRepository extends JpaRepository<PlatformUser, Integer> {
 
   @Query("SELECT pu FROM PlatformUser pu JOIN FETCH pu.userAccessStatus WHERE pu.email = ?1")
   Optional<PlatformUser> findPlatformUserByEmail(final String email);
+
+  @Query("SELECT pu.email FROM PlatformUser pu WHERE pu.id = ?1")
+  Optional<String> findEmailById(final int id);
+
+  @Query("SELECT pu.version FROM PlatformUser pu WHERE pu.id = ?1")
+  Optional<Integer> findVersionById(final int id);
+
+  @Modifying
+  @Transactional
+  @Query(value = "UPDATE platform_user SET user_access_status_id = s.id, version = version + 1"
+      + " FROM user_access_status s WHERE email = ?1 AND s.status = ?2 AND user_access_status_id <> s.id",
+      nativeQuery = true)
+  int updateUserAccessStatusByEmail(final String email, final String status);
 }
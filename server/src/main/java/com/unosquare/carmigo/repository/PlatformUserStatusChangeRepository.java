@@ -0,0 +1,21 @@
+package com.unosquare.carmigo.repository;
+
+import com.unosquare.carmigo.entity.PlatformUserStatusChange;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PlatformUserStatusChangeRepository extends JpaRepository<PlatformUserStatusChange, Integer> {
+
+  List<PlatformUserStatusChange> findByChangedDateAfter(final Instant changedDate);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM PlatformUserStatusChange c WHERE c.changedDate < ?1")
+  int deleteByChangedDateBefore(final Instant changedDate);
+}
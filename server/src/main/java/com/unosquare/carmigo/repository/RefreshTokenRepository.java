@@ -0,0 +1,27 @@
+package com.unosquare.carmigo.repository;
+
+import com.unosquare.carmigo.entity.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+
+  @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.platformUser WHERE rt.tokenHash = ?1")
+  Optional<RefreshToken> findByTokenHash(final String tokenHash);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM RefreshToken rt WHERE rt.tokenHash = ?1")
+  int deleteByTokenHash(final String tokenHash);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < ?1")
+  int deleteByExpiryDateBefore(final Instant expiryDate);
+}
@@ -0,0 +1,11 @@
+package com.unosquare.carmigo.repository.projection;
+
+/**
+ * What the representation of a driver depends on, read without hydrating anything to derive its ETag.
+ */
+public interface DriverVersionProjection {
+
+  int getVersion();
+
+  String getLicenseNumber();
+}
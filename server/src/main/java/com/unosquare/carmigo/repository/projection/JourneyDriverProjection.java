@@ -0,0 +1,90 @@
+package com.unosquare.carmigo.repository.projection;
+
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDriverDTO;
+import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.dto.GrabLocationDTO;
+import com.unosquare.carmigo.dto.GrabPlatformUserDTO;
+import com.unosquare.carmigo.dto.GrabUserAccessStatusDTO;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Flat row selected by {@link com.unosquare.carmigo.repository.JourneyRepository#JOURNEY_DRIVER_PROJECTION}, holding
+ * only the columns the journey view models expose. The constructor parameters must follow the select list order.
+ */
+@Getter
+@AllArgsConstructor
+public class JourneyDriverProjection {
+
+  private final int id;
+  private final Instant createdDate;
+  private final int maxPassengers;
+  private final Instant dateTime;
+  private final int locationIdFrom;
+  private final String locationDescriptionFrom;
+  private final int locationIdTo;
+  private final String locationDescriptionTo;
+  private final int driverId;
+  private final String licenseNumber;
+  private final int platformUserId;
+  private final Instant platformUserCreatedDate;
+  private final String firstName;
+  private final String lastName;
+  private final Instant dob;
+  private final String email;
+  private final String phoneNumber;
+  private final int userAccessStatusId;
+  private final String userAccessStatus;
+  private final Double distanceKm;
+  private final Double distanceMi;
+
+  public GrabJourneyDTO toGrabJourneyDTO() {
+    final GrabDriverDTO driver = new GrabDriverDTO();
+    driver.setId(driverId);
+    driver.setLicenseNumber(licenseNumber);
+    driver.setPlatformUser(toGrabPlatformUserDTO(platformUserId, platformUserCreatedDate, firstName, lastName, dob,
+        email, phoneNumber, userAccessStatusId, userAccessStatus));
+    final GrabJourneyDTO grabJourneyDTO = new GrabJourneyDTO();
+    grabJourneyDTO.setId(id);
+    grabJourneyDTO.setCreatedDate(createdDate);
+    grabJourneyDTO.setLocationFrom(toGrabLocationDTO(locationIdFrom, locationDescriptionFrom));
+    grabJourneyDTO.setLocationTo(toGrabLocationDTO(locationIdTo, locationDescriptionTo));
+    grabJourneyDTO.setMaxPassengers(maxPassengers);
+    grabJourneyDTO.setDateTime(dateTime);
+    grabJourneyDTO.setDriver(driver);
+    if (distanceKm != null && distanceMi != null) {
+      final GrabDistanceDTO.Distance distance = new GrabDistanceDTO.Distance();
+      distance.setKm(distanceKm);
+      distance.setMi(distanceMi);
+      grabJourneyDTO.setDistance(distance);
+    }
+    return grabJourneyDTO;
+  }
+
+  static GrabPlatformUserDTO toGrabPlatformUserDTO(final int id, final Instant createdDate, final String firstName,
+      final String lastName, final Instant dob, final String email, final String phoneNumber,
+      final int userAccessStatusId, final String userAccessStatus) {
+    final GrabUserAccessStatusDTO grabUserAccessStatusDTO = new GrabUserAccessStatusDTO();
+    grabUserAccessStatusDTO.setId(userAccessStatusId);
+    grabUserAccessStatusDTO.setStatus(userAccessStatus);
+    final GrabPlatformUserDTO grabPlatformUserDTO = new GrabPlatformUserDTO();
+    grabPlatformUserDTO.setId(id);
+    grabPlatformUserDTO.setCreatedDate(createdDate);
+    grabPlatformUserDTO.setFirstName(firstName);
+    grabPlatformUserDTO.setLastName(lastName);
+    grabPlatformUserDTO.setDob(dob);
+    grabPlatformUserDTO.setEmail(email);
+    grabPlatformUserDTO.setPhoneNumber(phoneNumber);
+    grabPlatformUserDTO.setUserAccessStatus(grabUserAccessStatusDTO);
+    return grabPlatformUserDTO;
+  }
+
+  private static GrabLocationDTO toGrabLocationDTO(final int id, final String description) {
+    final GrabLocationDTO grabLocationDTO = new GrabLocationDTO();
+    grabLocationDTO.setId(id);
+    grabLocationDTO.setDescription(description);
+    return grabLocationDTO;
+  }
+}
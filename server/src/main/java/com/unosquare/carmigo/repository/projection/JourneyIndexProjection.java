@@ -0,0 +1,20 @@
+package com.unosquare.carmigo.repository.projection;
+
+import java.time.Instant;
+
+public interface JourneyIndexProjection {
+
+  int getId();
+
+  int getLocationIdFrom();
+
+  int getLocationIdTo();
+
+  Instant getDateTime();
+
+  int getMaxPassengers();
+
+  int getDriverId();
+
+  int getPassengerCount();
+}
@@ -0,0 +1,35 @@
+package com.unosquare.carmigo.repository.projection;
+
+import com.unosquare.carmigo.dto.GrabPassengerDTO;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Flat row selected by {@link com.unosquare.carmigo.repository.JourneyRepository#JOURNEY_PASSENGER_PROJECTION}, one
+ * per passenger of a journey. The constructor parameters must follow the select list order.
+ */
+@Getter
+@AllArgsConstructor
+public class JourneyPassengerProjection {
+
+  private final int journeyId;
+  private final int id;
+  private final int platformUserId;
+  private final Instant platformUserCreatedDate;
+  private final String firstName;
+  private final String lastName;
+  private final Instant dob;
+  private final String email;
+  private final String phoneNumber;
+  private final int userAccessStatusId;
+  private final String userAccessStatus;
+
+  public GrabPassengerDTO toGrabPassengerDTO() {
+    final GrabPassengerDTO grabPassengerDTO = new GrabPassengerDTO();
+    grabPassengerDTO.setId(id);
+    grabPassengerDTO.setPlatformUser(JourneyDriverProjection.toGrabPlatformUserDTO(platformUserId,
+        platformUserCreatedDate, firstName, lastName, dob, email, phoneNumber, userAccessStatusId, userAccessStatus));
+    return grabPassengerDTO;
+  }
+}
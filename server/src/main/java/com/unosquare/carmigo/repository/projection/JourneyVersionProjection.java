@@ -0,0 +1,15 @@
+package com.unosquare.carmigo.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * What the representation of a journey depends on, read without hydrating anything to derive its ETag.
+ */
+public interface JourneyVersionProjection {
+
+  int getVersion();
+
+  int getDriverVersion();
+
+  Instant getDistanceUpdatedDate();
+}
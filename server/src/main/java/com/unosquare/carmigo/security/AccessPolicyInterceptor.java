@@ -0,0 +1,74 @@
+package com.unosquare.carmigo.security;
+
+import static com.unosquare.carmigo.constant.AppConstants.ACTIVE;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.unosquare.carmigo.annotation.AllowedAccessStatus;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Resolves the {@link AllowedAccessStatus} of every handler method once, when the context is refreshed, and exposes
+ * the statuses allowed by the handler of each request as the {@link #ALLOWED_ACCESS_STATUSES} request attribute for
+ * {@link Authorization} to check against the current user.
+ */
+@Slf4j
+@Component
+public class AccessPolicyInterceptor implements HandlerInterceptor {
+
+  public static final String ALLOWED_ACCESS_STATUSES = AccessPolicyInterceptor.class.getName() + ".allowedStatuses";
+  public static final Set<String> DEFAULT_ALLOWED_ACCESS_STATUSES = Set.of(ACTIVE);
+
+  private volatile Map<Method, Set<String>> policies = Map.of();
+
+  @EventListener
+  public void onContextRefreshed(final ContextRefreshedEvent contextRefreshedEvent) {
+    final Map<String, RequestMappingHandlerMapping> handlerMappings = contextRefreshedEvent.getApplicationContext()
+        .getBeansOfType(RequestMappingHandlerMapping.class);
+    handlerMappings.values().forEach(handlerMapping -> loadPolicies(handlerMapping.getHandlerMethods().values()));
+  }
+
+  @Override
+  public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+      final Object handler) {
+    if (handler instanceof HandlerMethod) {
+      request.setAttribute(ALLOWED_ACCESS_STATUSES, getAllowedAccessStatuses(((HandlerMethod) handler).getMethod()));
+    }
+    return true;
+  }
+
+  public Set<String> getAllowedAccessStatuses(final Method method) {
+    return policies.getOrDefault(method, DEFAULT_ALLOWED_ACCESS_STATUSES);
+  }
+
+  void loadPolicies(final Collection<HandlerMethod> handlerMethods) {
+    final ImmutableMap.Builder<Method, Set<String>> builder = ImmutableMap.builder();
+    builder.putAll(policies);
+    handlerMethods.stream()
+        .map(HandlerMethod::getMethod)
+        .distinct()
+        .filter(method -> !policies.containsKey(method))
+        .forEach(method -> {
+          final AllowedAccessStatus allowedAccessStatus = AnnotatedElementUtils.findMergedAnnotation(
+              method, AllowedAccessStatus.class);
+          if (allowedAccessStatus != null) {
+            builder.put(method, ImmutableSet.copyOf(allowedAccessStatus.value()));
+          }
+        });
+    policies = builder.build();
+    log.debug("Access policies resolved for {} handler methods", policies.size());
+  }
+}
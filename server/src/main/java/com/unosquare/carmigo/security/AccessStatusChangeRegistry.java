@@ -0,0 +1,69 @@
+package com.unosquare.carmigo.security;
+
+import com.unosquare.carmigo.entity.PlatformUserStatusChange;
+import com.unosquare.carmigo.repository.PlatformUserStatusChangeRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the access status changes made within the token lifetime, refreshed from the database on a
+ * fixed delay. A token issued before one of these changes no longer tells the current status of its user; any
+ * older change is already reflected in every token still valid, so the set stays small.<br><br>
+ *
+ * A copy that has missed several refreshes in a row, say while the database is unreachable, is no longer trusted.
+ */
+@Slf4j
+@Component
+public class AccessStatusChangeRegistry {
+
+  private static final int MISSED_REFRESHES = 3;
+
+  private final PlatformUserStatusChangeRepository platformUserStatusChangeRepository;
+  private final Duration tokenLifetime;
+  private final long maximumAgeNanos;
+  private volatile Map<Integer, PlatformUserStatusChange> changes;
+  private volatile long loadedAt;
+
+  public AccessStatusChangeRegistry(final PlatformUserStatusChangeRepository platformUserStatusChangeRepository,
+      @Value("${application.token.expiration.access-token:15m}") final Duration tokenLifetime,
+      @Value("${application.token.status-change.refresh-interval:PT30S}") final Duration refreshInterval) {
+    this.platformUserStatusChangeRepository = platformUserStatusChangeRepository;
+    this.tokenLifetime = tokenLifetime;
+    this.maximumAgeNanos = refreshInterval.multipliedBy(MISSED_REFRESHES).toNanos();
+  }
+
+  @Scheduled(fixedDelayString = "${application.token.status-change.refresh-interval:PT30S}")
+  public void refresh() {
+    final Instant since = Instant.now().minus(tokenLifetime);
+    platformUserStatusChangeRepository.deleteByChangedDateBefore(since);
+    changes = platformUserStatusChangeRepository.findByChangedDateAfter(since).stream()
+        .collect(Collectors.toUnmodifiableMap(PlatformUserStatusChange::getPlatformUserId, Function.identity()));
+    loadedAt = System.nanoTime();
+    log.debug("Access status change registry refreshed with {} changes", changes.size());
+  }
+
+  /**
+   * False until the first refresh has completed, and again once the last successful one is older than a few refresh
+   * intervals.
+   */
+  public boolean isLoaded() {
+    return changes != null && System.nanoTime() - loadedAt <= maximumAgeNanos;
+  }
+
+  /**
+   * The latest change of the user made at or after the given instant, usually when their token was issued.
+   */
+  public Optional<PlatformUserStatusChange> findChangeSince(final int platformUserId, final Instant since) {
+    return Optional.ofNullable(changes)
+        .map(loadedChanges -> loadedChanges.get(platformUserId))
+        .filter(change -> !change.getChangedDate().isBefore(since));
+  }
+}
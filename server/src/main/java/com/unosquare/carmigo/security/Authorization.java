@@ -1,13 +1,13 @@
 package com.unosquare.carmigo.security;
 
-import static com.unosquare.carmigo.constant.AppConstants.ACTIVE;
 import static com.unosquare.carmigo.constant.AppConstants.ADMIN;
 import static com.unosquare.carmigo.constant.AppConstants.DEV;
 import static com.unosquare.carmigo.constant.AppConstants.NOT_PERMITTED;
-import static com.unosquare.carmigo.constant.AppConstants.SUSPENDED;
 
 import com.unosquare.carmigo.exception.UnauthorizedException;
 import com.unosquare.carmigo.security.AppUser.CurrentAppUser;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,26 +16,27 @@ import org.springframework.stereotype.Service;
 public class Authorization {
 
   private AppUser appUser;
+  private HttpServletRequest request;
 
+  /**
+   * Lets users reach their own resources when their access status is allowed by the
+   * {@link com.unosquare.carmigo.annotation.AllowedAccessStatus} of the handler serving the request, and ADMIN and
+   * DEV users reach anyone's.
+   */
   public void verifyUserAuthorization(final int id) {
     final CurrentAppUser currentAppUser = appUser.get();
-    final String whichMethodCalled = StackWalker.getInstance().walk(
-            stream -> stream.skip(3).findFirst().orElseThrow())
-        .getMethodName();
     final String userAccess = currentAppUser.getUserAccessStatus();
-    if (!((id == currentAppUser.getId()
-        &&
-        (userAccess.equals(ACTIVE)
-            ||
-            (userAccess.equals(SUSPENDED)
-                &&
-                (whichMethodCalled.equals("getPlatformUser")
-                    || whichMethodCalled.equals("patchPlatformUser"))
-            )
-        ))
-        || userAccess.equals(ADMIN) || userAccess.equals(DEV)
-    )) {
+    if (!((id == currentAppUser.getId() && getAllowedAccessStatuses().contains(userAccess))
+        || userAccess.equals(ADMIN) || userAccess.equals(DEV))) {
       throw new UnauthorizedException(NOT_PERMITTED);
     }
   }
+
+  @SuppressWarnings("unchecked")
+  private Set<String> getAllowedAccessStatuses() {
+    final Set<String> allowedAccessStatuses = (Set<String>) request.getAttribute(
+        AccessPolicyInterceptor.ALLOWED_ACCESS_STATUSES);
+    return allowedAccessStatuses != null
+        ? allowedAccessStatuses : AccessPolicyInterceptor.DEFAULT_ALLOWED_ACCESS_STATUSES;
+  }
 }
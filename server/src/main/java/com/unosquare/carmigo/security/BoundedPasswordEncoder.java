@@ -0,0 +1,69 @@
+package com.unosquare.carmigo.security;
+
+import com.google.common.base.Throwables;
+import com.unosquare.carmigo.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs the hashing and verification of the wrapped encoder on a dedicated, bounded executor, so a burst of logins
+ * and sign ups is capped to its threads instead of taking the CPU of every request thread. Once the executor queue
+ * is full further calls are turned away at once with a {@link TooManyRequestsException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private static final String PASSWORD_HASH = "password.hash";
+
+  private final PasswordEncoder passwordEncoder;
+  private final ExecutorService executor;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+
+  public BoundedPasswordEncoder(final PasswordEncoder passwordEncoder, final ExecutorService executor,
+      final MeterRegistry meterRegistry) {
+    this.passwordEncoder = passwordEncoder;
+    this.executor = executor;
+    this.encodeTimer = Timer.builder(PASSWORD_HASH).tag("operation", "encode").register(meterRegistry);
+    this.matchesTimer = Timer.builder(PASSWORD_HASH).tag("operation", "matches").register(meterRegistry);
+  }
+
+  @Override
+  public String encode(final CharSequence rawPassword) {
+    return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+    return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+  }
+
+  @Override
+  public boolean upgradeEncoding(final String encodedPassword) {
+    return passwordEncoder.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T submit(final Callable<T> task) {
+    final Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (final RejectedExecutionException ex) {
+      throw new TooManyRequestsException("Too many login and sign up requests, please try again later.");
+    }
+    try {
+      return future.get();
+    } catch (final InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    } catch (final ExecutionException ex) {
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.unosquare.carmigo.security;
 
 import com.unosquare.carmigo.exception.ExpiredJwtException;
 import com.unosquare.carmigo.util.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -30,20 +31,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
       @NonNull final FilterChain filterChain)
       throws ServletException, IOException {
     final String authorizationHeader = request.getHeader("Authorization");
-    final String jwt;
-    final String username;
+    final Claims claims;
 
     if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-      jwt = authorizationHeader.substring(7);
-      username = jwtTokenUtils.extractUsername(jwt);
+      // Verified once here, the claims serve every check below
+      claims = jwtTokenUtils.parseClaims(authorizationHeader.substring(7));
     } else {
       filterChain.doFilter(request, response);
       return;
     }
 
     if (SecurityContextHolder.getContext().getAuthentication() == null) {
-      final UserDetails userDetails = userSecurityService.loadUserByUsername(username);
-      if (jwtTokenUtils.validateToken(jwt, userDetails)) {
+      final UserDetails userDetails = userSecurityService.loadUserByClaims(claims);
+      if (jwtTokenUtils.validateClaims(claims, userDetails)) {
         final UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
         usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
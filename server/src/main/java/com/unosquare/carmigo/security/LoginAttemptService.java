@@ -0,0 +1,131 @@
+package com.unosquare.carmigo.security;
+
+import static com.unosquare.carmigo.constant.AppConstants.LOCKED_OUT;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unosquare.carmigo.exception.TooManyRequestsException;
+import com.unosquare.carmigo.exception.UnauthorizedException;
+import com.unosquare.carmigo.repository.PlatformUserRepository;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import javax.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Counts failed logins per email and per client address over a sliding window.<br><br>
+ *
+ * Logins over either limit are rejected before the password is verified, so brute-force traffic costs no BCrypt
+ * work. The failure that reaches the limit for an email locks its user out in the database. Counters live in
+ * size-bounded caches and expire once their window has passed with no further attempts.
+ */
+@Slf4j
+@Service
+public class LoginAttemptService {
+
+  private static final String LOCKED_OUT_MESSAGE = "User is locked out after %d failed attempts.";
+
+  private final PlatformUserRepository platformUserRepository;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final HttpServletRequest request;
+  private final int maxAttemptsPerEmail;
+  private final int maxAttemptsPerClient;
+  private final long windowNanos;
+  private final Cache<String, SlidingWindow> emailAttempts;
+  private final Cache<String, SlidingWindow> clientAttempts;
+
+  public LoginAttemptService(final PlatformUserRepository platformUserRepository,
+      final ApplicationEventPublisher applicationEventPublisher, final HttpServletRequest request,
+      @Value("${application.login-attempts.max-per-email:5}") final int maxAttemptsPerEmail,
+      @Value("${application.login-attempts.max-per-client:20}") final int maxAttemptsPerClient,
+      @Value("${application.login-attempts.window:15m}") final Duration window,
+      @Value("${application.login-attempts.maximum-size:100000}") final long maximumSize) {
+    this.platformUserRepository = platformUserRepository;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.request = request;
+    this.maxAttemptsPerEmail = maxAttemptsPerEmail;
+    this.maxAttemptsPerClient = maxAttemptsPerClient;
+    this.windowNanos = window.toNanos();
+    this.emailAttempts = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterAccess(window).build();
+    this.clientAttempts = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterAccess(window).build();
+  }
+
+  /**
+   * Throws when the client, or the email it logs in with, has too many recent failed attempts.
+   */
+  public void checkAllowed(final String email) {
+    if (countAttempts(clientAttempts, getClientAddress()) >= maxAttemptsPerClient) {
+      throw new TooManyRequestsException("Too many failed login attempts, please try again later.");
+    }
+    if (countAttempts(emailAttempts, email) >= maxAttemptsPerEmail) {
+      throw new UnauthorizedException(String.format(LOCKED_OUT_MESSAGE, maxAttemptsPerEmail));
+    }
+  }
+
+  public void loginFailed(final String email) {
+    recordAttempt(clientAttempts, getClientAddress(), maxAttemptsPerClient);
+    if (recordAttempt(emailAttempts, email, maxAttemptsPerEmail) == maxAttemptsPerEmail
+        && platformUserRepository.updateUserAccessStatusByEmail(email, LOCKED_OUT) > 0) {
+      log.info("User {} locked out after {} failed login attempts", email, maxAttemptsPerEmail);
+      applicationEventPublisher.publishEvent(new PlatformUserChangedEvent(Set.of(email)));
+    }
+  }
+
+  public void loginSucceeded(final String email) {
+    emailAttempts.invalidate(email);
+  }
+
+  private String getClientAddress() {
+    // Behind a proxy this is the forwarded client address when server.forward-headers-strategy is set
+    return request.getRemoteAddr();
+  }
+
+  private int countAttempts(final Cache<String, SlidingWindow> attempts, final String key) {
+    final SlidingWindow slidingWindow = attempts.getIfPresent(key);
+    return slidingWindow == null ? 0 : slidingWindow.count(System.nanoTime() - windowNanos);
+  }
+
+  private int recordAttempt(final Cache<String, SlidingWindow> attempts, final String key, final int limit) {
+    try {
+      return attempts.get(key, SlidingWindow::new).record(System.nanoTime(), windowNanos, limit);
+    } catch (final ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  /**
+   * Times of the latest attempts of one email or client, at most as many as its limit.
+   */
+  private static final class SlidingWindow {
+
+    private final Deque<Long> attempts = new ArrayDeque<>();
+
+    synchronized int count(final long windowStart) {
+      evictBefore(windowStart);
+      return attempts.size();
+    }
+
+    synchronized int record(final long now, final long windowNanos, final int limit) {
+      evictBefore(now - windowNanos);
+      attempts.addLast(now);
+      if (attempts.size() > limit) {
+        attempts.removeFirst();
+        // Past the limit the count no longer matters, only that it stays reached for the whole window
+        return limit + 1;
+      }
+      return attempts.size();
+    }
+
+    private void evictBefore(final long windowStart) {
+      while (!attempts.isEmpty() && attempts.peekFirst() - windowStart < 0) {
+        attempts.removeFirst();
+      }
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.unosquare.carmigo.security;
+
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published after a user is updated or deleted, with every email the user was known by before and after the change.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PlatformUserChangedEvent {
+
+  private final Set<String> emails;
+}
@@ -8,32 +8,110 @@ import static com.unosquare.carmigo.constant.AppConstants.NOT_PERMITTED;
 import static com.unosquare.carmigo.constant.AppConstants.STAGED;
 import static com.unosquare.carmigo.constant.AppConstants.SUSPENDED;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.PlatformUserStatusChange;
 import com.unosquare.carmigo.exception.UnauthorizedException;
 import com.unosquare.carmigo.repository.PlatformUserRepository;
+import com.unosquare.carmigo.util.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.ExecutionException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Resolves the users behind logins and bearer tokens.<br><br>
+ *
+ * Users loaded from the database are kept in a size-bounded, short-lived cache keyed by email. Entries are evicted
+ * once the update or deletion a {@link PlatformUserChangedEvent} reports is committed, and the TTL bounds how
+ * long a change made elsewhere, such as directly in the database, can go unseen.
+ */
 @Service
-@AllArgsConstructor
 public class UserSecurityService implements UserDetailsService {
 
   private final PlatformUserRepository platformUserRepository;
+  private final AccessStatusChangeRegistry accessStatusChangeRegistry;
+  private final boolean stateless;
+  private final Cache<String, UserAccess> userAccessCache;
+
+  public UserSecurityService(final PlatformUserRepository platformUserRepository,
+      final AccessStatusChangeRegistry accessStatusChangeRegistry, final MeterRegistry meterRegistry,
+      @Value("${application.token.stateless:false}") final boolean stateless,
+      @Value("${application.user-details-cache.maximum-size:10000}") final long maximumSize,
+      @Value("${application.user-details-cache.expire-after-write:60s}") final Duration expireAfterWrite) {
+    this.platformUserRepository = platformUserRepository;
+    this.accessStatusChangeRegistry = accessStatusChangeRegistry;
+    this.stateless = stateless;
+    this.userAccessCache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+    GuavaCacheMetrics.monitor(meterRegistry, userAccessCache, "user-details");
+  }
 
   @Override
   public UserDetails loadUserByUsername(final String email) {
-    final Optional<PlatformUser> currentUser = platformUserRepository.findPlatformUserByEmail(email);
-    if (currentUser.isPresent()) {
-      return getUserDetails(currentUser.get());
+    final UserAccess userAccess;
+    try {
+      userAccess = userAccessCache.get(email, () -> loadUserAccess(email));
+    } catch (final ExecutionException | UncheckedExecutionException | ExecutionError ex) {
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IllegalStateException(ex.getCause());
+    }
+    // A new instance every time, as Spring Security erases the password of the one it authenticates
+    return getUserDetails(userAccess.getId(), userAccess.getEmail(), userAccess.getPassword(),
+        userAccess.getStatus());
+  }
+
+  /**
+   * Evicts once the change is committed: evicting earlier would let a concurrent lookup cache the row as it was
+   * before the change. Events published outside a transaction evict at once.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onPlatformUserChanged(final PlatformUserChangedEvent platformUserChangedEvent) {
+    userAccessCache.invalidateAll(platformUserChangedEvent.getEmails());
+  }
+
+  /**
+   * Returns the user of verified token claims.<br><br>
+   *
+   * In stateless mode the user is built from the id and access status carried by the token, with no query: the
+   * status is only overridden by a change recorded in {@link AccessStatusChangeRegistry} since the token was
+   * issued. Otherwise, or for tokens without those claims, the user is loaded from the database.
+   */
+  public UserDetails loadUserByClaims(final Claims claims) {
+    final Integer id = claims.get(JwtTokenUtils.USER_ID_CLAIM, Integer.class);
+    final String status = claims.get(JwtTokenUtils.ACCESS_STATUS_CLAIM, String.class);
+    if (!stateless || id == null || status == null || claims.getIssuedAt() == null
+        || !accessStatusChangeRegistry.isLoaded()) {
+      return loadUserByUsername(claims.getSubject());
     }
-    throw new UnauthorizedException(String.format("Incorrect email (%s) and/or password", email));
+    final String currentStatus = accessStatusChangeRegistry.findChangeSince(id, claims.getIssuedAt().toInstant())
+        .map(PlatformUserStatusChange::getStatus)
+        .orElse(status);
+    if (currentStatus == null) {
+      // Deleted since the token was issued
+      throw new UnauthorizedException(NOT_PERMITTED);
+    }
+    return getUserDetails(id, claims.getSubject(), "", currentStatus);
   }
 
   /**
@@ -45,17 +123,19 @@ public class UserSecurityService implements UserDetailsService {
    * * STAGED - account has been created but no email verification yet.<br>
    * * SUSPENDED - user can see and update profile. User cannot create/apply for journeys, accept/reject passengers.
    *
-   * @param currentUser PlatformUser from the database
+   * @param id the PlatformUser id
+   * @param email the PlatformUser email
+   * @param password the PlatformUser password hash, empty when the user comes from token claims
+   * @param status the PlatformUser access status
    * @return the UserDetails
    */
-  private UserDetails getUserDetails(final PlatformUser currentUser) {
-    switch (currentUser.getUserAccessStatus().getStatus()) {
+  private UserDetails getUserDetails(final int id, final String email, final String password, final String status) {
+    switch (status) {
       case ACTIVE:
       case ADMIN:
       case DEV:
       case SUSPENDED:
-        return new CustomUserDetails(
-            currentUser.getId(), currentUser.getEmail(), currentUser.getPassword(), getAuthorities(currentUser));
+        return new CustomUserDetails(id, email, password, getAuthorities(status));
       case LOCKED_OUT:
         throw new UnauthorizedException("User is locked out after 5 failed attempts.");
       case STAGED:
@@ -65,7 +145,24 @@ public class UserSecurityService implements UserDetailsService {
     }
   }
 
-  private Collection<? extends GrantedAuthority> getAuthorities(final PlatformUser currentUser) {
-    return List.of(new SimpleGrantedAuthority(currentUser.getUserAccessStatus().getStatus()));
+  private Collection<? extends GrantedAuthority> getAuthorities(final String status) {
+    return List.of(new SimpleGrantedAuthority(status));
+  }
+
+  private UserAccess loadUserAccess(final String email) {
+    final PlatformUser currentUser = platformUserRepository.findPlatformUserByEmail(email).orElseThrow(
+        () -> new UnauthorizedException(String.format("Incorrect email (%s) and/or password", email)));
+    return new UserAccess(currentUser.getId(), currentUser.getEmail(), currentUser.getPassword(),
+        currentUser.getUserAccessStatus().getStatus());
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static final class UserAccess {
+
+    private final int id;
+    private final String email;
+    private final String password;
+    private final String status;
   }
 }
@@ -0,0 +1,154 @@
+package com.unosquare.carmigo.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.unosquare.carmigo.exception.ConflictException;
+import com.unosquare.carmigo.exception.ResourceNotFoundException;
+import com.unosquare.carmigo.exception.TooManyRequestsException;
+import com.unosquare.carmigo.repository.JourneyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process admission of seat bookings, keyed by journey.<br><br>
+ *
+ * Bookings of a journey take turns through a fair lock with a bounded number of waiters, so a flash crowd reaches
+ * the journey row one booking at a time instead of every request contending on it in the database. Each journey
+ * keeps the seats it has left, read once from the database and counted down by every booking made through here:
+ * once it reaches zero further bookings are answered "full" at once, without queueing. The count is read again by
+ * the next booking whenever a booking fails, the journey changes elsewhere through {@link #invalidate}, or it is
+ * older than the refresh interval, which bounds how long changes this instance did not see, such as bookings
+ * released through another instance, can go unnoticed.<br><br>
+ *
+ * The database statement stays the authority on capacity, so at worst a stale count lets a booking through that
+ * the statement turns down.
+ */
+@Component
+public class BookingAdmission {
+
+  private static final String REJECTIONS = "booking.admission.rejections";
+  private static final int UNKNOWN = -1;
+
+  private final JourneyRepository journeyRepository;
+  private final Cache<Integer, Gate> gates;
+  private final int queueCapacity;
+  private final Duration maximumWait;
+  private final long refreshIntervalNanos;
+  private final Timer waitTimer;
+  private final Counter fullRejections;
+  private final Counter queueFullRejections;
+  private final Counter timeoutRejections;
+
+  public BookingAdmission(final JourneyRepository journeyRepository, final MeterRegistry meterRegistry,
+      @Value("${application.booking.admission.queue-capacity:100}") final int queueCapacity,
+      @Value("${application.booking.admission.maximum-wait:5s}") final Duration maximumWait,
+      @Value("${application.booking.admission.refresh-interval:30s}") final Duration refreshInterval,
+      @Value("${application.booking.admission.expire-after-access:10m}") final Duration expireAfterAccess) {
+    this.journeyRepository = journeyRepository;
+    this.gates = CacheBuilder.newBuilder().expireAfterAccess(expireAfterAccess).build();
+    this.queueCapacity = queueCapacity;
+    this.maximumWait = maximumWait;
+    this.refreshIntervalNanos = refreshInterval.toNanos();
+    this.waitTimer = Timer.builder("booking.admission.wait").register(meterRegistry);
+    this.fullRejections = Counter.builder(REJECTIONS).tag("reason", "full").register(meterRegistry);
+    this.queueFullRejections = Counter.builder(REJECTIONS).tag("reason", "queue_full").register(meterRegistry);
+    this.timeoutRejections = Counter.builder(REJECTIONS).tag("reason", "timeout").register(meterRegistry);
+  }
+
+  /**
+   * Runs the booking once it is the journey's turn and the journey still has seats left.
+   *
+   * @param journeyId the journey to book a seat of
+   * @param booking books the seat in the database, throwing when it could not
+   * @throws ConflictException when the journey has no seats left
+   * @throws TooManyRequestsException when too many bookings of the journey are already waiting, or the turn did not
+   *     come within the maximum wait
+   */
+  public void admit(final int journeyId, final Runnable booking) {
+    final Gate gate = gates.asMap().computeIfAbsent(journeyId, key -> new Gate());
+    if (gate.seatsLeft.get() == 0 && isFresh(gate)) {
+      throw full(journeyId);
+    }
+    if (gate.waiting.incrementAndGet() > queueCapacity) {
+      gate.waiting.decrementAndGet();
+      queueFullRejections.increment();
+      throw new TooManyRequestsException(
+          String.format("Too many bookings of journey id %d in progress, please try again later.", journeyId));
+    }
+    final long waitStart = System.nanoTime();
+    final boolean locked;
+    try {
+      locked = gate.lock.tryLock(maximumWait.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    } finally {
+      gate.waiting.decrementAndGet();
+      waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+    }
+    if (!locked) {
+      timeoutRejections.increment();
+      throw new TooManyRequestsException(String.format("Journey id %d is busy, please try again later.", journeyId));
+    }
+    try {
+      if (gate.seatsLeft.get() == UNKNOWN || !isFresh(gate)) {
+        final int seatsLeft = journeyRepository.findSeatsLeftById(journeyId)
+            .orElseThrow(() -> new ResourceNotFoundException(String.format("Journey id %d not found.", journeyId)));
+        gate.seatsLeft.set(Math.max(seatsLeft, 0));
+        gate.loadedAt = System.nanoTime();
+      }
+      if (gate.seatsLeft.get() == 0) {
+        throw full(journeyId);
+      }
+      try {
+        booking.run();
+      } catch (final RuntimeException ex) {
+        gate.seatsLeft.set(UNKNOWN);
+        throw ex;
+      }
+      gate.seatsLeft.updateAndGet(seatsLeft -> seatsLeft > 0 ? seatsLeft - 1 : seatsLeft);
+    } finally {
+      gate.lock.unlock();
+    }
+  }
+
+  /**
+   * Drops the seats left of the journey, for changes made outside {@link #admit}: a released seat, a new number of
+   * passengers or the journey deleted.
+   */
+  public void invalidate(final int journeyId) {
+    final Gate gate = gates.getIfPresent(journeyId);
+    if (gate != null) {
+      gate.seatsLeft.set(UNKNOWN);
+    }
+  }
+
+  int queueLength(final int journeyId) {
+    final Gate gate = gates.getIfPresent(journeyId);
+    return gate == null ? 0 : gate.waiting.get();
+  }
+
+  private boolean isFresh(final Gate gate) {
+    return System.nanoTime() - gate.loadedAt < refreshIntervalNanos;
+  }
+
+  private ConflictException full(final int journeyId) {
+    fullRejections.increment();
+    return new ConflictException(String.format("Journey id %d is full.", journeyId));
+  }
+
+  private static final class Gate {
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger seatsLeft = new AtomicInteger(UNKNOWN);
+    private volatile long loadedAt;
+  }
+}
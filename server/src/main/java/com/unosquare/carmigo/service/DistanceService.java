@@ -0,0 +1,401 @@
+package com.unosquare.carmigo.service;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.unosquare.carmigo.dto.CreateDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDistanceMatrixDTO;
+import com.unosquare.carmigo.exception.ServiceUnavailableException;
+import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.openfeign.DistanceApi;
+import com.unosquare.carmigo.openfeign.DistanceHolder;
+import com.unosquare.carmigo.openfeign.Geocode;
+import com.unosquare.carmigo.service.Gazetteer.Place;
+import com.unosquare.carmigo.util.GreatCircle;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import javax.persistence.NoResultException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Distance between two places. When the {@link Gazetteer} knows both places the great-circle distance is computed
+ * locally; otherwise it is asked of the RapidAPI distance service.<br><br>
+ *
+ * Remote results are kept in a bounded cache keyed by the normalised route, so repeated lookups of a route skip
+ * the remote call. The cache statistics are published as the "distance" cache meters.<br><br>
+ *
+ * Remote calls go through a bulkhead and a circuit breaker. When a call is rejected or fails, the last known answer
+ * for the route is served from a stale copy of the cache that outlives the expiry of the fresh one. The coordinates
+ * of every place the remote service geocodes are remembered for as long as distances are, so that later matrices
+ * can be computed locally.
+ */
+@Slf4j
+@Service
+public class DistanceService {
+
+  private static final double KM_PER_MI = 1.609344;
+  private static final int MAX_ROUTE_POINTS = 10;
+
+  private final DistanceApi distanceApi;
+  private final Gazetteer gazetteer;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final ExecutorService executorService;
+  private final Cache<String, GrabDistanceDTO> cache;
+  private final Cache<String, GrabDistanceDTO> staleCache;
+  private final Cache<String, GrabDistanceDTO.Location> geocodeCache;
+
+  public DistanceService(final DistanceApi distanceApi, final Gazetteer gazetteer, final MeterRegistry meterRegistry,
+      final CircuitBreaker distanceCircuitBreaker, final Bulkhead distanceBulkhead,
+      final ExecutorService distanceExecutor,
+      @Value("${application.distance.cache.maximum-size:10000}") final long maximumSize,
+      @Value("${application.distance.cache.expire-after-write:PT24H}") final Duration expireAfterWrite) {
+    this.distanceApi = distanceApi;
+    this.gazetteer = gazetteer;
+    this.circuitBreaker = distanceCircuitBreaker;
+    this.bulkhead = distanceBulkhead;
+    this.executorService = distanceExecutor;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+    this.staleCache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .build();
+    this.geocodeCache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .build();
+    GuavaCacheMetrics.monitor(meterRegistry, cache, "distance");
+  }
+
+  /**
+   * Concurrent callers for a route that is not cached yet share a single upstream call: the first one loads it
+   * while the others wait for its result, or its exception, instead of calling the distance service themselves.
+   */
+  public GrabDistanceDTO calculateDistance(final CreateCalculateDistanceCriteria criteria) {
+    return calculateDistance(criteria, () -> { });
+  }
+
+  /**
+   * As {@link #calculateDistance(CreateCalculateDistanceCriteria)}, running the given hook only right before the
+   * remote call: routes answered by the gazetteer or the cache never reach it.
+   */
+  public GrabDistanceDTO calculateDistance(final CreateCalculateDistanceCriteria criteria,
+      final Runnable beforeRemoteCall) {
+    final Optional<Place> placeFrom = gazetteer.find(criteria.getLocationFrom(), criteria.getCountryFrom());
+    final Optional<Place> placeTo = gazetteer.find(criteria.getLocationTo(), criteria.getCountryTo());
+    if (placeFrom.isPresent() && placeTo.isPresent()) {
+      return convertPlacesToGrabDistanceDto(placeFrom.get(), placeTo.get());
+    }
+    final String routeKey = routeKey(criteria);
+    try {
+      return cache.get(routeKey, () -> {
+        beforeRemoteCall.run();
+        return fetchDistance(criteria);
+      });
+    } catch (final ExecutionException | UncheckedExecutionException | ExecutionError ex) {
+      if (ex.getCause() instanceof UpstreamUnavailableException) {
+        // Served outside the loader, so the stale answer is never cached as a fresh one
+        return serveStale(routeKey, (UpstreamUnavailableException) ex.getCause());
+      }
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  /**
+   * Distances from every origin to every destination.<br><br>
+   *
+   * Repeated places are resolved once, from the gazetteer or from coordinates learnt in earlier remote answers. The
+   * remaining places are geocoded remotely in multi-point routes run in parallel on the bounded distance executor,
+   * and every pair is then computed locally. Pairs with a place that could not be resolved are null.
+   */
+  public GrabDistanceMatrixDTO calculateDistanceMatrix(final CreateDistanceMatrixDTO createDistanceMatrixDTO) {
+    final Map<String, CreateDistanceMatrixDTO.Place> origins = distinctPlaces(createDistanceMatrixDTO.getOrigins());
+    final Map<String, CreateDistanceMatrixDTO.Place> destinations =
+        distinctPlaces(createDistanceMatrixDTO.getDestinations());
+    final Map<String, CreateDistanceMatrixDTO.Place> places = new LinkedHashMap<>(origins);
+    places.putAll(destinations);
+    final Map<String, GrabDistanceDTO.Location> locations = resolveLocations(places);
+
+    final GrabDistanceMatrixDTO grabDistanceMatrixDTO = new GrabDistanceMatrixDTO();
+    grabDistanceMatrixDTO.setOrigins(toLocations(origins, locations));
+    grabDistanceMatrixDTO.setDestinations(toLocations(destinations, locations));
+    grabDistanceMatrixDTO.setKm(new ArrayList<>());
+    grabDistanceMatrixDTO.setMi(new ArrayList<>());
+    for (final GrabDistanceDTO.Location origin : grabDistanceMatrixDTO.getOrigins()) {
+      final List<Double> kmRow = new ArrayList<>();
+      final List<Double> miRow = new ArrayList<>();
+      for (final GrabDistanceDTO.Location destination : grabDistanceMatrixDTO.getDestinations()) {
+        if (origin.getCoordinates() == null || destination.getCoordinates() == null) {
+          kmRow.add(null);
+          miRow.add(null);
+        } else {
+          final GrabDistanceDTO.Distance distance = convertToGrabDistanceDtoDistance(GreatCircle.distanceKm(
+              origin.getCoordinates().getLatitude(), origin.getCoordinates().getLongitude(),
+              destination.getCoordinates().getLatitude(), destination.getCoordinates().getLongitude()));
+          kmRow.add(distance.getKm());
+          miRow.add(distance.getMi());
+        }
+      }
+      grabDistanceMatrixDTO.getKm().add(kmRow);
+      grabDistanceMatrixDTO.getMi().add(miRow);
+    }
+    return grabDistanceMatrixDTO;
+  }
+
+  /**
+   * Case and whitespace insensitive, but direction aware: A to B and B to A are different keys.
+   */
+  static String routeKey(final CreateCalculateDistanceCriteria criteria) {
+    return placeKey(criteria.getLocationFrom(), criteria.getCountryFrom()) + "->"
+        + placeKey(criteria.getLocationTo(), criteria.getCountryTo());
+  }
+
+  private static String placeKey(final String location, final String country) {
+    return Gazetteer.normalise(location) + ',' + Gazetteer.normalise(country);
+  }
+
+  private static Map<String, CreateDistanceMatrixDTO.Place> distinctPlaces(
+      final List<CreateDistanceMatrixDTO.Place> places) {
+    final Map<String, CreateDistanceMatrixDTO.Place> distinctPlaces = new LinkedHashMap<>();
+    places.forEach(place -> distinctPlaces.putIfAbsent(placeKey(place.getLocation(), place.getCountry()), place));
+    return distinctPlaces;
+  }
+
+  private static List<GrabDistanceDTO.Location> toLocations(final Map<String, CreateDistanceMatrixDTO.Place> places,
+      final Map<String, GrabDistanceDTO.Location> locations) {
+    return places.entrySet().stream()
+        .map(entry -> locations.computeIfAbsent(entry.getKey(), key -> {
+          final GrabDistanceDTO.Location unresolved = new GrabDistanceDTO.Location();
+          unresolved.setLocation(entry.getValue().getLocation());
+          return unresolved;
+        }))
+        .collect(Collectors.toList());
+  }
+
+  private Map<String, GrabDistanceDTO.Location> resolveLocations(
+      final Map<String, CreateDistanceMatrixDTO.Place> places) {
+    final Map<String, GrabDistanceDTO.Location> locations = new HashMap<>();
+    final List<Map.Entry<String, CreateDistanceMatrixDTO.Place>> unresolved = new ArrayList<>();
+    places.forEach((key, place) -> {
+      final GrabDistanceDTO.Location location = gazetteer.find(place.getLocation(), place.getCountry())
+          .map(known -> convertToGrabDistanceDtoLocation(known.getName(), known.getLatitude(), known.getLongitude()))
+          .orElseGet(() -> geocodeCache.getIfPresent(key));
+      if (location == null) {
+        unresolved.add(Map.entry(key, place));
+      } else {
+        locations.put(key, location);
+      }
+    });
+    try {
+      CompletableFuture.allOf(Lists.partition(unresolved, MAX_ROUTE_POINTS).stream()
+              .map(route -> CompletableFuture.runAsync(() -> geocodeRoute(route), executorService))
+              .toArray(CompletableFuture[]::new))
+          .join();
+    } catch (final CompletionException ex) {
+      // Unwrapped so that the failure of a route reaches the caller as it would from calculateDistance
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IllegalStateException(ex.getCause());
+    }
+    unresolved.forEach(entry -> {
+      final GrabDistanceDTO.Location location = geocodeCache.getIfPresent(entry.getKey());
+      if (location != null) {
+        locations.put(entry.getKey(), location);
+      }
+    });
+    return locations;
+  }
+
+  /**
+   * Geocodes all the places of a route in a single remote call, remembering their coordinates. When the service
+   * cannot be reached the places are left unresolved; any other failure reaches the caller.
+   */
+  private void geocodeRoute(final List<Map.Entry<String, CreateDistanceMatrixDTO.Place>> route) {
+    final List<String> points = route.stream()
+        .map(entry -> entry.getValue().getLocation() + "," + entry.getValue().getCountry())
+        .collect(Collectors.toCollection(ArrayList::new));
+    if (points.size() == 1) {
+      // A route needs two points
+      points.add(points.get(0));
+    }
+    final DistanceHolder distanceHolder;
+    try {
+      distanceHolder = getDistance(points);
+    } catch (final FeignException | CallNotPermittedException | BulkheadFullException ex) {
+      log.warn("Could not geocode {} - {}", points, ex.getMessage());
+      return;
+    }
+    // Matched by name rather than position, as the service may drop or reorder points
+    final Map<String, Geocode> geocodesByName = new HashMap<>();
+    geocodes(distanceHolder).forEach(
+        geocode -> geocodesByName.putIfAbsent(Gazetteer.normalise(geocode.getName()), geocode));
+    final Map<String, Long> placesByName = route.stream()
+        .collect(Collectors.groupingBy(entry -> Gazetteer.normalise(entry.getValue().getLocation()),
+            Collectors.counting()));
+    route.forEach(entry -> {
+      final String name = Gazetteer.normalise(entry.getValue().getLocation());
+      final Geocode geocode = geocodesByName.get(name);
+      // A name shared by places of different countries cannot tell which of them the point is
+      if (geocode != null && placesByName.get(name) == 1) {
+        geocodeCache.put(entry.getKey(), convertToGrabDistanceDtoLocation(geocode));
+      }
+    });
+  }
+
+  private GrabDistanceDTO fetchDistance(final CreateCalculateDistanceCriteria criteria) {
+    final DistanceHolder distanceHolder;
+    try {
+      distanceHolder = getDistance(List.of(criteria.getLocationFrom() + "," + criteria.getCountryFrom(),
+          criteria.getLocationTo() + "," + criteria.getCountryTo()));
+    } catch (final FeignException | CallNotPermittedException | BulkheadFullException ex) {
+      throw new UpstreamUnavailableException(ex);
+    }
+    final GrabDistanceDTO grabDistanceDTO = convertDistanceHolderToGrabDistanceDto(criteria, distanceHolder);
+    staleCache.put(routeKey(criteria), grabDistanceDTO);
+    geocodeCache.put(placeKey(criteria.getLocationFrom(), criteria.getCountryFrom()),
+        grabDistanceDTO.getLocationFrom());
+    geocodeCache.put(placeKey(criteria.getLocationTo(), criteria.getCountryTo()), grabDistanceDTO.getLocationTo());
+    return grabDistanceDTO;
+  }
+
+  private GrabDistanceDTO serveStale(final String routeKey, final UpstreamUnavailableException ex) {
+    final GrabDistanceDTO stale = staleCache.getIfPresent(routeKey);
+    if (stale == null) {
+      throw new ServiceUnavailableException("Distance service is currently unavailable. Please try again later.");
+    }
+    log.warn("Serving stale distance for {} - {}", routeKey, ex.getCause().getMessage());
+    return stale;
+  }
+
+  private DistanceHolder getDistance(final List<String> points) {
+    // The bulkhead wraps the circuit breaker so that rejected calls are not counted as upstream failures
+    return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker,
+        () -> distanceApi.getDistance(prepareRequestToDistanceApi(points)))).get();
+  }
+
+  private String prepareRequestToDistanceApi(final List<String> points) {
+    return points.stream()
+        .map(point -> "{\"t\":\"" + point + "\"}")
+        .collect(Collectors.joining(",", "[", "]"));
+  }
+
+  /**
+   * Points are matched to the places by name, as in a matrix route. A place whose name the service did not echo
+   * back, e.g. because it geocoded it under another name, takes the point the other place did not match.
+   */
+  private GrabDistanceDTO convertDistanceHolderToGrabDistanceDto(final CreateCalculateDistanceCriteria criteria,
+      final DistanceHolder distanceHolder) {
+    final List<Geocode> geocodes = geocodes(distanceHolder);
+    if (geocodes.size() < 2 || distanceHolder.getSteps() == null || distanceHolder.getSteps().isEmpty()
+        || distanceHolder.getSteps().get(0).getDistance() == null) {
+      throw new NoResultException("DistanceHolder is empty.");
+    }
+    final Geocode matchedFrom = findGeocode(geocodes, criteria.getLocationFrom(), null);
+    final Geocode matchedTo = findGeocode(geocodes, criteria.getLocationTo(), matchedFrom);
+    final Geocode geocodeFrom = matchedFrom != null ? matchedFrom : findGeocode(geocodes, null, matchedTo);
+    final Geocode geocodeTo = matchedTo != null ? matchedTo : findGeocode(geocodes, null, geocodeFrom);
+    final GrabDistanceDTO grabDistanceDTO = new GrabDistanceDTO();
+    grabDistanceDTO.setLocationFrom(convertToGrabDistanceDtoLocation(geocodeFrom));
+    grabDistanceDTO.setLocationTo(convertToGrabDistanceDtoLocation(geocodeTo));
+    grabDistanceDTO.setDistance(convertToGrabDistanceDtoDistance(
+        distanceHolder.getSteps().get(0).getDistance().getGreatCircle()));
+    return grabDistanceDTO;
+  }
+
+  /**
+   * The first geocode other than the excluded one with the given name, or with any name when it is null.
+   */
+  private static Geocode findGeocode(final List<Geocode> geocodes, final String location, final Geocode excluded) {
+    return geocodes.stream()
+        .filter(geocode -> geocode != excluded)
+        .filter(geocode -> location == null
+            || Gazetteer.normalise(geocode.getName()).equals(Gazetteer.normalise(location)))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * The named geocodes of the points, in the order the service returned them.
+   */
+  private static List<Geocode> geocodes(final DistanceHolder distanceHolder) {
+    if (distanceHolder == null || distanceHolder.getPoints() == null) {
+      return List.of();
+    }
+    return distanceHolder.getPoints().stream()
+        .filter(point -> point != null && point.getProperties() != null)
+        .map(point -> point.getProperties().getGeocode())
+        .filter(geocode -> geocode != null && geocode.getName() != null)
+        .collect(Collectors.toList());
+  }
+
+  private GrabDistanceDTO convertPlacesToGrabDistanceDto(final Place placeFrom, final Place placeTo) {
+    final GrabDistanceDTO grabDistanceDTO = new GrabDistanceDTO();
+    grabDistanceDTO.setLocationFrom(convertToGrabDistanceDtoLocation(
+        placeFrom.getName(), placeFrom.getLatitude(), placeFrom.getLongitude()));
+    grabDistanceDTO.setLocationTo(convertToGrabDistanceDtoLocation(
+        placeTo.getName(), placeTo.getLatitude(), placeTo.getLongitude()));
+    grabDistanceDTO.setDistance(convertToGrabDistanceDtoDistance(GreatCircle.distanceKm(
+        placeFrom.getLatitude(), placeFrom.getLongitude(), placeTo.getLatitude(), placeTo.getLongitude())));
+    return grabDistanceDTO;
+  }
+
+  private GrabDistanceDTO.Location convertToGrabDistanceDtoLocation(final Geocode geocode) {
+    return convertToGrabDistanceDtoLocation(geocode.getName(), geocode.getLatitude(), geocode.getLongitude());
+  }
+
+  private GrabDistanceDTO.Location convertToGrabDistanceDtoLocation(final String name, final double latitude,
+      final double longitude) {
+    final GrabDistanceDTO.Coordinate coordinates = new GrabDistanceDTO.Coordinate();
+    coordinates.setLatitude(latitude);
+    coordinates.setLongitude(longitude);
+    final GrabDistanceDTO.Location location = new GrabDistanceDTO.Location();
+    location.setLocation(name);
+    location.setCoordinates(coordinates);
+    return location;
+  }
+
+  private GrabDistanceDTO.Distance convertToGrabDistanceDtoDistance(final double km) {
+    final GrabDistanceDTO.Distance distance = new GrabDistanceDTO.Distance();
+    distance.setKm(Math.round(km * 10d) / 10d);
+    distance.setMi(Math.round(km / KM_PER_MI * 10d) / 10d);
+    return distance;
+  }
+
+  /**
+   * Thrown by the cache loader when the distance service could not be reached, so that no entry is cached.
+   */
+  private static final class UpstreamUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 4418270392215716193L;
+
+    private UpstreamUnavailableException(final Throwable cause) {
+      super(cause);
+    }
+  }
+}
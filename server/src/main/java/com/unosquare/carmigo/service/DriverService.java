@@ -1,15 +1,18 @@
 package com.unosquare.carmigo.service;
 
+import com.google.common.hash.Hashing;
 import com.unosquare.carmigo.dto.CreateDriverDTO;
 import com.unosquare.carmigo.dto.GrabDriverDTO;
 import com.unosquare.carmigo.entity.Driver;
 import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.mapper.DriverMapper;
 import com.unosquare.carmigo.repository.DriverRepository;
 import com.unosquare.carmigo.security.Authorization;
+import com.unosquare.carmigo.util.EntityTag;
+import java.nio.charset.StandardCharsets;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
@@ -18,22 +21,36 @@ import org.springframework.stereotype.Service;
 public class DriverService {
 
   private final DriverRepository driverRepository;
-  private final ModelMapper modelMapper;
+  private final DriverMapper driverMapper;
   private final EntityManager entityManager;
   private final Authorization authorization;
 
   public GrabDriverDTO getDriverById(final int id) {
-    return modelMapper.map(findDriverById(id), GrabDriverDTO.class);
+    return driverMapper.toGrabDriverDTO(findDriverById(id));
+  }
+
+  /**
+   * The ETag of the driver, from a version-only query of its user and license. Drivers have no version of their
+   * own, so the license, which may be null, is part of the tag as its SHA-256.
+   */
+  public EntityTag getDriverEntityTag(final int id) {
+    authorization.verifyUserAuthorization(id);
+    return driverRepository.findDriverVersionProjectionById(id)
+        .map(projection -> projection.getLicenseNumber() == null
+            ? EntityTag.of(projection.getVersion())
+            : EntityTag.of(projection.getVersion(),
+                Hashing.sha256().hashString(projection.getLicenseNumber(), StandardCharsets.UTF_8)))
+        .orElseThrow(() -> new EntityNotFoundException(String.format("Driver id %d not found.", id)));
   }
 
   public GrabDriverDTO createDriverById(final int id, final CreateDriverDTO createDriverDTO) {
     try {
       findDriverById(id);
     } catch (final EntityNotFoundException ex) {
-      final Driver driver = modelMapper.map(createDriverDTO, Driver.class);
+      final Driver driver = driverMapper.toDriver(createDriverDTO);
       driver.setId(id);
       driver.setPlatformUser(entityManager.getReference(PlatformUser.class, id));
-      return modelMapper.map(driverRepository.save(driver), GrabDriverDTO.class);
+      return driverMapper.toGrabDriverDTO(driverRepository.save(driver));
     }
     throw new DataIntegrityViolationException(String.format("Driver id %d already exists", id));
   }
@@ -0,0 +1,264 @@
+package com.unosquare.carmigo.service;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Optional;
+import java.util.TreeMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline lookup of place coordinates by name and country.<br><br>
+ *
+ * Places live in a compact binary file that is memory-mapped at startup: a header, a fixed-width index sorted by
+ * key and a pool holding the key and display name bytes, with coordinates stored as whole microdegrees. Keys are
+ * "normalised name,country code", compared as unsigned bytes, so exact lookups and prefix scans are binary searches
+ * straight over the mapped file.<br><br>
+ *
+ * The file comes from application.distance.gazetteer.path, or is compiled from the bundled places.csv when no path
+ * is configured.
+ */
+@Slf4j
+@Component
+public class Gazetteer {
+
+  private static final int MAGIC = 0x47415A31;
+  private static final int HEADER_BYTES = 8;
+  private static final int ENTRY_BYTES = 16;
+  private static final double MICRODEGREES = 1_000_000d;
+  private static final char KEY_SEPARATOR = ',';
+  private static final String BUNDLED_PLACES = "gazetteer/places.csv";
+  private static final Map<String, String> COUNTRY_CODES = countryCodes();
+
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int poolStart;
+
+  public Gazetteer(@Value("${application.distance.gazetteer.path:}") final String path) throws IOException {
+    final Path file = path.isBlank() ? compileBundledPlaces() : Path.of(path);
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // The mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IllegalStateException(String.format("%s is not a gazetteer file", file));
+    }
+    size = buffer.getInt(4);
+    poolStart = HEADER_BYTES + size * ENTRY_BYTES;
+    log.info("Gazetteer mapped with {} places from {}", size, file);
+  }
+
+  /**
+   * Resolves a place by name and country, where the country is an ISO code, an English country name or a common
+   * alias such as "UK". Without a country the name alone is used, provided it is unambiguous; a country that is not
+   * recognised, such as a typo, resolves nothing rather than a place of that name in another country.
+   */
+  public Optional<Place> find(final String name, final String country) {
+    final String normalisedName = normalise(name);
+    if (country != null && !country.isBlank()) {
+      final String countryCode = COUNTRY_CODES.get(normalise(country));
+      if (countryCode == null) {
+        return Optional.empty();
+      }
+      final byte[] key = (normalisedName + KEY_SEPARATOR + countryCode).getBytes(StandardCharsets.UTF_8);
+      final int index = lowerBound(key);
+      return index < size && compareKey(index, key) == 0 ? Optional.of(place(index)) : Optional.empty();
+    }
+    final List<Place> candidates = scan((normalisedName + KEY_SEPARATOR).getBytes(StandardCharsets.UTF_8), 2);
+    return candidates.size() == 1 ? Optional.of(candidates.get(0)) : Optional.empty();
+  }
+
+  /**
+   * Places whose name starts with the given prefix, in key order.
+   */
+  public List<Place> findByPrefix(final String prefix, final int limit) {
+    return scan(normalise(prefix).getBytes(StandardCharsets.UTF_8), limit);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Compiles "name,country code,latitude,longitude" lines into the binary gazetteer format. Blank lines and lines
+   * starting with # are skipped; of duplicate keys the first one wins.
+   */
+  public static void compile(final BufferedReader csv, final Path target) throws IOException {
+    final Map<byte[], Place> places = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    String line;
+    while ((line = csv.readLine()) != null) {
+      if (line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+      final String[] columns = line.split(",");
+      if (columns.length != 4) {
+        throw new IllegalArgumentException(String.format("Invalid gazetteer line: %s", line));
+      }
+      final Place place = new Place(columns[0].trim(), normalise(columns[1]),
+          Double.parseDouble(columns[2].trim()), Double.parseDouble(columns[3].trim()));
+      places.putIfAbsent((normalise(place.getName()) + KEY_SEPARATOR + place.getCountryCode())
+          .getBytes(StandardCharsets.UTF_8), place);
+    }
+    final int poolBytes = places.entrySet().stream()
+        .mapToInt(entry ->
+            entry.getKey().length + entry.getValue().getName().getBytes(StandardCharsets.UTF_8).length)
+        .sum();
+    final ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + places.size() * ENTRY_BYTES + poolBytes);
+    file.putInt(MAGIC).putInt(places.size());
+    int poolOffset = 0;
+    for (final Map.Entry<byte[], Place> entry : places.entrySet()) {
+      final int nameLength = entry.getValue().getName().getBytes(StandardCharsets.UTF_8).length;
+      file.putInt(poolOffset)
+          .putShort((short) entry.getKey().length)
+          .putShort((short) nameLength)
+          .putInt((int) Math.round(entry.getValue().getLatitude() * MICRODEGREES))
+          .putInt((int) Math.round(entry.getValue().getLongitude() * MICRODEGREES));
+      poolOffset += entry.getKey().length + nameLength;
+    }
+    for (final Map.Entry<byte[], Place> entry : places.entrySet()) {
+      file.put(entry.getKey()).put(entry.getValue().getName().getBytes(StandardCharsets.UTF_8));
+    }
+    Files.write(target, file.array());
+  }
+
+  /**
+   * Case insensitive with surrounding and repeated whitespace folded.
+   */
+  static String normalise(final String value) {
+    return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  private static Path compileBundledPlaces() throws IOException {
+    final Path file = Files.createTempFile("gazetteer", ".bin");
+    file.toFile().deleteOnExit();
+    try (final BufferedReader csv = new BufferedReader(new InputStreamReader(
+        new ClassPathResource(BUNDLED_PLACES).getInputStream(), StandardCharsets.UTF_8))) {
+      compile(csv, file);
+    }
+    return file;
+  }
+
+  private List<Place> scan(final byte[] prefix, final int limit) {
+    final List<Place> places = new ArrayList<>();
+    for (int index = lowerBound(prefix); index < size && places.size() < limit && startsWith(index, prefix);
+        index++) {
+      places.add(place(index));
+    }
+    return places;
+  }
+
+  /**
+   * Binary search for the first entry whose key is not less than the given one.
+   */
+  private int lowerBound(final byte[] key) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (compareKey(middle, key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int compareKey(final int index, final byte[] key) {
+    final int keyOffset = poolStart + buffer.getInt(entry(index));
+    final int keyLength = buffer.getShort(entry(index) + 4);
+    for (int i = 0; i < Math.min(keyLength, key.length); i++) {
+      final int comparison = UnsignedBytes.compare(buffer.get(keyOffset + i), key[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return keyLength - key.length;
+  }
+
+  private boolean startsWith(final int index, final byte[] prefix) {
+    final int keyLength = buffer.getShort(entry(index) + 4);
+    if (keyLength < prefix.length) {
+      return false;
+    }
+    final int keyOffset = poolStart + buffer.getInt(entry(index));
+    for (int i = 0; i < prefix.length; i++) {
+      if (buffer.get(keyOffset + i) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Place place(final int index) {
+    final int entry = entry(index);
+    final int keyOffset = poolStart + buffer.getInt(entry);
+    final int keyLength = buffer.getShort(entry + 4);
+    final String key = readString(keyOffset, keyLength);
+    return new Place(readString(keyOffset + keyLength, buffer.getShort(entry + 6)),
+        key.substring(key.lastIndexOf(KEY_SEPARATOR) + 1), buffer.getInt(entry + 8) / MICRODEGREES,
+        buffer.getInt(entry + 12) / MICRODEGREES);
+  }
+
+  private String readString(final int offset, final int length) {
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(offset + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int entry(final int index) {
+    return HEADER_BYTES + index * ENTRY_BYTES;
+  }
+
+  private static Map<String, String> countryCodes() {
+    final Map<String, String> countryCodes = new HashMap<>();
+    for (final String isoCountry : Locale.getISOCountries()) {
+      final Locale locale = new Locale("", isoCountry);
+      final String countryCode = isoCountry.toLowerCase(Locale.ROOT);
+      countryCodes.put(countryCode, countryCode);
+      countryCodes.put(normalise(locale.getDisplayCountry(Locale.ENGLISH)), countryCode);
+      try {
+        final String iso3Country = locale.getISO3Country();
+        if (!iso3Country.isEmpty()) {
+          countryCodes.put(iso3Country.toLowerCase(Locale.ROOT), countryCode);
+        }
+      } catch (final MissingResourceException ex) {
+        // No three-letter code for this country
+      }
+    }
+    Map.of("uk", "gb", "great britain", "gb", "britain", "gb", "england", "gb", "scotland", "gb", "wales", "gb",
+        "northern ireland", "gb", "usa", "us", "united states of america", "us", "republic of ireland", "ie")
+        .forEach(countryCodes::put);
+    return Map.copyOf(countryCodes);
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  public static final class Place {
+
+    private final String name;
+    private final String countryCode;
+    private final double latitude;
+    private final double longitude;
+  }
+}
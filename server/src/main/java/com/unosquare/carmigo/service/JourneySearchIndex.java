@@ -0,0 +1,278 @@
+package com.unosquare.carmigo.service;
+
+import com.google.common.util.concurrent.Striped;
+import com.unosquare.carmigo.entity.Journey;
+import com.unosquare.carmigo.repository.JourneyRepository;
+import com.unosquare.carmigo.repository.projection.JourneyIndexProjection;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process index of journeys keyed by route (location from, location to).<br><br>
+ *
+ * Each route keeps its journeys in parallel primitive arrays sorted by (departure epoch-second, journey id), so a
+ * search is two binary searches plus a slice copy. Routes are immutable snapshots replaced atomically by the map
+ * on every write, which lets readers run without locking.<br><br>
+ *
+ * Writes of one journey take a lock striped by journey id, held across the read of its row on refresh, so that a
+ * journey sits in one route at most once and a refresh never puts back a row older than the one another write of
+ * the same journey already applied.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JourneySearchIndex {
+
+  private final Map<Long, Route> routes = new ConcurrentHashMap<>();
+  private final Map<Integer, Long> routeKeyByJourneyId = new ConcurrentHashMap<>();
+  private final Striped<Lock> journeyLocks = Striped.lock(64);
+  private final JourneyRepository journeyRepository;
+
+  @Getter
+  @Value("${application.journey.search-index.enabled:false}")
+  private boolean enabled;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    final List<JourneyIndexProjection> rows = journeyRepository.findAllForSearchIndex();
+    final Map<Long, List<JourneyIndexProjection>> rowsByRoute = rows.stream()
+        .collect(Collectors.groupingBy(row -> routeKey(row.getLocationIdFrom(), row.getLocationIdTo())));
+    routes.clear();
+    routeKeyByJourneyId.clear();
+    rowsByRoute.forEach((routeKey, routeRows) -> {
+      routes.put(routeKey, Route.of(routeRows));
+      routeRows.forEach(row -> routeKeyByJourneyId.put(row.getId(), routeKey));
+    });
+    log.info("Journey search index built with {} journeys over {} routes", rows.size(), routes.size());
+  }
+
+  public void put(final Journey journey) {
+    if (!enabled) {
+      return;
+    }
+    put(journey.getId(), journey.getLocationFrom().getId(), journey.getLocationTo().getId(), journey.getDateTime(),
+        journey.getMaxPassengers() - journey.getSeatsTaken(), journey.getDriver().getId());
+  }
+
+  public void put(final int journeyId, final int locationIdFrom, final int locationIdTo, final Instant dateTime,
+      final int freeSeats, final int driverId) {
+    if (!enabled) {
+      return;
+    }
+    final Lock lock = journeyLocks.get(journeyId);
+    lock.lock();
+    try {
+      putLocked(journeyId, locationIdFrom, locationIdTo, dateTime, freeSeats, driverId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reads one journey back into the index, for changes made without loading the entity.
+   */
+  public void refresh(final int journeyId) {
+    if (!enabled) {
+      return;
+    }
+    final Lock lock = journeyLocks.get(journeyId);
+    lock.lock();
+    try {
+      journeyRepository.findForSearchIndexById(journeyId).ifPresentOrElse(
+          row -> putLocked(row.getId(), row.getLocationIdFrom(), row.getLocationIdTo(), row.getDateTime(),
+              row.getMaxPassengers() - row.getPassengerCount(), row.getDriverId()),
+          () -> removeLocked(journeyId));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void remove(final int journeyId) {
+    if (!enabled) {
+      return;
+    }
+    final Lock lock = journeyLocks.get(journeyId);
+    lock.lock();
+    try {
+      removeLocked(journeyId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Journeys of a route departing within [dateTimeFrom, dateTimeTo], in (departure, id) order, that come after the
+   * given keyset position.
+   *
+   * @return at most limit journeys
+   */
+  public Slice search(final int locationIdFrom, final int locationIdTo, final Instant dateTimeFrom,
+      final Instant dateTimeTo, final Instant afterDateTime, final int afterId, final int limit) {
+    final Route route = routes.get(routeKey(locationIdFrom, locationIdTo));
+    if (route == null) {
+      return Slice.EMPTY;
+    }
+    final long fromSecond = dateTimeFrom.getEpochSecond() + (dateTimeFrom.getNano() > 0 ? 1 : 0);
+    final int start = Math.max(route.indexAfter(fromSecond - 1, Integer.MAX_VALUE),
+        route.indexAfter(afterDateTime.getEpochSecond(), afterId));
+    final int end = Math.min(route.indexAfter(dateTimeTo.getEpochSecond(), Integer.MAX_VALUE), start + limit);
+    return start < end ? route.slice(start, end) : Slice.EMPTY;
+  }
+
+  private void putLocked(final int journeyId, final int locationIdFrom, final int locationIdTo,
+      final Instant dateTime, final int freeSeats, final int driverId) {
+    final long routeKey = routeKey(locationIdFrom, locationIdTo);
+    final Long previousRouteKey = routeKeyByJourneyId.put(journeyId, routeKey);
+    if (previousRouteKey != null && previousRouteKey != routeKey) {
+      routes.computeIfPresent(previousRouteKey, (key, route) -> route.without(journeyId));
+    }
+    routes.compute(routeKey, (key, route) -> (route == null ? Route.EMPTY : route)
+        .with(dateTime.getEpochSecond(), journeyId, freeSeats, driverId));
+  }
+
+  private void removeLocked(final int journeyId) {
+    final Long routeKey = routeKeyByJourneyId.remove(journeyId);
+    if (routeKey != null) {
+      routes.computeIfPresent(routeKey, (key, route) -> route.without(journeyId));
+    }
+  }
+
+  private static long routeKey(final int locationIdFrom, final int locationIdTo) {
+    return ((long) locationIdFrom << 32) | (locationIdTo & 0xFFFFFFFFL);
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  public static final class Slice {
+
+    private static final Slice EMPTY = new Slice(new long[0], new int[0], new int[0], new int[0]);
+
+    private final long[] departures;
+    private final int[] journeyIds;
+    private final int[] freeSeats;
+    private final int[] driverIds;
+
+    public int size() {
+      return journeyIds.length;
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class Route {
+
+    private static final Route EMPTY = new Route(new long[0], new int[0], new int[0], new int[0]);
+
+    private final long[] departures;
+    private final int[] journeyIds;
+    private final int[] freeSeats;
+    private final int[] driverIds;
+
+    private static Route of(final List<JourneyIndexProjection> rows) {
+      rows.sort(Comparator.comparing(JourneyIndexProjection::getDateTime)
+          .thenComparingInt(JourneyIndexProjection::getId));
+      final Route route = new Route(
+          new long[rows.size()], new int[rows.size()], new int[rows.size()], new int[rows.size()]);
+      for (int i = 0; i < rows.size(); i++) {
+        final JourneyIndexProjection row = rows.get(i);
+        route.departures[i] = row.getDateTime().getEpochSecond();
+        route.journeyIds[i] = row.getId();
+        route.freeSeats[i] = row.getMaxPassengers() - row.getPassengerCount();
+        route.driverIds[i] = row.getDriverId();
+      }
+      return route;
+    }
+
+    /**
+     * Binary search for the first position whose (departure, journeyId) is strictly greater than the given one.
+     */
+    private int indexAfter(final long departure, final int journeyId) {
+      int low = 0;
+      int high = departures.length;
+      while (low < high) {
+        final int middle = (low + high) >>> 1;
+        if (departures[middle] < departure || (departures[middle] == departure && journeyIds[middle] <= journeyId)) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private Slice slice(final int start, final int end) {
+      return new Slice(Arrays.copyOfRange(departures, start, end), Arrays.copyOfRange(journeyIds, start, end),
+          Arrays.copyOfRange(freeSeats, start, end), Arrays.copyOfRange(driverIds, start, end));
+    }
+
+    /**
+     * This route with the journey at its departure, replacing the journey if it is already in the route.
+     */
+    private Route with(final long departure, final int journeyId, final int seats, final int driverId) {
+      final Route base = without(journeyId);
+      if (base == null) {
+        return Route.EMPTY.with(departure, journeyId, seats, driverId);
+      }
+      final int position = base.indexAfter(departure, journeyId);
+      final Route route = new Route(new long[base.departures.length + 1], new int[base.journeyIds.length + 1],
+          new int[base.freeSeats.length + 1], new int[base.driverIds.length + 1]);
+      copyAround(base, route, position, 1);
+      route.departures[position] = departure;
+      route.journeyIds[position] = journeyId;
+      route.freeSeats[position] = seats;
+      route.driverIds[position] = driverId;
+      return route;
+    }
+
+    private Route without(final int journeyId) {
+      int position = -1;
+      for (int i = 0; i < journeyIds.length && position < 0; i++) {
+        if (journeyIds[i] == journeyId) {
+          position = i;
+        }
+      }
+      if (position < 0) {
+        return this;
+      }
+      if (journeyIds.length == 1) {
+        return null;
+      }
+      final Route route = new Route(new long[departures.length - 1], new int[journeyIds.length - 1],
+          new int[freeSeats.length - 1], new int[driverIds.length - 1]);
+      copyAround(this, route, position, -1);
+      return route;
+    }
+
+    /**
+     * Copies source into target leaving a gap at position (shift 1) or skipping the element at position (shift -1).
+     */
+    private static void copyAround(final Route source, final Route target, final int position, final int shift) {
+      final int tailFrom = shift > 0 ? position : position + 1;
+      final int tailTo = shift > 0 ? position + 1 : position;
+      final int tailLength = source.journeyIds.length - tailFrom;
+      System.arraycopy(source.departures, 0, target.departures, 0, position);
+      System.arraycopy(source.journeyIds, 0, target.journeyIds, 0, position);
+      System.arraycopy(source.freeSeats, 0, target.freeSeats, 0, position);
+      System.arraycopy(source.driverIds, 0, target.driverIds, 0, position);
+      System.arraycopy(source.departures, tailFrom, target.departures, tailTo, tailLength);
+      System.arraycopy(source.journeyIds, tailFrom, target.journeyIds, tailTo, tailLength);
+      System.arraycopy(source.freeSeats, tailFrom, target.freeSeats, tailTo, tailLength);
+      System.arraycopy(source.driverIds, tailFrom, target.driverIds, tailTo, tailLength);
+    }
+  }
+}
@@ -1,154 +1,393 @@
 package com.unosquare.carmigo.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatch;
-import com.github.fge.jsonpatch.JsonPatchException;
+import com.google.common.primitives.Ints;
+import com.unosquare.carmigo.dto.CreateDistanceMatrixDTO;
 import com.unosquare.carmigo.dto.CreateJourneyDTO;
 import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.GrabJourneyBatchItemDTO;
 import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.dto.GrabJourneyPageDTO;
+import com.unosquare.carmigo.dto.GrabPassengerDTO;
 import com.unosquare.carmigo.entity.Driver;
 import com.unosquare.carmigo.entity.Journey;
 import com.unosquare.carmigo.entity.Location;
+import com.unosquare.carmigo.exception.BadRequestException;
+import com.unosquare.carmigo.exception.ConflictException;
 import com.unosquare.carmigo.exception.PatchException;
+import com.unosquare.carmigo.exception.PreconditionFailedException;
 import com.unosquare.carmigo.exception.ResourceNotFoundException;
+import com.unosquare.carmigo.mapper.JourneyMapper;
 import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
 import com.unosquare.carmigo.model.request.CreateSearchJourneysCriteria;
-import com.unosquare.carmigo.openfeign.DistanceApi;
-import com.unosquare.carmigo.openfeign.DistanceHolder;
-import com.unosquare.carmigo.openfeign.Geocode;
+import com.unosquare.carmigo.repository.DriverRepository;
 import com.unosquare.carmigo.repository.JourneyRepository;
+import com.unosquare.carmigo.repository.LocationRepository;
 import com.unosquare.carmigo.repository.PassengerJourneyRepository;
-import com.unosquare.carmigo.util.MapperUtils;
+import com.unosquare.carmigo.repository.PassengerRepository;
+import com.unosquare.carmigo.repository.projection.JourneyDriverProjection;
+import com.unosquare.carmigo.repository.projection.JourneyPassengerProjection;
+import com.unosquare.carmigo.security.Authorization;
+import com.unosquare.carmigo.util.EntityTag;
+import com.unosquare.carmigo.util.JsonPatchCompiler;
+import com.unosquare.carmigo.util.KeysetCursor;
+import com.unosquare.carmigo.util.PartialUpdate;
+import com.unosquare.carmigo.util.PatchableFields;
+import com.unosquare.carmigo.util.Tagged;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
 public class JourneyService {
 
+  /**
+   * What a journey patch may change, shared with the patch benchmark so both measure the same whitelist.
+   */
+  public static final PatchableFields PATCHABLE_FIELDS = PatchableFields.forEntity(Journey.class)
+      .reference("/locationFrom/id", "locationFrom", Location.class)
+      .reference("/locationTo/id", "locationTo", Location.class)
+      .field("/maxPassengers", "maxPassengers", Integer.class)
+      .field("/dateTime", "dateTime", Instant.class)
+      .versioned("version")
+      .build();
+  private static final int MAX_BATCH_SIZE = 10_000;
+  // In step with hibernate.jdbc.batch_size, so every flush sends one full batch of inserts
+  private static final int FLUSH_INTERVAL = 50;
+
   private final JourneyRepository journeyRepository;
   private final PassengerJourneyRepository passengerJourneyRepository;
-  private final ModelMapper modelMapper;
-  private final ObjectMapper objectMapper;
+  private final LocationRepository locationRepository;
+  private final DriverRepository driverRepository;
+  private final PassengerRepository passengerRepository;
+  private final JourneyMapper journeyMapper;
+  private final JsonPatchCompiler jsonPatchCompiler;
   private final EntityManager entityManager;
-  private final DistanceApi distanceApi;
+  private final DistanceService distanceService;
+  private final JourneySearchIndex journeySearchIndex;
+  private final LocationDistanceService locationDistanceService;
+  private final Authorization authorization;
+  private final BookingAdmission bookingAdmission;
+
+  /**
+   * The ETag of the journey, from a version-only query: the journey, its driver's user and the route distance.
+   */
+  @Transactional(readOnly = true)
+  public EntityTag getJourneyEntityTag(final int id) {
+    return journeyRepository.findJourneyVersionProjectionById(id)
+        .map(projection -> EntityTag.of(projection.getVersion(), projection.getDriverVersion(),
+            Optional.ofNullable(projection.getDistanceUpdatedDate()).map(Instant::toEpochMilli).orElse(0L)))
+        .orElseThrow(() -> new ResourceNotFoundException(String.format("Journey id %d not found.", id)));
+  }
 
+  @Transactional(readOnly = true)
   public GrabJourneyDTO getJourneyById(final int id) {
-    return modelMapper.map(findJourneyById(id), GrabJourneyDTO.class);
+    return journeyRepository.findJourneyDriverProjectionById(id)
+        .orElseThrow(() -> new ResourceNotFoundException(String.format("Journey id %d not found.", id)))
+        .toGrabJourneyDTO();
   }
 
-  public List<GrabJourneyDTO> searchJourneys(final CreateSearchJourneysCriteria createSearchJourneysCriteria) {
-    final List<Journey> result = journeyRepository.findJourneysByLocationFromIdAndLocationToIdAndDateTimeBetween(
-        createSearchJourneysCriteria.getLocationIdFrom(), createSearchJourneysCriteria.getLocationIdTo(),
-        createSearchJourneysCriteria.getDateTimeFrom(), createSearchJourneysCriteria.getDateTimeTo());
-    if (result.isEmpty()) {
+  @Transactional(readOnly = true)
+  public GrabJourneyPageDTO searchJourneys(final CreateSearchJourneysCriteria createSearchJourneysCriteria) {
+    final String continuationToken = createSearchJourneysCriteria.getContinuationToken();
+    final KeysetCursor cursor = continuationToken == null
+        ? KeysetCursor.first(createSearchJourneysCriteria.getDateTimeFrom())
+        : KeysetCursor.decode(continuationToken);
+    final int limit = createSearchJourneysCriteria.getLimit();
+    // One extra row tells whether there is a next page without running a count query
+    final List<JourneyDriverProjection> result = journeySearchIndex.isEnabled()
+        ? findJourneysByRouteAfterFromIndex(createSearchJourneysCriteria, cursor, limit + 1)
+        : journeyRepository.findJourneyDriverProjectionsByRouteAfter(
+            createSearchJourneysCriteria.getLocationIdFrom(), createSearchJourneysCriteria.getLocationIdTo(),
+            createSearchJourneysCriteria.getDateTimeFrom(), createSearchJourneysCriteria.getDateTimeTo(),
+            cursor.getDateTime(), cursor.getId(), PageRequest.of(0, limit + 1));
+    if (result.isEmpty() && continuationToken == null) {
       throw new ResourceNotFoundException("No journeys found for this route. " + createSearchJourneysCriteria);
     }
-    return MapperUtils.mapList(result, GrabJourneyDTO.class, modelMapper);
+    final GrabJourneyPageDTO grabJourneyPageDTO = new GrabJourneyPageDTO();
+    if (result.size() > limit) {
+      final JourneyDriverProjection last = result.get(limit - 1);
+      grabJourneyPageDTO.setContinuationToken(KeysetCursor.after(last.getDateTime(), last.getId()).encode());
+    }
+    grabJourneyPageDTO.setJourneys(result.subList(0, Math.min(limit, result.size())).stream()
+        .map(JourneyDriverProjection::toGrabJourneyDTO)
+        .collect(Collectors.toList()));
+    return grabJourneyPageDTO;
   }
 
+  @Transactional(readOnly = true)
+  public void streamJourneys(final CreateSearchJourneysCriteria createSearchJourneysCriteria,
+      final Consumer<GrabJourneyDTO> consumer) {
+    // Projections are not managed, so the persistence context stays empty however long the stream is
+    try (final Stream<JourneyDriverProjection> journeys = journeyRepository.streamJourneyDriverProjectionsByRoute(
+        createSearchJourneysCriteria.getLocationIdFrom(), createSearchJourneysCriteria.getLocationIdTo(),
+        createSearchJourneysCriteria.getDateTimeFrom(), createSearchJourneysCriteria.getDateTimeTo())) {
+      journeys.forEach(journey -> consumer.accept(journey.toGrabJourneyDTO()));
+    }
+  }
+
+  @Transactional(readOnly = true)
   public List<GrabJourneyDTO> getJourneysByDriverId(final int id) {
-    final List<Journey> result = journeyRepository.findJourneysByDriverId(id);
+    final List<JourneyDriverProjection> result = journeyRepository.findJourneyDriverProjectionsByDriverId(id);
     if (result.isEmpty()) {
       throw new ResourceNotFoundException(String.format("No journeys found for driver id %d.", id));
     }
-    return MapperUtils.mapList(result, GrabJourneyDTO.class, modelMapper);
+    final Map<Integer, List<GrabPassengerDTO>> passengersByJourneyId = journeyRepository
+        .findJourneyPassengerProjectionsByDriverId(id).stream()
+        .collect(Collectors.groupingBy(JourneyPassengerProjection::getJourneyId,
+            Collectors.mapping(JourneyPassengerProjection::toGrabPassengerDTO, Collectors.toList())));
+    return result.stream()
+        .map(journey -> {
+          final GrabJourneyDTO grabJourneyDTO = journey.toGrabJourneyDTO();
+          grabJourneyDTO.setPassengers(passengersByJourneyId.getOrDefault(journey.getId(), new ArrayList<>()));
+          return grabJourneyDTO;
+        })
+        .collect(Collectors.toList());
   }
 
+  @Transactional(readOnly = true)
   public List<GrabJourneyDTO> getJourneysByPassengersId(final int id) {
-    final List<Journey> result = journeyRepository.findJourneysByPassengersId(id);
+    final List<JourneyDriverProjection> result = journeyRepository.findJourneyDriverProjectionsByPassengerId(id);
     if (result.isEmpty()) {
       throw new ResourceNotFoundException(String.format("No journeys found for passenger id %d.", id));
     }
-    return MapperUtils.mapList(result, GrabJourneyDTO.class, modelMapper);
+    return result.stream().map(JourneyDriverProjection::toGrabJourneyDTO).collect(Collectors.toList());
   }
 
   public GrabJourneyDTO createJourney(final CreateJourneyDTO createJourneyDTO) {
-    final Journey journey = modelMapper.map(createJourneyDTO, Journey.class);
+    final Journey journey = journeyMapper.toJourney(createJourneyDTO);
     journey.setCreatedDate(Instant.now());
     journey.setLocationFrom(entityManager.getReference(Location.class, createJourneyDTO.getLocationIdFrom()));
     journey.setLocationTo(entityManager.getReference(Location.class, createJourneyDTO.getLocationIdTo()));
     journey.setDriver(entityManager.getReference(Driver.class, createJourneyDTO.getDriverId()));
-    return modelMapper.map(journeyRepository.save(journey), GrabJourneyDTO.class);
+    final Journey savedJourney = journeyRepository.save(journey);
+    journeySearchIndex.put(savedJourney);
+    final GrabJourneyDTO grabJourneyDTO = journeyMapper.toGrabJourneyDTO(savedJourney);
+    locationDistanceService.findDistance(createJourneyDTO.getLocationIdFrom(), createJourneyDTO.getLocationIdTo())
+        .ifPresent(grabJourneyDTO::setDistance);
+    return grabJourneyDTO;
   }
 
-  public GrabJourneyDTO patchJourney(final int id, final JsonPatch patch) {
-    final GrabJourneyDTO grabJourneyDTO = modelMapper.map(findJourneyById(id), GrabJourneyDTO.class);
-    try {
-      final JsonNode journeyNode = patch.apply(objectMapper.convertValue(grabJourneyDTO, JsonNode.class));
-      final Journey patchedJourney = objectMapper.treeToValue(journeyNode, Journey.class);
-      return modelMapper.map(journeyRepository.save(patchedJourney), GrabJourneyDTO.class);
-    } catch (final JsonPatchException | JsonProcessingException ex) {
-      throw new PatchException(String.format("It was not possible to patch journey id %d - %s", id, ex.getMessage()));
+  /**
+   * Creates the journeys in one transaction. Those whose locations or driver do not exist are rejected up front,
+   * from two id queries, so the others can still be inserted; ids come from the pooled sequence without a round trip
+   * each, and the persistence context is flushed and cleared every {@link #FLUSH_INTERVAL} journeys, sending the
+   * inserts as JDBC batches while keeping the context small however long the list is. The journeys only enter the
+   * search index once the transaction commits.
+   *
+   * @return the outcome of every journey, in the order given
+   */
+  @Transactional
+  public List<GrabJourneyBatchItemDTO> createJourneys(final List<CreateJourneyDTO> createJourneyDTOs) {
+    if (createJourneyDTOs.isEmpty() || createJourneyDTOs.size() > MAX_BATCH_SIZE) {
+      throw new BadRequestException(String.format("A batch must have between 1 and %d journeys.", MAX_BATCH_SIZE));
     }
+    final Set<Integer> locationIds = locationRepository.findIdsByIdIn(createJourneyDTOs.stream()
+        .filter(Objects::nonNull)
+        .flatMap(journey -> Stream.of(journey.getLocationIdFrom(), journey.getLocationIdTo()))
+        .collect(Collectors.toSet()));
+    final Set<Integer> driverIds = driverRepository.findIdsByIdIn(createJourneyDTOs.stream()
+        .filter(Objects::nonNull)
+        .map(CreateJourneyDTO::getDriverId)
+        .collect(Collectors.toSet()));
+    final Instant createdDate = Instant.now();
+    final List<GrabJourneyBatchItemDTO> results = new ArrayList<>(createJourneyDTOs.size());
+    final List<Journey> created = new ArrayList<>();
+    int unflushed = 0;
+    for (int index = 0; index < createJourneyDTOs.size(); index++) {
+      final CreateJourneyDTO createJourneyDTO = createJourneyDTOs.get(index);
+      final Optional<GrabJourneyBatchItemDTO> rejection =
+          findRejection(index, createJourneyDTO, locationIds, driverIds);
+      if (rejection.isPresent()) {
+        results.add(rejection.get());
+        continue;
+      }
+      final Journey journey = journeyMapper.toJourney(createJourneyDTO);
+      journey.setCreatedDate(createdDate);
+      journey.setLocationFrom(entityManager.getReference(Location.class, createJourneyDTO.getLocationIdFrom()));
+      journey.setLocationTo(entityManager.getReference(Location.class, createJourneyDTO.getLocationIdTo()));
+      journey.setDriver(entityManager.getReference(Driver.class, createJourneyDTO.getDriverId()));
+      entityManager.persist(journey);
+      results.add(GrabJourneyBatchItemDTO.created(index, journey.getId()));
+      created.add(journey);
+      if (++unflushed == FLUSH_INTERVAL) {
+        flushAndClear();
+        unflushed = 0;
+      }
+    }
+    flushAndClear();
+    indexAfterCommit(created);
+    return results;
+  }
+
+  /**
+   * Applies the patch as a single UPDATE of the patched columns, only while the journey version is one the If-Match
+   * header accepts, then reads the journey back through its projection.
+   */
+  @Transactional
+  public Tagged<GrabJourneyDTO> patchJourney(final int id, final JsonPatch patch, final String ifMatch) {
+    final PartialUpdate partialUpdate = jsonPatchCompiler.compile(PATCHABLE_FIELDS, patch).ifMatch(ifMatch);
+    if (!partialUpdate.isEmpty()) {
+      if (partialUpdate.execute(entityManager, id) == 0) {
+        final Optional<Integer> version = journeyRepository.findVersionById(id);
+        if (version.isPresent()) {
+          throw partialUpdate.matchesVersion(version.get())
+              ? new PatchException(String.format("It was not possible to patch journey id %d - test failed", id))
+              : new PreconditionFailedException(String.format("Journey id %d has been modified", id));
+        }
+      }
+      if (partialUpdate.hasAssignments()) {
+        bookingAdmission.invalidate(id);
+        journeySearchIndex.refresh(id);
+      }
+    }
+    // The tag is read before the journey, so it can never describe a newer state than the one returned
+    final EntityTag entityTag = getJourneyEntityTag(id);
+    return new Tagged<>(getJourneyById(id), entityTag);
   }
 
   public GrabDistanceDTO calculateDistance(final CreateCalculateDistanceCriteria createCalculateDistanceCriteria) {
-    final String request = prepareRequestToDistanceApi(createCalculateDistanceCriteria);
-    DistanceHolder distanceHolder = distanceApi.getDistance(request);
-    return convertDistanceHolderToGrabDistanceDto(distanceHolder);
+    return distanceService.calculateDistance(createCalculateDistanceCriteria);
+  }
+
+  public GrabDistanceMatrixDTO calculateDistanceMatrix(final CreateDistanceMatrixDTO createDistanceMatrixDTO) {
+    return distanceService.calculateDistanceMatrix(createDistanceMatrixDTO);
   }
 
   public void deleteJourneyById(final int id) {
     journeyRepository.deleteById(id);
+    bookingAdmission.invalidate(id);
+    journeySearchIndex.remove(id);
   }
 
-  @Transactional
+  /**
+   * Books a seat of the journey for the passenger with one conditional statement, so concurrent bookings can never
+   * take more seats than the journey has. Only when nothing was booked are the journey and the booking read, to
+   * tell why.<br><br>
+   *
+   * The statement runs once {@link BookingAdmission} admits it, which may answer "full" without reaching the
+   * database. No transaction is held around it, so no connection is taken while waiting for the turn.
+   */
+  public void bookSeat(final int journeyId, final int passengerId) {
+    authorization.verifyUserAuthorization(passengerId);
+    if (!passengerRepository.existsById(passengerId)) {
+      throw new ResourceNotFoundException(String.format("Passenger id %d not found.", passengerId));
+    }
+    bookingAdmission.admit(journeyId, () -> {
+      if (passengerJourneyRepository.bookSeat(journeyId, passengerId) == 0) {
+        if (!journeyRepository.existsById(journeyId)) {
+          throw new ResourceNotFoundException(String.format("Journey id %d not found.", journeyId));
+        }
+        throw new ConflictException(passengerJourneyRepository.existsByJourneyIdAndPassengerId(journeyId, passengerId)
+            ? String.format("Passenger id %d has already booked journey id %d.", passengerId, journeyId)
+            : String.format("Journey id %d is full.", journeyId));
+      }
+    });
+    journeySearchIndex.refresh(journeyId);
+  }
+
+  /**
+   * Runs outside a transaction, so the seat is seen as released by the time the admission counts are dropped.
+   */
   public void deleteByJourneyIdAndPassengerId(final int journeyId, final int passengerId) {
-    passengerJourneyRepository.deleteByJourneyIdAndPassengerId(journeyId, passengerId);
+    if (passengerJourneyRepository.deleteByJourneyIdAndPassengerId(journeyId, passengerId) > 0) {
+      seatReleased(journeyId);
+    }
   }
 
-  private Journey findJourneyById(final int id) {
-    return journeyRepository.findById(id)
-        .orElseThrow(() -> new ResourceNotFoundException(String.format("Journey id %d not found.", id)));
+  /**
+   * Drops the admission counts and reindexes the journeys once the deletion that released their seats commits, so
+   * neither is read back before the seats are free.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onSeatsReleased(final SeatsReleasedEvent event) {
+    event.getJourneyIds().forEach(this::seatReleased);
   }
 
-  private String prepareRequestToDistanceApi(final CreateCalculateDistanceCriteria criteria) {
-    return "[{\"t\":\"" + criteria.getLocationFrom() + "," + criteria.getCountryFrom() + "\"},{\"t\":\""
-        + criteria.getLocationTo() + "," + criteria.getCountryTo() + "\"}]";
+  private void seatReleased(final int journeyId) {
+    bookingAdmission.invalidate(journeyId);
+    journeySearchIndex.refresh(journeyId);
   }
 
-  private GrabDistanceDTO convertDistanceHolderToGrabDistanceDto(final DistanceHolder distanceHolder) {
-    if (distanceHolder.getPoints().size() > 1) {
-      final GrabDistanceDTO grabDistanceDTO = new GrabDistanceDTO();
-      grabDistanceDTO.setLocationFrom(convertToGrabDistanceDtoLocation(
-          distanceHolder.getPoints().get(0).getProperties().getGeocode()));
-      grabDistanceDTO.setLocationTo(convertToGrabDistanceDtoLocation(
-          distanceHolder.getPoints().get(1).getProperties().getGeocode()));
-      grabDistanceDTO.setDistance(convertToGrabDistanceDtoDistance(
-          distanceHolder.getSteps().get(0).getDistance().getGreatCircle()));
-      return grabDistanceDTO;
+  private static Optional<GrabJourneyBatchItemDTO> findRejection(final int index,
+      final CreateJourneyDTO createJourneyDTO, final Set<Integer> locationIds, final Set<Integer> driverIds) {
+    if (createJourneyDTO == null || createJourneyDTO.getDateTime() == null) {
+      return Optional.of(GrabJourneyBatchItemDTO.rejected(index, HttpStatus.BAD_REQUEST,
+          createJourneyDTO == null ? "journey must not be null" : "dateTime must not be null"));
+    }
+    final Optional<Integer> unknownLocationId =
+        Stream.of(createJourneyDTO.getLocationIdFrom(), createJourneyDTO.getLocationIdTo())
+            .filter(locationId -> !locationIds.contains(locationId))
+            .findFirst();
+    if (unknownLocationId.isPresent()) {
+      return Optional.of(GrabJourneyBatchItemDTO.rejected(index, HttpStatus.NOT_FOUND,
+          String.format("Location id %d not found.", unknownLocationId.get())));
     }
-    throw new NoResultException("DistanceHolder is empty.");
+    if (!driverIds.contains(createJourneyDTO.getDriverId())) {
+      return Optional.of(GrabJourneyBatchItemDTO.rejected(index, HttpStatus.NOT_FOUND,
+          String.format("Driver id %d not found.", createJourneyDTO.getDriverId())));
+    }
+    return Optional.empty();
   }
 
-  private GrabDistanceDTO.Location convertToGrabDistanceDtoLocation(final Geocode geocode) {
-    final GrabDistanceDTO.Coordinate coordinates = new GrabDistanceDTO.Coordinate();
-    coordinates.setLatitude(geocode.getLatitude());
-    coordinates.setLongitude(geocode.getLongitude());
-    final GrabDistanceDTO.Location location = new GrabDistanceDTO.Location();
-    location.setLocation(geocode.getName());
-    location.setCoordinates(coordinates);
-    return location;
+  private void flushAndClear() {
+    entityManager.flush();
+    entityManager.clear();
   }
 
-  private GrabDistanceDTO.Distance convertToGrabDistanceDtoDistance(final double km) {
-    final GrabDistanceDTO.Distance distance = new GrabDistanceDTO.Distance();
-    distance.setKm(Math.round(km * 10d) / 10d);
-    distance.setMi(Math.round(convertKmToMi(km) * 10d) / 10d);
-    return distance;
+  /**
+   * Indexes the journeys once the transaction creating them commits, so a batch rolled back never leaves ids in the
+   * index; at once when there is no transaction.
+   */
+  private void indexAfterCommit(final List<Journey> journeys) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      journeys.forEach(journeySearchIndex::put);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        journeys.forEach(journeySearchIndex::put);
+      }
+    });
   }
 
-  private double convertKmToMi(final double km) {
-    final double conversionFactor = 1.609344;
-    return km / conversionFactor;
+  private List<JourneyDriverProjection> findJourneysByRouteAfterFromIndex(final CreateSearchJourneysCriteria criteria,
+      final KeysetCursor cursor, final int limit) {
+    final JourneySearchIndex.Slice slice = journeySearchIndex.search(criteria.getLocationIdFrom(),
+        criteria.getLocationIdTo(), criteria.getDateTimeFrom(), criteria.getDateTimeTo(), cursor.getDateTime(),
+        cursor.getId(), limit);
+    // An empty IN list renders as "IN ()", which PostgreSQL rejects
+    if (slice.getJourneyIds().length == 0) {
+      return List.of();
+    }
+    final Map<Integer, JourneyDriverProjection> journeysById = journeyRepository
+        .findJourneyDriverProjectionsByIdIn(Ints.asList(slice.getJourneyIds())).stream()
+        .collect(Collectors.toMap(JourneyDriverProjection::getId, Function.identity()));
+    return Arrays.stream(slice.getJourneyIds())
+        .filter(journeysById::containsKey)
+        .mapToObj(journeysById::get)
+        .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,164 @@
+package com.unosquare.carmigo.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.entity.Location;
+import com.unosquare.carmigo.entity.LocationDistance;
+import com.unosquare.carmigo.entity.LocationDistanceId;
+import com.unosquare.carmigo.exception.ServiceUnavailableException;
+import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.repository.LocationDistanceRepository;
+import com.unosquare.carmigo.repository.LocationRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.persistence.NoResultException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps a table of distances between every pair of locations, so journey reads can attach them with a primary key
+ * lookup instead of a live call.<br><br>
+ *
+ * A background job resolves the pairs that are missing or older than application.distance.precompute.max-age
+ * through {@link DistanceService}, paced by a rate limiter so a refresh never bursts the upstream quota, and upserts
+ * them in batches. Only pairs that go to the remote service wait for a permit; those the gazetteer or the cache
+ * answer are resolved straight away. Locations carry no country, so application.distance.precompute.country is
+ * used for all of them.<br><br>
+ *
+ * The scheduler only hands a run to the precompute executor, as a run spends most of its time waiting for permits
+ * and would otherwise hold up every other scheduled task; a run is skipped while the previous one is going.
+ */
+@Slf4j
+@Service
+public class LocationDistanceService {
+
+  private static final int BATCH_SIZE = 100;
+
+  private final LocationRepository locationRepository;
+  private final LocationDistanceRepository locationDistanceRepository;
+  private final DistanceService distanceService;
+  private final RateLimiter rateLimiter;
+  private final String country;
+  private final Duration maxAge;
+  private final Executor precomputeExecutor;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  public LocationDistanceService(final LocationRepository locationRepository,
+      final LocationDistanceRepository locationDistanceRepository, final DistanceService distanceService,
+      final Executor distancePrecomputeExecutor,
+      @Value("${application.distance.precompute.permits-per-second:2}") final double permitsPerSecond,
+      @Value("${application.distance.precompute.country:UK}") final String country,
+      @Value("${application.distance.precompute.max-age:30d}") final Duration maxAge) {
+    this.locationRepository = locationRepository;
+    this.locationDistanceRepository = locationDistanceRepository;
+    this.distanceService = distanceService;
+    this.rateLimiter = RateLimiter.create(permitsPerSecond);
+    this.country = country;
+    this.maxAge = maxAge;
+    this.precomputeExecutor = distancePrecomputeExecutor;
+  }
+
+  public Optional<GrabDistanceDTO.Distance> findDistance(final int locationIdFrom, final int locationIdTo) {
+    return locationDistanceRepository.findById(new LocationDistanceId(locationIdFrom, locationIdTo))
+        .map(locationDistance -> {
+          final GrabDistanceDTO.Distance distance = new GrabDistanceDTO.Distance();
+          distance.setKm(locationDistance.getKm());
+          distance.setMi(locationDistance.getMi());
+          return distance;
+        });
+  }
+
+  @Scheduled(initialDelayString = "${application.distance.precompute.initial-delay:PT1M}",
+      fixedDelayString = "${application.distance.precompute.fixed-delay:PT6H}")
+  public void scheduleLocationDistanceRefresh() {
+    if (!refreshing.compareAndSet(false, true)) {
+      log.info("Location distance refresh skipped, the previous run is still going");
+      return;
+    }
+    try {
+      precomputeExecutor.execute(() -> {
+        try {
+          refreshLocationDistances();
+        } finally {
+          refreshing.set(false);
+        }
+      });
+    } catch (final RejectedExecutionException ex) {
+      refreshing.set(false);
+      log.warn("Location distance refresh not started - {}", ex.getMessage());
+    }
+  }
+
+  /**
+   * Resolves each stale pair of locations once and stores it in both directions. Stops early when the distance
+   * service is unavailable; what was resolved so far is kept and the rest is retried on the next run.
+   */
+  public void refreshLocationDistances() {
+    final List<Location> locations = locationRepository.findAll(Sort.by("id"));
+    final Map<LocationDistanceId, Instant> updatedDates = locationDistanceRepository.findAll().stream()
+        .collect(Collectors.toMap(LocationDistance::getId, LocationDistance::getUpdatedDate));
+    final Instant staleBefore = Instant.now().minus(maxAge);
+    final List<LocationDistance> batch = new ArrayList<>();
+    int refreshed = 0;
+    try {
+      for (int i = 0; i < locations.size(); i++) {
+        for (int j = i + 1; j < locations.size(); j++) {
+          final LocationDistanceId id = new LocationDistanceId(locations.get(i).getId(), locations.get(j).getId());
+          final LocationDistanceId reverseId = new LocationDistanceId(id.getLocationIdTo(), id.getLocationIdFrom());
+          if (!isStale(updatedDates.get(id), staleBefore) && !isStale(updatedDates.get(reverseId), staleBefore)) {
+            continue;
+          }
+          final Optional<GrabDistanceDTO.Distance> distance = resolveDistance(locations.get(i), locations.get(j));
+          if (distance.isEmpty()) {
+            continue;
+          }
+          final Instant now = Instant.now();
+          batch.add(new LocationDistance(id, distance.get().getKm(), distance.get().getMi(), now));
+          batch.add(new LocationDistance(reverseId, distance.get().getKm(), distance.get().getMi(), now));
+          refreshed++;
+          if (batch.size() >= BATCH_SIZE) {
+            locationDistanceRepository.upsertAll(batch);
+            batch.clear();
+          }
+        }
+      }
+    } catch (final ServiceUnavailableException ex) {
+      log.warn("Location distance refresh stopped after {} pairs - {}", refreshed, ex.getMessage());
+    } finally {
+      if (!batch.isEmpty()) {
+        locationDistanceRepository.upsertAll(batch);
+      }
+    }
+    log.info("Location distance refresh stored {} pairs of {} locations", refreshed, locations.size());
+  }
+
+  private Optional<GrabDistanceDTO.Distance> resolveDistance(final Location locationFrom, final Location locationTo) {
+    final CreateCalculateDistanceCriteria criteria = new CreateCalculateDistanceCriteria();
+    criteria.setLocationFrom(locationFrom.getDescription());
+    criteria.setCountryFrom(country);
+    criteria.setLocationTo(locationTo.getDescription());
+    criteria.setCountryTo(country);
+    try {
+      return Optional.ofNullable(distanceService.calculateDistance(criteria, rateLimiter::acquire).getDistance());
+    } catch (final NoResultException ex) {
+      log.warn("No distance between locations {} and {} - {}", locationFrom.getId(), locationTo.getId(),
+          ex.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private static boolean isStale(final Instant updatedDate, final Instant staleBefore) {
+    return updatedDate == null || updatedDate.isBefore(staleBefore);
+  }
+}
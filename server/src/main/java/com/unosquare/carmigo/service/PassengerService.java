@@ -3,27 +3,44 @@ package com.unosquare.carmigo.service;
 import com.unosquare.carmigo.dto.GrabPassengerDTO;
 import com.unosquare.carmigo.entity.Passenger;
 import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.mapper.PassengerMapper;
+import com.unosquare.carmigo.repository.PassengerJourneyRepository;
 import com.unosquare.carmigo.repository.PassengerRepository;
 import com.unosquare.carmigo.security.AppUser;
 import com.unosquare.carmigo.security.Authorization;
+import com.unosquare.carmigo.util.EntityTag;
+import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class PassengerService {
 
   private final PassengerRepository passengerRepository;
-  private final ModelMapper modelMapper;
+  private final PassengerJourneyRepository passengerJourneyRepository;
+  private final PassengerMapper passengerMapper;
   private final EntityManager entityManager;
   private final Authorization authorization;
+  private final ApplicationEventPublisher applicationEventPublisher;
 
   public GrabPassengerDTO getPassengerById(final int id) {
-    return modelMapper.map(findPassengerById(id), GrabPassengerDTO.class);
+    return passengerMapper.toGrabPassengerDTO(findPassengerById(id));
+  }
+
+  /**
+   * The ETag of the passenger, from a version-only query of its user.
+   */
+  public EntityTag getPassengerEntityTag(final int id) {
+    authorization.verifyUserAuthorization(id);
+    return passengerRepository.findPlatformUserVersionById(id)
+        .map(version -> EntityTag.of(version))
+        .orElseThrow(() -> new EntityNotFoundException(String.format("Passenger id %d not found.", id)));
   }
 
   public GrabPassengerDTO createPassengerById(final int id) {
@@ -33,14 +50,22 @@ public class PassengerService {
       final Passenger passenger = new Passenger();
       passenger.setId(id);
       passenger.setPlatformUser(entityManager.getReference(PlatformUser.class, id));
-      return modelMapper.map(passengerRepository.save(passenger), GrabPassengerDTO.class);
+      return passengerMapper.toGrabPassengerDTO(passengerRepository.save(passenger));
     }
     throw new DataIntegrityViolationException(String.format("Passenger id %d already exists", id));
   }
 
+  /**
+   * Releases the seats of the passenger's bookings in the same transaction as the deletion.
+   */
+  @Transactional
   public void deletePassengerById(final int id) {
     findPassengerById(id);
+    final List<Integer> journeyIds = passengerJourneyRepository.releaseSeatsByPassengerId(id);
     passengerRepository.deleteById(id);
+    if (!journeyIds.isEmpty()) {
+      applicationEventPublisher.publishEvent(new SeatsReleasedEvent(journeyIds));
+    }
   }
 
   private Passenger findPassengerById(final int id) {
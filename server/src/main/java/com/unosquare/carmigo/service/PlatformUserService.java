@@ -1,88 +1,196 @@
 package com.unosquare.carmigo.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatch;
-import com.github.fge.jsonpatch.JsonPatchException;
 import com.unosquare.carmigo.dto.CreateAuthenticationDTO;
 import com.unosquare.carmigo.dto.CreatePlatformUserDTO;
 import com.unosquare.carmigo.dto.GrabAuthenticationDTO;
 import com.unosquare.carmigo.dto.GrabPlatformUserDTO;
 import com.unosquare.carmigo.entity.PlatformUser;
 import com.unosquare.carmigo.entity.UserAccessStatus;
-import com.unosquare.carmigo.exception.ResourceNotFoundException;
+import com.unosquare.carmigo.exception.PatchException;
+import com.unosquare.carmigo.exception.PreconditionFailedException;
+import com.unosquare.carmigo.mapper.PlatformUserMapper;
+import com.unosquare.carmigo.model.request.CreatePlatformUserViewModel;
+import com.unosquare.carmigo.repository.PassengerJourneyRepository;
 import com.unosquare.carmigo.repository.PlatformUserRepository;
 import com.unosquare.carmigo.security.Authorization;
+import com.unosquare.carmigo.security.CustomUserDetails;
+import com.unosquare.carmigo.security.LoginAttemptService;
+import com.unosquare.carmigo.security.PlatformUserChangedEvent;
 import com.unosquare.carmigo.security.UserSecurityService;
+import com.unosquare.carmigo.util.EntityTag;
+import com.unosquare.carmigo.util.JsonPatchCompiler;
 import com.unosquare.carmigo.util.JwtTokenUtils;
+import com.unosquare.carmigo.util.PartialUpdate;
+import com.unosquare.carmigo.util.PatchableFields;
+import com.unosquare.carmigo.util.Tagged;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class PlatformUserService {
 
   private static final int INITIAL_USER_STATUS = 1;
+  private static final PatchableFields SELF_SERVICE_PATCHABLE_FIELDS = profileFields().build();
+  private static final PatchableFields ADMIN_PATCHABLE_FIELDS = profileFields()
+      .reference("/userAccessStatus/id", "userAccessStatus", UserAccessStatus.class)
+      .build();
 
   private final PlatformUserRepository platformUserRepository;
+  private final PassengerJourneyRepository passengerJourneyRepository;
   private final UserSecurityService userSecurityService;
-  private final ModelMapper modelMapper;
-  private final ObjectMapper objectMapper;
+  private final PlatformUserMapper platformUserMapper;
+  private final JsonPatchCompiler jsonPatchCompiler;
   private final EntityManager entityManager;
   private final AuthenticationManager authenticationManager;
-  private final BCryptPasswordEncoder bCryptPasswordEncoder;
+  private final PasswordEncoder passwordEncoder;
   private final JwtTokenUtils jwtTokenUtils;
   private final Authorization authorization;
+  private final LoginAttemptService loginAttemptService;
+  private final RefreshTokenService refreshTokenService;
+  private final ApplicationEventPublisher applicationEventPublisher;
 
   public GrabAuthenticationDTO createAuthenticationToken(final CreateAuthenticationDTO createAuthenticationDTO) {
-    authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-        createAuthenticationDTO.getEmail(), createAuthenticationDTO.getPassword()));
+    final String email = createAuthenticationDTO.getEmail();
+    loginAttemptService.checkAllowed(email);
+    try {
+      authenticationManager.authenticate(
+          new UsernamePasswordAuthenticationToken(email, createAuthenticationDTO.getPassword()));
+    } catch (final AuthenticationException ex) {
+      loginAttemptService.loginFailed(email);
+      throw ex;
+    }
+    loginAttemptService.loginSucceeded(email);
     final UserDetails userDetails = userSecurityService.loadUserByUsername(createAuthenticationDTO.getEmail());
     final String jwt = jwtTokenUtils.generateToken(userDetails);
     final GrabAuthenticationDTO grabAuthenticationDTO = new GrabAuthenticationDTO();
     grabAuthenticationDTO.setJwt(jwt);
+    grabAuthenticationDTO.setRefreshToken(
+        refreshTokenService.createRefreshToken(((CustomUserDetails) userDetails).getId()));
     return grabAuthenticationDTO;
   }
 
   public GrabPlatformUserDTO getPlatformUserById(final int id) {
-    return modelMapper.map(findPlatformUserById(id), GrabPlatformUserDTO.class);
+    return platformUserMapper.toGrabPlatformUserDTO(findPlatformUserById(id));
+  }
+
+  /**
+   * The ETag of the user, from a version-only query.
+   */
+  public EntityTag getPlatformUserEntityTag(final int id) {
+    authorization.verifyUserAuthorization(id);
+    return EntityTag.of(findVersion(id));
   }
 
   public GrabPlatformUserDTO createPlatformUser(final CreatePlatformUserDTO createPlatformUserDTO) {
-    final PlatformUser platformUser = modelMapper.map(createPlatformUserDTO, PlatformUser.class);
+    final PlatformUser platformUser = platformUserMapper.toPlatformUser(createPlatformUserDTO);
     platformUser.setCreatedDate(Instant.now());
-    platformUser.setPassword(bCryptPasswordEncoder.encode(createPlatformUserDTO.getPassword()));
+    platformUser.setPassword(passwordEncoder.encode(createPlatformUserDTO.getPassword()));
     platformUser.setUserAccessStatus(entityManager.getReference(UserAccessStatus.class, INITIAL_USER_STATUS));
-    return modelMapper.map(platformUserRepository.save(platformUser), GrabPlatformUserDTO.class);
+    return platformUserMapper.toGrabPlatformUserDTO(platformUserRepository.save(platformUser));
   }
 
-  public GrabPlatformUserDTO patchPlatformUserById(final int id, final JsonPatch patch) {
-    final GrabPlatformUserDTO grabPlatformUserDTO = modelMapper.map(findPlatformUserById(id), GrabPlatformUserDTO.class);
-    try {
-      final JsonNode platformUserNode = patch.apply(objectMapper.convertValue(grabPlatformUserDTO, JsonNode.class));
-      final PlatformUser patchedPlatformUser = objectMapper.treeToValue(platformUserNode, PlatformUser.class);
-      return modelMapper.map(platformUserRepository.save(patchedPlatformUser), GrabPlatformUserDTO.class);
-    } catch (final JsonPatchException | JsonProcessingException ex) {
-      throw new ResourceNotFoundException(String.format("Error updating user id %d", id));
+  /**
+   * Patches the profile of the user, for users changing their own: the access status is left out, so no user can
+   * lift their own suspension or grant themselves another status.
+   */
+  @Transactional
+  public Tagged<GrabPlatformUserDTO> patchCurrentPlatformUser(final int id, final JsonPatch patch,
+      final String ifMatch) {
+    return patchPlatformUser(id, SELF_SERVICE_PATCHABLE_FIELDS, patch, ifMatch);
+  }
+
+  /**
+   * Patches the profile and the access status of any user, for admins.
+   */
+  @Transactional
+  public Tagged<GrabPlatformUserDTO> patchPlatformUserById(final int id, final JsonPatch patch,
+      final String ifMatch) {
+    return patchPlatformUser(id, ADMIN_PATCHABLE_FIELDS, patch, ifMatch);
+  }
+
+  /**
+   * Applies the patch as a single UPDATE of the patched columns, only while the user version is one the If-Match
+   * header accepts, then reads the user back.
+   */
+  private Tagged<GrabPlatformUserDTO> patchPlatformUser(final int id, final PatchableFields patchableFields,
+      final JsonPatch patch, final String ifMatch) {
+    authorization.verifyUserAuthorization(id);
+    final PartialUpdate partialUpdate = jsonPatchCompiler.compile(patchableFields, patch).ifMatch(ifMatch);
+    final Set<String> changedEmails = new HashSet<>();
+    // A new email has to evict the previous one too
+    if (partialUpdate.findAssignedValue("email").isPresent()) {
+      platformUserRepository.findEmailById(id).ifPresent(changedEmails::add);
     }
+    if (!partialUpdate.isEmpty() && partialUpdate.execute(entityManager, id) == 0) {
+      final Optional<Integer> version = platformUserRepository.findVersionById(id);
+      if (version.isPresent()) {
+        throw partialUpdate.matchesVersion(version.get())
+            ? new PatchException(String.format("It was not possible to patch user id %d - test failed", id))
+            : new PreconditionFailedException(String.format("User id %d has been modified", id));
+      }
+    }
+    final PlatformUser platformUser = loadPlatformUser(id);
+    if (partialUpdate.hasAssignments()) {
+      changedEmails.add(platformUser.getEmail());
+      applicationEventPublisher.publishEvent(new PlatformUserChangedEvent(changedEmails));
+    }
+    // Loaded in this transaction after the update, so the version is that of the returned user
+    return new Tagged<>(platformUserMapper.toGrabPlatformUserDTO(platformUser),
+        EntityTag.of(platformUser.getVersion()));
   }
 
+  /**
+   * Releases the seats of the user's bookings as a passenger in the same transaction as the deletion.
+   */
+  @Transactional
   public void deletePlatformUserById(final int id) {
-    findPlatformUserById(id);
+    final PlatformUser platformUser = findPlatformUserById(id);
+    final List<Integer> journeyIds = passengerJourneyRepository.releaseSeatsByPlatformUserId(id);
     platformUserRepository.deleteById(id);
+    applicationEventPublisher.publishEvent(new PlatformUserChangedEvent(Set.of(platformUser.getEmail())));
+    if (!journeyIds.isEmpty()) {
+      applicationEventPublisher.publishEvent(new SeatsReleasedEvent(journeyIds));
+    }
+  }
+
+  private static PatchableFields.Builder profileFields() {
+    return PatchableFields.forEntity(PlatformUser.class)
+        .field("/firstName", "firstName", String.class)
+        .field("/lastName", "lastName", String.class)
+        .field("/dob", "dob", Instant.class)
+        .field("/email", "email", String.class)
+        .field("/phoneNumber", "phoneNumber", String.class)
+        .constrainedBy(CreatePlatformUserViewModel.class)
+        .versioned("version");
   }
 
   private PlatformUser findPlatformUserById(final int id) {
     authorization.verifyUserAuthorization(id);
+    return loadPlatformUser(id);
+  }
+
+  private int findVersion(final int id) {
+    return platformUserRepository.findVersionById(id).orElseThrow(
+        () -> new EntityNotFoundException(String.format("PlatformUser id %d not found.", id)));
+  }
+
+  private PlatformUser loadPlatformUser(final int id) {
     return platformUserRepository.findById(id).orElseThrow(
         () -> new EntityNotFoundException(String.format("PlatformUser id %d not found.", id)));
   }
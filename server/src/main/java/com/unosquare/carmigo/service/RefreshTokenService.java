@@ -0,0 +1,97 @@
+package com.unosquare.carmigo.service;
+
+import com.google.common.hash.Hashing;
+import com.unosquare.carmigo.dto.GrabAuthenticationDTO;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.RefreshToken;
+import com.unosquare.carmigo.exception.UnauthorizedException;
+import com.unosquare.carmigo.repository.RefreshTokenRepository;
+import com.unosquare.carmigo.security.UserSecurityService;
+import com.unosquare.carmigo.util.JwtTokenUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Issues and rotates the long-lived refresh tokens that renew the short-lived access tokens.<br><br>
+ *
+ * Renewing costs one indexed lookup of the token hash and the signature of the new access token; the user is
+ * resolved through the cached {@link UserSecurityService}, and no password is verified. Every refresh token is
+ * single use: it is deleted as it is exchanged for a new one.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+  private static final int TOKEN_BYTES = 32;
+  private static final String INVALID_REFRESH_TOKEN = "Invalid or expired refresh token";
+
+  private final SecureRandom secureRandom = new SecureRandom();
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final UserSecurityService userSecurityService;
+  private final JwtTokenUtils jwtTokenUtils;
+  private final EntityManager entityManager;
+  private final Duration expiration;
+
+  public RefreshTokenService(final RefreshTokenRepository refreshTokenRepository,
+      final UserSecurityService userSecurityService, final JwtTokenUtils jwtTokenUtils,
+      final EntityManager entityManager,
+      @Value("${application.token.expiration.refresh-token:30d}") final Duration expiration) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.userSecurityService = userSecurityService;
+    this.jwtTokenUtils = jwtTokenUtils;
+    this.entityManager = entityManager;
+    this.expiration = expiration;
+  }
+
+  public String createRefreshToken(final int platformUserId) {
+    final byte[] bytes = new byte[TOKEN_BYTES];
+    secureRandom.nextBytes(bytes);
+    final String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    final Instant now = Instant.now();
+    refreshTokenRepository.save(new RefreshToken(0, hash(refreshToken),
+        entityManager.getReference(PlatformUser.class, platformUserId), now, now.plus(expiration)));
+    return refreshToken;
+  }
+
+  @Transactional
+  public GrabAuthenticationDTO refreshAuthenticationToken(final String refreshToken) {
+    final String tokenHash = hash(refreshToken);
+    final RefreshToken storedRefreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+        .filter(token -> token.getExpiryDate().isAfter(Instant.now()))
+        .orElseThrow(() -> new UnauthorizedException(INVALID_REFRESH_TOKEN));
+    // Only one of concurrent requests with the same token gets to delete it, the others are turned away
+    if (refreshTokenRepository.deleteByTokenHash(tokenHash) == 0) {
+      throw new UnauthorizedException(INVALID_REFRESH_TOKEN);
+    }
+    final PlatformUser platformUser = storedRefreshToken.getPlatformUser();
+    final UserDetails userDetails = userSecurityService.loadUserByUsername(platformUser.getEmail());
+    final GrabAuthenticationDTO grabAuthenticationDTO = new GrabAuthenticationDTO();
+    grabAuthenticationDTO.setJwt(jwtTokenUtils.generateToken(userDetails));
+    grabAuthenticationDTO.setRefreshToken(createRefreshToken(platformUser.getId()));
+    return grabAuthenticationDTO;
+  }
+
+  public void revokeRefreshToken(final String refreshToken) {
+    refreshTokenRepository.deleteByTokenHash(hash(refreshToken));
+  }
+
+  @Scheduled(fixedDelayString = "${application.token.expiration.refresh-token-cleanup-interval:PT1H}")
+  public void deleteExpiredRefreshTokens() {
+    final int deleted = refreshTokenRepository.deleteByExpiryDateBefore(Instant.now());
+    log.debug("Deleted {} expired refresh tokens", deleted);
+  }
+
+  private static String hash(final String refreshToken) {
+    return Hashing.sha256().hashString(refreshToken, StandardCharsets.UTF_8).toString();
+  }
+}
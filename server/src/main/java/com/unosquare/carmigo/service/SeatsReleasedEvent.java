@@ -0,0 +1,16 @@
+package com.unosquare.carmigo.service;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when bookings are removed along with the passenger or user holding them, with the journeys whose seats
+ * were released.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SeatsReleasedEvent {
+
+  private final List<Integer> journeyIds;
+}
@@ -0,0 +1,67 @@
+package com.unosquare.carmigo.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Strong ETag of a resource, derived from the @Version of its entity followed by whatever else the representation
+ * depends on, such as the version of another entity it embeds: "version.dependency...".<br>
+ * Conditional writes only compare the leading version, as that is what the UPDATE itself can check.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EntityTag {
+
+  private static final String ANY = "*";
+  private static final String WEAK_PREFIX = "W/";
+  private static final char SEPARATOR = '.';
+  // Versions start at 0, so an If-Match naming none of ours is turned into a version nothing has
+  private static final int NO_VERSION = -1;
+
+  private final int version;
+  private final String value;
+
+  public static EntityTag of(final int version, final Object... dependencies) {
+    final String tag = Arrays.stream(dependencies)
+        .map(dependency -> SEPARATOR + Objects.toString(dependency, ""))
+        .collect(Collectors.joining("", "\"" + version, "\""));
+    return new EntityTag(version, tag);
+  }
+
+  /**
+   * The versions an If-Match header accepts, empty when the header is absent or "*". Weak and unknown tags never
+   * match, as If-Match uses the strong comparison.
+   */
+  public static Optional<Set<Integer>> parseIfMatch(final String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+      return Optional.empty();
+    }
+    final Set<Integer> versions = new HashSet<>();
+    for (final String tag : ifMatch.split(",")) {
+      parseVersion(tag.trim()).ifPresent(versions::add);
+    }
+    return Optional.of(versions.isEmpty() ? Set.of(NO_VERSION) : versions);
+  }
+
+  private static Optional<Integer> parseVersion(final String tag) {
+    if (tag.startsWith(WEAK_PREFIX) || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+      return Optional.empty();
+    }
+    final String opaque = tag.substring(1, tag.length() - 1);
+    final int separatorIndex = opaque.indexOf(SEPARATOR);
+    try {
+      return Optional.of(Integer.parseInt(separatorIndex < 0 ? opaque : opaque.substring(0, separatorIndex)));
+    } catch (final NumberFormatException ex) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.unosquare.carmigo.util;
+
+public class GreatCircle {
+
+  /**
+   * Mean Earth radius (IUGG), in kilometres.
+   */
+  private static final double EARTH_RADIUS_KM = 6371.0088;
+
+  private GreatCircle() {}
+
+  /**
+   * Haversine distance between two points given in decimal degrees.
+   */
+  public static double distanceKm(final double latitudeFrom, final double longitudeFrom, final double latitudeTo,
+      final double longitudeTo) {
+    final double deltaLatitude = Math.toRadians(latitudeTo - latitudeFrom);
+    final double deltaLongitude = Math.toRadians(longitudeTo - longitudeFrom);
+    final double haversine = Math.pow(Math.sin(deltaLatitude / 2), 2)
+        + Math.cos(Math.toRadians(latitudeFrom)) * Math.cos(Math.toRadians(latitudeTo))
+        * Math.pow(Math.sin(deltaLongitude / 2), 2);
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(haversine)));
+  }
+}
@@ -0,0 +1,89 @@
+package com.unosquare.carmigo.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.unosquare.carmigo.exception.PatchException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles a JSON Patch against the {@link PatchableFields} of an entity into a {@link PartialUpdate}, so that
+ * patching no longer loads the entity, round-trips it through JSON trees and merges a detached copy back.<br><br>
+ *
+ * replace and add set a field, and test adds a condition the row must meet, checked by the same statement. Any
+ * other operation, a path outside the whitelist, a null or a value failing the field's constraints is rejected
+ * before anything reaches the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonPatchCompiler {
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  public PartialUpdate compile(final PatchableFields patchableFields, final JsonPatch patch) {
+    final Map<PatchableFields.Field, Object> assignments = new LinkedHashMap<>();
+    final Map<PatchableFields.Field, Object> conditions = new LinkedHashMap<>();
+    for (final JsonNode operation : objectMapper.<JsonNode>valueToTree(patch)) {
+      final String op = operation.path("op").asText();
+      final String path = operation.path("path").asText();
+      final PatchableFields.Field field = patchableFields.find(path)
+          .orElseThrow(() -> new PatchException(String.format("%s cannot be patched", path)));
+      switch (op) {
+        case "add":
+        case "replace":
+          assignments.put(field, readValue(patchableFields, field, operation.get("value")));
+          break;
+        case "test":
+          addCondition(assignments, conditions, field, readValue(patchableFields, field, operation.get("value")));
+          break;
+        default:
+          throw new PatchException(String.format("Operation %s is not supported on %s", op, path));
+      }
+    }
+    return new PartialUpdate(patchableFields.getEntityClass(), patchableFields.getVersionAttribute(), assignments,
+        conditions, null);
+  }
+
+  private static void addCondition(final Map<PatchableFields.Field, Object> assignments,
+      final Map<PatchableFields.Field, Object> conditions, final PatchableFields.Field field, final Object expected) {
+    // Operations apply in order, so a field set earlier in the patch is tested against the value it was set to
+    final Object known = assignments.containsKey(field) ? assignments.get(field) : conditions.get(field);
+    if (known == null) {
+      conditions.put(field, expected);
+    } else if (!Objects.equals(known, expected)) {
+      throw new PatchException(String.format("Test of %s failed", field.getPath()));
+    }
+  }
+
+  private Object readValue(final PatchableFields patchableFields, final PatchableFields.Field field,
+      final JsonNode node) {
+    if (node == null || node.isNull()) {
+      throw new PatchException(String.format("%s cannot be null", field.getPath()));
+    }
+    final Object value;
+    try {
+      value = objectMapper.treeToValue(node, field.getType());
+    } catch (final JsonProcessingException ex) {
+      throw new PatchException(String.format("%s is not a valid value for %s", node, field.getPath()));
+    }
+    final Class<?> constraintsClass = patchableFields.getConstraintsClass();
+    if (constraintsClass != null
+        && validator.getConstraintsForClass(constraintsClass).getConstraintsForProperty(field.getAttribute()) != null) {
+      final Set<? extends ConstraintViolation<?>> violations =
+          validator.validateValue(constraintsClass, field.getAttribute(), value);
+      if (!violations.isEmpty()) {
+        throw new PatchException(String.format("%s %s", field.getPath(), violations.iterator().next().getMessage()));
+      }
+    }
+    return value;
+  }
+}
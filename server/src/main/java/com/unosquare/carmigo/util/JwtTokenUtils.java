@@ -1,46 +1,111 @@
 package com.unosquare.carmigo.util;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.unosquare.carmigo.exception.ExpiredJwtException;
+import com.unosquare.carmigo.security.CustomUserDetails;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+/**
+ * Issues and verifies the JWTs used as bearer tokens.<br><br>
+ *
+ * A token is verified once: its claims are then kept in a bounded cache keyed by the SHA-256 of the token, so
+ * repeat requests with the same token skip the signature check and the parse. Entries never outlive the token
+ * lifetime, and a cached token past its expiration is evicted and rejected.<br><br>
+ *
+ * Tokens also carry the user id and access status, so that the user can be rebuilt without a query.
+ */
 @Service
 public class JwtTokenUtils {
 
-  @Value("${application.token.secret.key}")
-  private String key;
+  public static final String USER_ID_CLAIM = "uid";
+  public static final String ACCESS_STATUS_CLAIM = "status";
 
-  @Value("${application.token.expiration.in-hours}")
-  private int hours;
+  private final String key;
+  private final Duration expiration;
+  private final Cache<String, Claims> claimsCache;
+
+  public JwtTokenUtils(@Value("${application.token.secret.key}") final String key,
+      @Value("${application.token.expiration.access-token:15m}") final Duration expiration,
+      @Value("${application.token.claims-cache.maximum-size:10000}") final long maximumSize,
+      final MeterRegistry meterRegistry) {
+    this.key = key;
+    this.expiration = expiration;
+    this.claimsCache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expiration)
+        .recordStats()
+        .build();
+    GuavaCacheMetrics.monitor(meterRegistry, claimsCache, "jwt-claims");
+  }
 
   public String generateToken(final UserDetails userDetails) {
     final Map<String, Object> claims = new HashMap<>();
+    if (userDetails instanceof CustomUserDetails) {
+      claims.put(USER_ID_CLAIM, ((CustomUserDetails) userDetails).getId());
+      userDetails.getAuthorities().stream().findFirst()
+          .ifPresent(authority -> claims.put(ACCESS_STATUS_CLAIM, authority.getAuthority()));
+    }
     return createToken(claims, userDetails.getUsername());
   }
 
+  /**
+   * Verified, unexpired claims of the token.
+   *
+   * @throws ExpiredJwtException when the token has expired.
+   * @throws io.jsonwebtoken.JwtException when the token is malformed or its signature does not match.
+   */
+  public Claims parseClaims(final String token) {
+    final String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    final Claims claims;
+    try {
+      claims = claimsCache.get(tokenHash, () -> extractAllClaims(token));
+    } catch (final ExecutionException | UncheckedExecutionException | ExecutionError ex) {
+      Throwables.throwIfUnchecked(ex.getCause());
+      throw new IllegalStateException(ex.getCause());
+    }
+    if (isExpired(claims)) {
+      claimsCache.invalidate(tokenHash);
+      throw new ExpiredJwtException("Expired JWT token");
+    }
+    return claims;
+  }
+
+  public Boolean validateClaims(final Claims claims, final UserDetails userDetails) {
+    return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
+  }
+
   public Boolean validateToken(final String token, final UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    return validateClaims(parseClaims(token), userDetails);
   }
 
   private String createToken(final Map<String, Object> claims, final String subject) {
     final Date now = Date.from(Instant.now());
-    final Date inSuchHours = Date.from(now.toInstant().plus(Duration.ofHours(hours)));
+    final Date expiresAt = Date.from(now.toInstant().plus(expiration));
     return Jwts.builder()
         .setClaims(claims)
         .setSubject(subject)
         .setIssuedAt(now)
-        .setExpiration(inSuchHours)
+        .setExpiration(expiresAt)
         .signWith(SignatureAlgorithm.HS256, key)
         .compact();
   }
@@ -54,7 +119,7 @@ public class JwtTokenUtils {
   }
 
   public <R> R extractClaim(final String token, final Function<Claims, R> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
+    final Claims claims = parseClaims(token);
     return claimsResolver.apply(claims);
   }
 
@@ -66,7 +131,7 @@ public class JwtTokenUtils {
     }
   }
 
-  private Boolean isTokenExpired(final String token) {
-    return extractExpiration(token).before(Date.from(Instant.now()));
+  private static boolean isExpired(final Claims claims) {
+    return claims.getExpiration().before(Date.from(Instant.now()));
   }
 }
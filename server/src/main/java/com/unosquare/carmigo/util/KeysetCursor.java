@@ -0,0 +1,48 @@
+package com.unosquare.carmigo.util;
+
+import com.unosquare.carmigo.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Position of the last journey returned by a search, ordered by (dateTime, id).<br>
+ * Travels to the client as an opaque continuation token so the next page resumes right after it.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeysetCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final Instant dateTime;
+  private final int id;
+
+  public static KeysetCursor first(final Instant dateTimeFrom) {
+    return new KeysetCursor(dateTimeFrom, 0);
+  }
+
+  public static KeysetCursor after(final Instant dateTime, final int id) {
+    return new KeysetCursor(dateTime, id);
+  }
+
+  public static KeysetCursor decode(final String token) {
+    try {
+      final String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      final int separatorIndex = decoded.indexOf(SEPARATOR);
+      return new KeysetCursor(Instant.parse(decoded.substring(0, separatorIndex)),
+          Integer.parseInt(decoded.substring(separatorIndex + 1)));
+    } catch (final IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+      throw new BadRequestException(String.format("Invalid continuation token %s", token));
+    }
+  }
+
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((dateTime + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,108 @@
+package com.unosquare.carmigo.util;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A JSON Patch compiled by {@link JsonPatchCompiler}: the attributes it sets and the values the row must hold for
+ * it to apply, run as a single statement.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class PartialUpdate {
+
+  private final Class<?> entityClass;
+  private final String versionAttribute;
+  private final Map<PatchableFields.Field, Object> assignments;
+  private final Map<PatchableFields.Field, Object> conditions;
+  // The versions an If-Match accepts, null when the patch is not conditional
+  private final Set<Integer> expectedVersions;
+
+  public boolean isEmpty() {
+    return assignments.isEmpty() && conditions.isEmpty() && expectedVersions == null;
+  }
+
+  public boolean hasAssignments() {
+    return !assignments.isEmpty();
+  }
+
+  public Optional<Object> findAssignedValue(final String attribute) {
+    return assignments.entrySet().stream()
+        .filter(assignment -> assignment.getKey().getAttribute().equals(attribute))
+        .map(Map.Entry::getValue)
+        .findFirst();
+  }
+
+  /**
+   * The same patch, only applied while the version of the row is one the If-Match header accepts.
+   */
+  public PartialUpdate ifMatch(final String ifMatch) {
+    if (versionAttribute == null) {
+      throw new IllegalStateException(String.format("%s is not versioned", entityClass.getSimpleName()));
+    }
+    return EntityTag.parseIfMatch(ifMatch)
+        .map(versions -> new PartialUpdate(entityClass, versionAttribute, assignments, conditions, versions))
+        .orElse(this);
+  }
+
+  /**
+   * Tells a patch that matched no row because of its If-Match apart from one whose test operations failed.
+   */
+  public boolean matchesVersion(final int version) {
+    return expectedVersions == null || expectedVersions.contains(version);
+  }
+
+  /**
+   * Runs the patch as one JPQL bulk UPDATE of the entity with the given id, or as a count when it only has test
+   * operations or an If-Match. The UPDATE increments the version of versioned entities.
+   *
+   * @return the number of rows matched, 0 when there is no entity with this id or a precondition failed
+   */
+  public int execute(final EntityManager entityManager, final int id) {
+    final String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+    final StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").add("e.id = :id");
+    conditions.keySet().forEach(field -> where.add(String.format("e.%s = :%s", field.getConditionPath(),
+        parameterName("test", field))));
+    if (expectedVersions != null) {
+      where.add(String.format("e.%s IN :versions", versionAttribute));
+    }
+    if (assignments.isEmpty()) {
+      final Query query = entityManager.createQuery(String.format("SELECT COUNT(e) FROM %s e%s", entityName, where));
+      setParameters(query, entityManager, id);
+      return ((Number) query.getSingleResult()).intValue();
+    }
+    final StringJoiner set = new StringJoiner(", ", " SET ", "");
+    assignments.keySet().forEach(field -> set.add(String.format("e.%s = :%s", field.getAttribute(),
+        parameterName("set", field))));
+    if (versionAttribute != null) {
+      set.add(String.format("e.%1$s = e.%1$s + 1", versionAttribute));
+    }
+    final Query query = entityManager.createQuery(String.format("UPDATE %s e%s%s", entityName, set, where));
+    setParameters(query, entityManager, id);
+    final int updated = query.executeUpdate();
+    if (updated > 0) {
+      // The update bypasses the persistence context, so a copy loaded earlier in this session is stale
+      entityManager.detach(entityManager.getReference(entityClass, id));
+    }
+    return updated;
+  }
+
+  private void setParameters(final Query query, final EntityManager entityManager, final int id) {
+    query.setParameter("id", id);
+    if (expectedVersions != null) {
+      query.setParameter("versions", expectedVersions);
+    }
+    conditions.forEach((field, value) -> query.setParameter(parameterName("test", field), value));
+    assignments.forEach((field, value) -> query.setParameter(parameterName("set", field),
+        field.getReferenceClass() == null ? value : entityManager.getReference(field.getReferenceClass(), value)));
+  }
+
+  private static String parameterName(final String prefix, final PatchableFields.Field field) {
+    return prefix + "_" + field.getAttribute();
+  }
+}
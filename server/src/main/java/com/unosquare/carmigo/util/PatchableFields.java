@@ -0,0 +1,83 @@
+package com.unosquare.carmigo.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Whitelist of the fields of an entity a JSON Patch may change, keyed by their JSON pointer in the entity's DTO.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PatchableFields {
+
+  @Getter private final Class<?> entityClass;
+  @Getter private final Class<?> constraintsClass;
+  @Getter private final String versionAttribute;
+  private final Map<String, Field> fieldsByPath;
+
+  public static Builder forEntity(final Class<?> entityClass) {
+    return new Builder(entityClass);
+  }
+
+  Optional<Field> find(final String path) {
+    return Optional.ofNullable(fieldsByPath.get(path));
+  }
+
+  @Getter
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  static final class Field {
+
+    private final String path;
+    private final String attribute;
+    private final Class<?> type;
+    // The entity a many-to-one attribute points at, the patched value being its id; null for basic attributes
+    private final Class<?> referenceClass;
+
+    String getConditionPath() {
+      return referenceClass == null ? attribute : attribute + ".id";
+    }
+  }
+
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  public static final class Builder {
+
+    private final Class<?> entityClass;
+    private final Map<String, Field> fieldsByPath = new LinkedHashMap<>();
+    private Class<?> constraintsClass;
+    private String versionAttribute;
+
+    public Builder field(final String path, final String attribute, final Class<?> type) {
+      fieldsByPath.put(path, new Field(path, attribute, type, null));
+      return this;
+    }
+
+    public Builder reference(final String path, final String attribute, final Class<?> referenceClass) {
+      fieldsByPath.put(path, new Field(path, attribute, Integer.class, referenceClass));
+      return this;
+    }
+
+    /**
+     * Values must also meet the Bean Validation constraints the given class declares on properties of the same name,
+     * usually those of the request creating the entity.
+     */
+    public Builder constrainedBy(final Class<?> constraintsClass) {
+      this.constraintsClass = constraintsClass;
+      return this;
+    }
+
+    /**
+     * The @Version attribute of the entity, incremented by every patch that sets a field.
+     */
+    public Builder versioned(final String versionAttribute) {
+      this.versionAttribute = versionAttribute;
+      return this;
+    }
+
+    public PatchableFields build() {
+      return new PatchableFields(entityClass, constraintsClass, versionAttribute, Map.copyOf(fieldsByPath));
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.unosquare.carmigo.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A value along with the {@link EntityTag} read in the same transaction, never after it, so the tag a client is
+ * given can only be older than what it describes.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class Tagged<T> {
+
+  private final T value;
+  private final EntityTag entityTag;
+}
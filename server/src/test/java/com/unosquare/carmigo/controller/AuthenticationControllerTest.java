@@ -1,19 +1,21 @@
 package com.unosquare.carmigo.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.unosquare.carmigo.mapper.AuthenticationMapper;
 import com.unosquare.carmigo.service.PlatformUserService;
+import com.unosquare.carmigo.service.RefreshTokenService;
 import com.unosquare.carmigo.util.ResourceUtility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -26,16 +28,21 @@ public class AuthenticationControllerTest {
       ResourceUtility.generateStringFromResource("requestJson/PostAuthenticationValid.json");
   private static final String POST_AUTHENTICATION_INVALID_JSON =
       ResourceUtility.generateStringFromResource("requestJson/PostAuthenticationInvalid.json");
+  private static final String POST_REFRESH_TOKEN_VALID_JSON =
+      ResourceUtility.generateStringFromResource("requestJson/PostRefreshTokenValid.json");
+  private static final String POST_REFRESH_TOKEN_INVALID_JSON =
+      ResourceUtility.generateStringFromResource("requestJson/PostRefreshTokenInvalid.json");
 
   private MockMvc mockMvc;
 
-  @Mock private ModelMapper modelMapperMock;
+  @Mock private AuthenticationMapper authenticationMapperMock;
   @Mock private PlatformUserService platformUserServiceMock;
+  @Mock private RefreshTokenService refreshTokenServiceMock;
 
   @BeforeEach
   public void setUp() {
     mockMvc = MockMvcBuilders.standaloneSetup(
-            new AuthenticationController(modelMapperMock, platformUserServiceMock))
+            new AuthenticationController(authenticationMapperMock, platformUserServiceMock, refreshTokenServiceMock))
         .build();
   }
 
@@ -54,4 +61,28 @@ public class AuthenticationControllerTest {
         .andExpect(status().isBadRequest());
     verify(platformUserServiceMock, times(0)).createAuthenticationToken(any());
   }
+
+  @Test
+  public void post_Refresh_Authentication_Token_Returns_HttpStatus_Created() throws Exception {
+    mockMvc.perform(post(API_ENDPOINT + "/refresh")
+            .contentType(MediaType.APPLICATION_JSON_VALUE).content(POST_REFRESH_TOKEN_VALID_JSON))
+        .andExpect(status().isCreated());
+    verify(refreshTokenServiceMock).refreshAuthenticationToken(anyString());
+  }
+
+  @Test
+  public void post_Refresh_Authentication_Token_Returns_HttpStatus_BadRequest() throws Exception {
+    mockMvc.perform(post(API_ENDPOINT + "/refresh")
+            .contentType(MediaType.APPLICATION_JSON_VALUE).content(POST_REFRESH_TOKEN_INVALID_JSON))
+        .andExpect(status().isBadRequest());
+    verify(refreshTokenServiceMock, times(0)).refreshAuthenticationToken(anyString());
+  }
+
+  @Test
+  public void post_Logout_Returns_HttpStatus_No_Content() throws Exception {
+    mockMvc.perform(post("/v1/logout")
+            .contentType(MediaType.APPLICATION_JSON_VALUE).content(POST_REFRESH_TOKEN_VALID_JSON))
+        .andExpect(status().isNoContent());
+    verify(refreshTokenServiceMock).revokeRefreshToken(anyString());
+  }
 }
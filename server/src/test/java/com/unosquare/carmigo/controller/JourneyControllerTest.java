@@ -1,7 +1,9 @@
 package com.unosquare.carmigo.controller;
 
+import static com.unosquare.carmigo.constant.AppConstants.CONTINUATION_TOKEN_HEADER;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -10,24 +12,35 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flextrade.jfixture.FixtureAnnotations;
 import com.flextrade.jfixture.JFixture;
 import com.flextrade.jfixture.annotations.Fixture;
 import com.github.fge.jsonpatch.JsonPatch;
+import com.unosquare.carmigo.configuration.MapperConfiguration;
+import com.unosquare.carmigo.dto.GrabJourneyBatchItemDTO;
 import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.dto.GrabJourneyPageDTO;
+import com.unosquare.carmigo.mapper.DistanceMapper;
+import com.unosquare.carmigo.mapper.JourneyMapper;
 import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
 import com.unosquare.carmigo.model.response.JourneyDriverViewModel;
 import com.unosquare.carmigo.service.JourneyService;
+import com.unosquare.carmigo.util.EntityTag;
 import com.unosquare.carmigo.util.ResourceUtility;
+import com.unosquare.carmigo.util.Tagged;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -36,23 +49,33 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 public class JourneyControllerTest {
 
   private static final String API_LEADING = "/v1/journeys/";
+  private static final EntityTag ENTITY_TAG = EntityTag.of(3, 7, 0L);
   private static final String POST_JOURNEY_VALID_JSON =
       ResourceUtility.generateStringFromResource("requestJson/PostJourneyValid.json");
   private static final String POST_JOURNEY_INVALID_JSON =
       ResourceUtility.generateStringFromResource("requestJson/PostJourneyInvalid.json");
+  private static final String POST_JOURNEY_BATCH_VALID_JSON =
+      ResourceUtility.generateStringFromResource("requestJson/PostJourneyBatchValid.json");
   private static final String PATCH_JOURNEY_VALID_JSON =
       ResourceUtility.generateStringFromResource("requestJson/PatchJourneyValid.json");
   private static final String PATCH_JOURNEY_INVALID_JSON =
       ResourceUtility.generateStringFromResource("requestJson/PatchJourneyInvalid.json");
+  private static final String POST_DISTANCE_MATRIX_VALID_JSON =
+      ResourceUtility.generateStringFromResource("requestJson/PostDistanceMatrixValid.json");
+  private static final String POST_DISTANCE_MATRIX_INVALID_JSON =
+      ResourceUtility.generateStringFromResource("requestJson/PostDistanceMatrixInvalid.json");
 
+  private final ObjectMapper objectMapper = new MapperConfiguration().objectMapper();
   private MockMvc mockMvc;
 
-  @Mock private ModelMapper modelMapperMock;
+  @Mock private JourneyMapper journeyMapperMock;
+  @Mock private DistanceMapper distanceMapperMock;
   @Mock private JourneyService journeyServiceMock;
 
   @Fixture private GrabJourneyDTO grabJourneyDTOFixture;
   @Fixture private JourneyDriverViewModel journeyViewModelFixture;
   @Fixture private List<GrabJourneyDTO> grabJourneyDTOList;
+  @Fixture private GrabJourneyPageDTO grabJourneyPageDTOFixture;
 
   @BeforeEach
   public void setUp() throws Exception {
@@ -60,20 +83,34 @@ public class JourneyControllerTest {
     jFixture.customise().circularDependencyBehaviour().omitSpecimen();
     FixtureAnnotations.initFixtures(this, jFixture);
 
-    mockMvc = MockMvcBuilders.standaloneSetup(new JourneyController(modelMapperMock, journeyServiceMock)).build();
+    mockMvc = MockMvcBuilders.standaloneSetup(
+        new JourneyController(journeyMapperMock, distanceMapperMock, journeyServiceMock, objectMapper)).build();
   }
 
   @Test
   public void get_Journey_By_Id_Returns_HttpStatus_Ok() throws Exception {
+    when(journeyServiceMock.getJourneyEntityTag(anyInt())).thenReturn(ENTITY_TAG);
     when(journeyServiceMock.getJourneyById(anyInt())).thenReturn(grabJourneyDTOFixture);
-    when(modelMapperMock.map(grabJourneyDTOFixture, JourneyDriverViewModel.class)).thenReturn(journeyViewModelFixture);
+    when(journeyMapperMock.toJourneyDriverViewModel(grabJourneyDTOFixture)).thenReturn(journeyViewModelFixture);
 
     mockMvc.perform(get(API_LEADING + anyInt())
             .contentType(MediaType.APPLICATION_JSON_VALUE))
-        .andExpect(status().isOk());
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, ENTITY_TAG.getValue()));
     verify(journeyServiceMock).getJourneyById(anyInt());
   }
 
+  @Test
+  public void get_Journey_By_Id_Returns_HttpStatus_Not_Modified_Without_Loading_Journey() throws Exception {
+    when(journeyServiceMock.getJourneyEntityTag(anyInt())).thenReturn(ENTITY_TAG);
+
+    mockMvc.perform(get(API_LEADING + "1")
+            .header(HttpHeaders.IF_NONE_MATCH, ENTITY_TAG.getValue()))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, ENTITY_TAG.getValue()));
+    verify(journeyServiceMock, times(0)).getJourneyById(anyInt());
+  }
+
   @Test
   public void get_Journey_By_Id_Returns_HttpStatus_MethodNotAllowed() throws Exception {
     mockMvc.perform(get(API_LEADING)
@@ -84,16 +121,31 @@ public class JourneyControllerTest {
 
   @Test
   public void search_Journeys_Returns_HttpStatus_Ok() throws Exception {
+    when(journeyServiceMock.searchJourneys(any())).thenReturn(grabJourneyPageDTOFixture);
+
     mockMvc.perform(get(API_LEADING + "/search")
             .contentType(MediaType.APPLICATION_JSON_VALUE)
             .param("locationIdFrom", "1")
             .param("locationIdTo", "2")
             .param("dateTimeFrom", "2022-12-01T09:00:00Z")
             .param("dateTimeTo", "2023-12-01T09:00:00Z"))
-        .andExpect(status().isOk());
+        .andExpect(status().isOk())
+        .andExpect(header().string(CONTINUATION_TOKEN_HEADER, grabJourneyPageDTOFixture.getContinuationToken()));
     verify(journeyServiceMock).searchJourneys(any());
   }
 
+  @Test
+  public void search_Journeys_Stream_Returns_HttpStatus_Ok() throws Exception {
+    mockMvc.perform(get(API_LEADING + "/search/stream")
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .param("locationIdFrom", "1")
+            .param("locationIdTo", "2")
+            .param("dateTimeFrom", "2022-12-01T09:00:00Z")
+            .param("dateTimeTo", "2023-12-01T09:00:00Z"))
+        .andExpect(request().asyncStarted())
+        .andExpect(status().isOk());
+  }
+
   @Test
   public void search_Journeys_Returns_HttpStatus_BadRequest() throws Exception {
     mockMvc.perform(get(API_LEADING + "/search")
@@ -154,13 +206,42 @@ public class JourneyControllerTest {
     verify(journeyServiceMock, times(0)).createJourney(any());
   }
 
+  @Test
+  public void post_Journeys_Batch_Returns_HttpStatus_Created_When_All_Are_Created() throws Exception {
+    when(journeyServiceMock.createJourneys(any()))
+        .thenReturn(List.of(GrabJourneyBatchItemDTO.created(0, 11), GrabJourneyBatchItemDTO.created(1, 12)));
+
+    mockMvc.perform(post(API_LEADING + "batch")
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .content(POST_JOURNEY_BATCH_VALID_JSON))
+        .andExpect(status().isCreated());
+    verify(journeyMapperMock).toCreateJourneyDTOs(any());
+    verify(journeyServiceMock).createJourneys(any());
+  }
+
+  @Test
+  public void post_Journeys_Batch_Returns_HttpStatus_MultiStatus_When_Some_Are_Rejected() throws Exception {
+    when(journeyServiceMock.createJourneys(any())).thenReturn(List.of(GrabJourneyBatchItemDTO.created(0, 11),
+        GrabJourneyBatchItemDTO.rejected(1, HttpStatus.NOT_FOUND, "Driver id 2 not found.")));
+
+    mockMvc.perform(post(API_LEADING + "batch")
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .content(POST_JOURNEY_BATCH_VALID_JSON))
+        .andExpect(status().isMultiStatus());
+  }
+
   @Test
   public void patch_Journey_Returns_HttpStatus_Ok() throws Exception {
+    when(journeyServiceMock.patchJourney(anyInt(), any(JsonPatch.class), any()))
+        .thenReturn(new Tagged<>(grabJourneyDTOFixture, ENTITY_TAG));
+
     mockMvc.perform(patch(API_LEADING + "1")
             .contentType("application/json-patch+json")
+            .header(HttpHeaders.IF_MATCH, "\"2.7.0\"")
             .content(PATCH_JOURNEY_VALID_JSON))
-        .andExpect(status().isOk());
-    verify(journeyServiceMock).patchJourney(anyInt(), any(JsonPatch.class));
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, ENTITY_TAG.getValue()));
+    verify(journeyServiceMock).patchJourney(anyInt(), any(JsonPatch.class), eq("\"2.7.0\""));
   }
 
   @Test
@@ -169,7 +250,7 @@ public class JourneyControllerTest {
             .contentType("application/json-patch+json")
             .content(PATCH_JOURNEY_INVALID_JSON))
         .andExpect(status().isBadRequest());
-    verify(journeyServiceMock, times(0)).patchJourney(anyInt(), any(JsonPatch.class));
+    verify(journeyServiceMock, times(0)).patchJourney(anyInt(), any(JsonPatch.class), any());
   }
 
   @Test
@@ -180,6 +261,13 @@ public class JourneyControllerTest {
     verify(journeyServiceMock).deleteJourneyById(anyInt());
   }
 
+  @Test
+  public void post_PassengerJourney_Returns_HttpStatus_Created() throws Exception {
+    mockMvc.perform(post(API_LEADING + "1/passengers/2"))
+        .andExpect(status().isCreated());
+    verify(journeyServiceMock).bookSeat(1, 2);
+  }
+
   @Test
   public void delete_PassengerJourney_Returns_HttpStatus_No_Content() throws Exception {
     doNothing().when(journeyServiceMock).deleteByJourneyIdAndPassengerId(anyInt(), anyInt());
@@ -209,4 +297,22 @@ public class JourneyControllerTest {
         .andExpect(status().isBadRequest());
     verify(journeyServiceMock, times(0)).calculateDistance(any(CreateCalculateDistanceCriteria.class));
   }
+
+  @Test
+  public void calculate_Distance_Matrix_Returns_HttpStatus_Ok() throws Exception {
+    mockMvc.perform(post(API_LEADING + "/distanceMatrix")
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .content(POST_DISTANCE_MATRIX_VALID_JSON))
+        .andExpect(status().isOk());
+    verify(journeyServiceMock).calculateDistanceMatrix(any());
+  }
+
+  @Test
+  public void calculate_Distance_Matrix_Returns_HttpStatus_BadRequest() throws Exception {
+    mockMvc.perform(post(API_LEADING + "/distanceMatrix")
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .content(POST_DISTANCE_MATRIX_INVALID_JSON))
+        .andExpect(status().isBadRequest());
+    verify(journeyServiceMock, times(0)).calculateDistanceMatrix(any());
+  }
 }
@@ -0,0 +1,165 @@
+package com.unosquare.carmigo.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flextrade.jfixture.FixtureAnnotations;
+import com.flextrade.jfixture.JFixture;
+import com.flextrade.jfixture.annotations.Fixture;
+import com.unosquare.carmigo.dto.CreateAuthenticationDTO;
+import com.unosquare.carmigo.dto.CreateDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.CreateDriverDTO;
+import com.unosquare.carmigo.dto.CreateJourneyDTO;
+import com.unosquare.carmigo.dto.CreatePlatformUserDTO;
+import com.unosquare.carmigo.dto.GrabAuthenticationDTO;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.GrabDriverDTO;
+import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.dto.GrabPassengerDTO;
+import com.unosquare.carmigo.dto.GrabPlatformUserDTO;
+import com.unosquare.carmigo.entity.Driver;
+import com.unosquare.carmigo.entity.Journey;
+import com.unosquare.carmigo.entity.Passenger;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.model.request.CreateAuthenticationViewModel;
+import com.unosquare.carmigo.model.request.CreateDistanceMatrixViewModel;
+import com.unosquare.carmigo.model.request.CreateDriverViewModel;
+import com.unosquare.carmigo.model.request.CreateJourneyViewModel;
+import com.unosquare.carmigo.model.request.CreatePlatformUserViewModel;
+import com.unosquare.carmigo.model.response.AuthenticationViewModel;
+import com.unosquare.carmigo.model.response.DistanceMatrixViewModel;
+import com.unosquare.carmigo.model.response.DistanceViewModel;
+import com.unosquare.carmigo.model.response.DriverViewModel;
+import com.unosquare.carmigo.model.response.JourneyDriverViewModel;
+import com.unosquare.carmigo.model.response.JourneyPassengerViewModel;
+import com.unosquare.carmigo.model.response.PassengerViewModel;
+import com.unosquare.carmigo.model.response.PlatformUserViewModel;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * Checks the generated mappers produce the same objects as ModelMapper, configured as it was when the application
+ * used it, for every mapping the application makes, including sources with null properties.
+ */
+@SpringJUnitConfig(MapperTestConfiguration.class)
+public class MapperParityTest {
+
+  private final ModelMapper modelMapper = legacyModelMapper();
+
+  @Autowired private PlatformUserMapper platformUserMapper;
+  @Autowired private DriverMapper driverMapper;
+  @Autowired private PassengerMapper passengerMapper;
+  @Autowired private JourneyMapper journeyMapper;
+  @Autowired private DistanceMapper distanceMapper;
+  @Autowired private AuthenticationMapper authenticationMapper;
+
+  @Fixture private PlatformUser platformUserFixture;
+  @Fixture private CreatePlatformUserDTO createPlatformUserDTOFixture;
+  @Fixture private CreatePlatformUserViewModel createPlatformUserViewModelFixture;
+  @Fixture private GrabPlatformUserDTO grabPlatformUserDTOFixture;
+  @Fixture private Driver driverFixture;
+  @Fixture private CreateDriverDTO createDriverDTOFixture;
+  @Fixture private CreateDriverViewModel createDriverViewModelFixture;
+  @Fixture private GrabDriverDTO grabDriverDTOFixture;
+  @Fixture private Passenger passengerFixture;
+  @Fixture private GrabPassengerDTO grabPassengerDTOFixture;
+  @Fixture private Journey journeyFixture;
+  @Fixture private CreateJourneyDTO createJourneyDTOFixture;
+  @Fixture private CreateJourneyViewModel createJourneyViewModelFixture;
+  @Fixture private GrabJourneyDTO grabJourneyDTOFixture;
+  @Fixture private GrabDistanceDTO grabDistanceDTOFixture;
+  @Fixture private GrabDistanceMatrixDTO grabDistanceMatrixDTOFixture;
+  @Fixture private CreateDistanceMatrixViewModel createDistanceMatrixViewModelFixture;
+  @Fixture private CreateAuthenticationViewModel createAuthenticationViewModelFixture;
+  @Fixture private GrabAuthenticationDTO grabAuthenticationDTOFixture;
+
+  @BeforeEach
+  public void setUp() {
+    final JFixture jFixture = new JFixture();
+    jFixture.customise().circularDependencyBehaviour().omitSpecimen();
+    FixtureAnnotations.initFixtures(this, jFixture);
+  }
+
+  @Test
+  public void platform_User_Mappings_Match_ModelMapper() {
+    assertParity(platformUserFixture, platformUserMapper::toGrabPlatformUserDTO, GrabPlatformUserDTO.class);
+    assertParity(createPlatformUserDTOFixture, platformUserMapper::toPlatformUser, PlatformUser.class);
+    assertParity(createPlatformUserViewModelFixture, platformUserMapper::toCreatePlatformUserDTO,
+        CreatePlatformUserDTO.class);
+    assertParity(grabPlatformUserDTOFixture, platformUserMapper::toPlatformUserViewModel,
+        PlatformUserViewModel.class);
+  }
+
+  @Test
+  public void driver_And_Passenger_Mappings_Match_ModelMapper() {
+    assertParity(driverFixture, driverMapper::toGrabDriverDTO, GrabDriverDTO.class);
+    assertParity(createDriverDTOFixture, driverMapper::toDriver, Driver.class);
+    assertParity(createDriverViewModelFixture, driverMapper::toCreateDriverDTO, CreateDriverDTO.class);
+    assertParity(grabDriverDTOFixture, driverMapper::toDriverViewModel, DriverViewModel.class);
+    assertParity(passengerFixture, passengerMapper::toGrabPassengerDTO, GrabPassengerDTO.class);
+    assertParity(grabPassengerDTOFixture, passengerMapper::toPassengerViewModel, PassengerViewModel.class);
+  }
+
+  @Test
+  public void journey_Mappings_Match_ModelMapper() {
+    assertParity(journeyFixture, journeyMapper::toGrabJourneyDTO, GrabJourneyDTO.class);
+    // ModelMapper also matched driverId to driver.id; the service replaces the driver with a reference either way
+    assertThat(journeyMapper.toJourney(createJourneyDTOFixture)).usingRecursiveComparison().ignoringFields("driver")
+        .isEqualTo(modelMapper.map(createJourneyDTOFixture, Journey.class));
+    assertParity(createJourneyViewModelFixture, journeyMapper::toCreateJourneyDTO, CreateJourneyDTO.class);
+    assertParity(grabJourneyDTOFixture, journeyMapper::toJourneyDriverViewModel, JourneyDriverViewModel.class);
+    assertParity(grabJourneyDTOFixture, journeyMapper::toJourneyPassengerViewModel,
+        JourneyPassengerViewModel.class);
+  }
+
+  @Test
+  public void distance_And_Authentication_Mappings_Match_ModelMapper() {
+    assertParity(grabDistanceDTOFixture, distanceMapper::toDistanceViewModel, DistanceViewModel.class);
+    assertParity(grabDistanceMatrixDTOFixture, distanceMapper::toDistanceMatrixViewModel,
+        DistanceMatrixViewModel.class);
+    assertParity(createDistanceMatrixViewModelFixture, distanceMapper::toCreateDistanceMatrixDTO,
+        CreateDistanceMatrixDTO.class);
+    assertParity(createAuthenticationViewModelFixture, authenticationMapper::toCreateAuthenticationDTO,
+        CreateAuthenticationDTO.class);
+    assertParity(grabAuthenticationDTOFixture, authenticationMapper::toAuthenticationViewModel,
+        AuthenticationViewModel.class);
+  }
+
+  @Test
+  public void null_Properties_Are_Skipped_As_ModelMapper_Did() {
+    journeyFixture.setDriver(null);
+    journeyFixture.setCreatedDate(null);
+    journeyFixture.getLocationFrom().setDescription(null);
+    grabJourneyDTOFixture.setDistance(null);
+    grabJourneyDTOFixture.getDriver().setPlatformUser(null);
+    grabPlatformUserDTOFixture.setUserAccessStatus(null);
+    grabPlatformUserDTOFixture.setPhoneNumber(null);
+    createPlatformUserDTOFixture.setDob(null);
+
+    assertParity(journeyFixture, journeyMapper::toGrabJourneyDTO, GrabJourneyDTO.class);
+    assertParity(grabJourneyDTOFixture, journeyMapper::toJourneyDriverViewModel, JourneyDriverViewModel.class);
+    assertParity(grabPlatformUserDTOFixture, platformUserMapper::toPlatformUserViewModel,
+        PlatformUserViewModel.class);
+    assertParity(createPlatformUserDTOFixture, platformUserMapper::toPlatformUser, PlatformUser.class);
+    assertThat(journeyMapper.toGrabJourneyDTO(journeyFixture).getDriver()).isNull();
+  }
+
+  private <S, T> void assertParity(final S source, final Function<S, T> generatedMapping, final Class<T> type) {
+    assertThat(generatedMapping.apply(source)).usingRecursiveComparison().isEqualTo(modelMapper.map(source, type));
+  }
+
+  private static ModelMapper legacyModelMapper() {
+    final ModelMapper mapper = new ModelMapper();
+    mapper.getConfiguration()
+        .setAmbiguityIgnored(true)
+        .setMatchingStrategy(MatchingStrategies.STRICT)
+        .setPropertyCondition(Conditions.isNotNull());
+    return mapper;
+  }
+}
@@ -0,0 +1,12 @@
+package com.unosquare.carmigo.mapper;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * Registers the generated mappers, wired to each other, for tests that do not start the whole application.
+ */
+@TestConfiguration
+@ComponentScan(basePackageClasses = MappingConfig.class)
+public class MapperTestConfiguration {
+}
@@ -0,0 +1,35 @@
+package com.unosquare.carmigo.repository;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs repository tests against a throwaway PostgreSQL migrated with the same Flyway scripts as docker-compose.<br>
+ * The container is started once and shared by every subclass, as is the cached Spring context pointing at it.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.locations=filesystem:../migrations/base",
+    "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class AbstractRepositoryTest {
+
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14.2-bullseye");
+
+  static {
+    POSTGRES.start();
+  }
+
+  @DynamicPropertySource
+  static void postgresProperties(final DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+  }
+}
@@ -0,0 +1,265 @@
+package com.unosquare.carmigo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.unosquare.carmigo.configuration.MapperConfiguration;
+import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.entity.Driver;
+import com.unosquare.carmigo.entity.Journey;
+import com.unosquare.carmigo.entity.Location;
+import com.unosquare.carmigo.entity.LocationDistance;
+import com.unosquare.carmigo.entity.LocationDistanceId;
+import com.unosquare.carmigo.entity.Passenger;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.UserAccessStatus;
+import com.unosquare.carmigo.mapper.JourneyMapper;
+import com.unosquare.carmigo.mapper.MapperTestConfiguration;
+import com.unosquare.carmigo.repository.projection.JourneyDriverProjection;
+import com.unosquare.carmigo.repository.projection.JourneyVersionProjection;
+import com.unosquare.carmigo.util.JsonPatchCompiler;
+import com.unosquare.carmigo.util.PartialUpdate;
+import com.unosquare.carmigo.util.PatchUtility;
+import com.unosquare.carmigo.util.PatchableFields;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.validation.Validation;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+@Import(MapperTestConfiguration.class)
+public class JourneyRepositoryTest extends AbstractRepositoryTest {
+
+  private static final int ACTIVE_STATUS_ID = 2;
+  private static final int LOCATION_ID_FROM = 1;
+  private static final int LOCATION_ID_TO = 2;
+  private static final Instant DEPARTURE = Instant.parse("2030-01-01T09:00:00Z");
+
+  @Autowired private TestEntityManager testEntityManager;
+  @Autowired private JourneyMapper journeyMapper;
+  @Autowired private JourneyRepository journeyRepository;
+  @Autowired private PassengerJourneyRepository passengerJourneyRepository;
+
+  private Driver driver;
+  private List<Passenger> passengers;
+
+  @BeforeEach
+  public void setUp() {
+    driver = persistDriver();
+    passengers = IntStream.range(0, 3).mapToObj(this::persistPassenger).collect(Collectors.toList());
+  }
+
+  @Test
+  public void search_Statement_Count_Does_Not_Depend_On_Result_Size() {
+    assertStatementCountIsFixed(() -> journeyRepository.findJourneyDriverProjectionsByRouteAfter(LOCATION_ID_FROM,
+        LOCATION_ID_TO, DEPARTURE, DEPARTURE.plus(365, ChronoUnit.DAYS), DEPARTURE, 0, PageRequest.of(0, 100)));
+  }
+
+  @Test
+  public void get_Journeys_By_Driver_Id_Statement_Count_Does_Not_Depend_On_Result_Size() {
+    assertStatementCountIsFixed(() -> journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId()));
+    assertStatementCountIsFixed(() -> journeyRepository.findJourneyPassengerProjectionsByDriverId(driver.getId()));
+  }
+
+  @Test
+  public void get_Journeys_By_Passengers_Id_Statement_Count_Does_Not_Depend_On_Result_Size() {
+    assertStatementCountIsFixed(() ->
+        journeyRepository.findJourneyDriverProjectionsByPassengerId(passengers.get(0).getId()));
+  }
+
+  @Test
+  public void projection_Matches_Entity_Mapping() {
+    persistJourneys(1);
+    final JourneyDriverProjection projection =
+        journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId()).get(0);
+    final GrabJourneyDTO fromEntity =
+        journeyMapper.toGrabJourneyDTO(journeyRepository.findById(projection.getId()).orElseThrow());
+    // The projection leaves out the passengers, which only the by-driver read attaches, and the password hash
+    fromEntity.setPassengers(null);
+    fromEntity.getDriver().getPlatformUser().setPassword(null);
+
+    assertThat(projection.toGrabJourneyDTO()).isEqualTo(fromEntity);
+  }
+
+  @Test
+  public void projection_Attaches_Precomputed_Distance_Of_The_Route() {
+    testEntityManager.persist(new LocationDistance(
+        new LocationDistanceId(LOCATION_ID_FROM, LOCATION_ID_TO), 12.3, 7.6, Instant.now()));
+    persistJourneys(1);
+    final GrabJourneyDTO grabJourneyDTO =
+        journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId()).get(0).toGrabJourneyDTO();
+
+    assertThat(grabJourneyDTO.getDistance().getKm()).isEqualTo(12.3);
+    assertThat(grabJourneyDTO.getDistance().getMi()).isEqualTo(7.6);
+  }
+
+  @Test
+  public void compiled_Patch_Updates_Journey_In_One_Statement() throws Exception {
+    persistJourneys(1);
+    final int journeyId = journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId()).get(0).getId();
+    final PatchableFields patchableFields = PatchableFields.forEntity(Journey.class)
+        .reference("/locationFrom/id", "locationFrom", Location.class)
+        .field("/maxPassengers", "maxPassengers", Integer.class)
+        .versioned("version")
+        .build();
+    final PartialUpdate partialUpdate = new JsonPatchCompiler(new MapperConfiguration().objectMapper(),
+        Validation.buildDefaultValidatorFactory().getValidator()).compile(patchableFields, PatchUtility.jsonPatch(
+        "[{\"op\": \"replace\", \"path\": \"/locationFrom/id\", \"value\": \"5\"},"
+            + " {\"op\": \"replace\", \"path\": \"/maxPassengers\", \"value\": 5}]"));
+    final Statistics statistics = clearAndGetStatistics();
+
+    assertThat(partialUpdate.execute(testEntityManager.getEntityManager(), journeyId)).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    final Journey journey = testEntityManager.find(Journey.class, journeyId);
+    assertThat(journey.getLocationFrom().getId()).isEqualTo(5);
+    assertThat(journey.getMaxPassengers()).isEqualTo(5);
+    assertThat(journey.getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  public void version_Projection_Follows_Journey_Driver_And_Distance() {
+    persistJourneys(1);
+    final int journeyId = journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId()).get(0).getId();
+    final Instant distanceUpdatedDate = Instant.parse("2030-01-01T00:00:00Z");
+    testEntityManager.persist(new LocationDistance(
+        new LocationDistanceId(LOCATION_ID_FROM, LOCATION_ID_TO), 12.3, 7.6, distanceUpdatedDate));
+    final PlatformUser platformUser = testEntityManager.find(PlatformUser.class, driver.getId());
+    platformUser.setPhoneNumber("07000000000");
+    final Statistics statistics = clearAndGetStatistics();
+    final JourneyVersionProjection projection =
+        journeyRepository.findJourneyVersionProjectionById(journeyId).orElseThrow();
+
+    assertThat(projection.getVersion()).isZero();
+    assertThat(projection.getDriverVersion()).isEqualTo(1);
+    assertThat(projection.getDistanceUpdatedDate()).isEqualTo(distanceUpdatedDate);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  public void booking_Or_Releasing_A_Seat_Of_A_Full_Journey_Writes_A_Single_Row() {
+    persistJourneys(1);
+    final int journeyId = journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId()).get(0).getId();
+    final int passengerId = passengers.get(0).getId();
+    final Statistics statistics = clearAndGetStatistics();
+
+    assertThat(passengerJourneyRepository.deleteByJourneyIdAndPassengerId(journeyId, passengerId)).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(passengerJourneyRepository.bookSeat(journeyId, passengerId)).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    final Journey journey = testEntityManager.find(Journey.class, journeyId);
+    assertThat(journey.getSeatsTaken()).isEqualTo(passengers.size());
+    assertThat(journey.getPassengers()).extracting(Passenger::getId)
+        .containsExactlyInAnyOrderElementsOf(passengers.stream().map(Passenger::getId).collect(Collectors.toList()));
+    testEntityManager.flush();
+    // Reading the passengers through the journey never writes them back
+    assertThat(statistics.getCollectionRecreateCount()).isZero();
+    assertThat(statistics.getCollectionRemoveCount()).isZero();
+    assertThat(statistics.getCollectionUpdateCount()).isZero();
+    assertThat(statistics.getEntityUpdateCount()).isZero();
+  }
+
+  @Test
+  public void journeys_Are_Inserted_In_Jdbc_Batches_With_Pooled_Sequence_Ids() {
+    final Statistics statistics = clearAndGetStatistics();
+    final List<Journey> journeys = IntStream.range(0, 100)
+        .mapToObj(i -> {
+          final Journey journey = new Journey();
+          journey.setCreatedDate(Instant.now());
+          journey.setLocationFrom(testEntityManager.getEntityManager().getReference(Location.class, LOCATION_ID_FROM));
+          journey.setLocationTo(testEntityManager.getEntityManager().getReference(Location.class, LOCATION_ID_TO));
+          journey.setMaxPassengers(3);
+          journey.setDateTime(DEPARTURE.plus(i, ChronoUnit.HOURS));
+          journey.setDriver(testEntityManager.getEntityManager().getReference(Driver.class, driver.getId()));
+          return testEntityManager.persist(journey);
+        })
+        .collect(Collectors.toList());
+    testEntityManager.flush();
+
+    // Two or three sequence calls for blocks of 50 ids, then two batches of 50 inserts, instead of 200 statements
+    assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    assertThat(journeys).extracting(Journey::getId).doesNotHaveDuplicates();
+    assertThat(journeyRepository.findJourneyDriverProjectionsByDriverId(driver.getId())).hasSize(100);
+  }
+
+  private void assertStatementCountIsFixed(final Supplier<List<?>> query) {
+    persistJourneys(2);
+    final long fewJourneysStatementCount = countStatements(query);
+    persistJourneys(20);
+    final long manyJourneysStatementCount = countStatements(query);
+
+    assertThat(manyJourneysStatementCount).isEqualTo(fewJourneysStatementCount);
+  }
+
+  private long countStatements(final Supplier<List<?>> query) {
+    final Statistics statistics = clearAndGetStatistics();
+    assertThat(query.get()).isNotEmpty();
+    // Projections never enter the persistence context
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    return statistics.getPrepareStatementCount();
+  }
+
+  private Statistics clearAndGetStatistics() {
+    testEntityManager.flush();
+    testEntityManager.clear();
+    final Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+        .unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+
+  private void persistJourneys(final int count) {
+    final Location locationFrom = testEntityManager.find(Location.class, LOCATION_ID_FROM);
+    final Location locationTo = testEntityManager.find(Location.class, LOCATION_ID_TO);
+    for (int i = 0; i < count; i++) {
+      final Journey journey = new Journey();
+      journey.setCreatedDate(Instant.now());
+      journey.setLocationFrom(locationFrom);
+      journey.setLocationTo(locationTo);
+      journey.setMaxPassengers(passengers.size());
+      journey.setDateTime(DEPARTURE.plus(i, ChronoUnit.HOURS));
+      journey.setDriver(testEntityManager.find(Driver.class, driver.getId()));
+      testEntityManager.persistAndFlush(journey);
+      passengers.forEach(passenger -> passengerJourneyRepository.bookSeat(journey.getId(), passenger.getId()));
+    }
+  }
+
+  private Driver persistDriver() {
+    final PlatformUser platformUser = persistPlatformUser("driver@car-migo.com");
+    final Driver newDriver = new Driver();
+    newDriver.setId(platformUser.getId());
+    newDriver.setLicenseNumber("DRIVER-LICENSE");
+    newDriver.setPlatformUser(platformUser);
+    return testEntityManager.persist(newDriver);
+  }
+
+  private Passenger persistPassenger(final int index) {
+    final PlatformUser platformUser = persistPlatformUser(String.format("passenger%d@car-migo.com", index));
+    final Passenger passenger = new Passenger();
+    passenger.setId(platformUser.getId());
+    passenger.setPlatformUser(platformUser);
+    return testEntityManager.persist(passenger);
+  }
+
+  private PlatformUser persistPlatformUser(final String email) {
+    final PlatformUser platformUser = new PlatformUser();
+    platformUser.setCreatedDate(Instant.now());
+    platformUser.setFirstName("First");
+    platformUser.setLastName("Last");
+    platformUser.setDob(Instant.parse("1990-01-01T00:00:00Z"));
+    platformUser.setEmail(email);
+    platformUser.setPassword("password");
+    platformUser.setUserAccessStatus(testEntityManager.find(UserAccessStatus.class, ACTIVE_STATUS_ID));
+    return testEntityManager.persist(platformUser);
+  }
+}
@@ -0,0 +1,38 @@
+package com.unosquare.carmigo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.unosquare.carmigo.entity.LocationDistance;
+import com.unosquare.carmigo.entity.LocationDistanceId;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+public class LocationDistanceRepositoryTest extends AbstractRepositoryTest {
+
+  private static final LocationDistanceId BELFAST_TO_NEWRY = new LocationDistanceId(2, 5);
+  private static final LocationDistanceId NEWRY_TO_BELFAST = new LocationDistanceId(5, 2);
+
+  @Autowired private TestEntityManager testEntityManager;
+  @Autowired private LocationDistanceRepository locationDistanceRepository;
+
+  @Test
+  public void upsert_All_Inserts_New_Pairs_And_Overwrites_Existing_Ones() {
+    final Instant firstRun = Instant.now().minus(40, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+    final Instant secondRun = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    locationDistanceRepository.upsertAll(List.of(new LocationDistance(BELFAST_TO_NEWRY, 50.0, 31.1, firstRun)));
+    locationDistanceRepository.upsertAll(List.of(
+        new LocationDistance(BELFAST_TO_NEWRY, 51.2, 31.8, secondRun),
+        new LocationDistance(NEWRY_TO_BELFAST, 51.2, 31.8, secondRun)));
+    testEntityManager.clear();
+
+    assertThat(locationDistanceRepository.findAll()).hasSize(2);
+    final LocationDistance belfastToNewry = locationDistanceRepository.findById(BELFAST_TO_NEWRY).orElseThrow();
+    assertThat(belfastToNewry.getKm()).isEqualTo(51.2);
+    assertThat(belfastToNewry.getMi()).isEqualTo(31.8);
+    assertThat(belfastToNewry.getUpdatedDate()).isEqualTo(secondRun);
+  }
+}
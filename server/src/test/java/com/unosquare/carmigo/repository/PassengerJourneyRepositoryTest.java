@@ -0,0 +1,174 @@
+package com.unosquare.carmigo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Books seats from many threads at once, each booking in its own committed transaction, so the data is set up and
+ * removed with plain SQL rather than in the rolled back transaction of each test.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=50")
+public class PassengerJourneyRepositoryTest extends AbstractRepositoryTest {
+
+  private static final String EMAIL_DOMAIN = "@stress.car-migo.com";
+  private static final int ACTIVE_STATUS_ID = 2;
+  private static final int SEATS = 10;
+  private static final int BOOKERS = 300;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+  @Autowired private PassengerJourneyRepository passengerJourneyRepository;
+
+  private int journeyId;
+  private List<Integer> passengerIds;
+
+  @BeforeEach
+  public void setUp() {
+    final int driverId = insertPlatformUser("driver");
+    jdbcTemplate.update("insert into driver (id, license_number, platform_user_id) values (?, 'STRESS', ?)",
+        driverId, driverId);
+    journeyId = jdbcTemplate.queryForObject("insert into journey"
+        + " (created_date, location_id_from, location_id_to, max_passengers, date_time, driver_id)"
+        + " values (now(), 1, 2, ?, now() + interval '1 day', ?) returning id", Integer.class, SEATS, driverId);
+    jdbcTemplate.update("insert into platform_user"
+        + " (created_date, first_name, last_name, dob, email, password, user_access_status_id)"
+        + " select current_date, 'First', 'Last', date '1990-01-01', 'passenger' || n || ?, 'password', ?"
+        + " from generate_series(1, ?) n", EMAIL_DOMAIN, ACTIVE_STATUS_ID, BOOKERS);
+    passengerIds = jdbcTemplate.queryForList(
+        "select id from platform_user where email like 'passenger%' || ? order by id", Integer.class, EMAIL_DOMAIN);
+    jdbcTemplate.update("insert into passenger (id, platform_user_id)"
+        + " select id, id from platform_user where email like 'passenger%' || ?", EMAIL_DOMAIN);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    // Cascades to the driver, the passengers, the journey and its bookings
+    jdbcTemplate.update("delete from platform_user where email like '%' || ?", EMAIL_DOMAIN);
+  }
+
+  @Test
+  public void concurrent_Bookings_Never_Take_More_Seats_Than_The_Journey_Has() throws Exception {
+    final int booked = bookConcurrently(passengerIds);
+
+    assertThat(booked).isEqualTo(SEATS);
+    assertThat(countBookings()).isEqualTo(SEATS);
+    assertThat(seatsTaken()).isEqualTo(SEATS);
+  }
+
+  @Test
+  public void concurrent_Bookings_Of_One_Passenger_Take_A_Single_Seat() throws Exception {
+    final int booked = bookConcurrently(Collections.nCopies(50, passengerIds.get(0)));
+
+    assertThat(booked).isEqualTo(1);
+    assertThat(countBookings()).isEqualTo(1);
+    assertThat(seatsTaken()).isEqualTo(1);
+  }
+
+  @Test
+  public void deleting_A_Booking_Releases_Its_Seat() {
+    passengerIds.subList(0, SEATS).forEach(this::book);
+
+    assertThat(book(passengerIds.get(SEATS))).isZero();
+    assertThat(transactionTemplate.execute(status ->
+        passengerJourneyRepository.deleteByJourneyIdAndPassengerId(journeyId, passengerIds.get(0)))).isEqualTo(1);
+    assertThat(seatsTaken()).isEqualTo(SEATS - 1);
+    assertThat(book(passengerIds.get(SEATS))).isEqualTo(1);
+    assertThat(seatsTaken()).isEqualTo(SEATS);
+    assertThat(transactionTemplate.execute(status ->
+        passengerJourneyRepository.deleteByJourneyIdAndPassengerId(journeyId, passengerIds.get(0)))).isZero();
+    assertThat(seatsTaken()).isEqualTo(SEATS);
+  }
+
+  @Test
+  public void deleting_A_Booked_Passenger_Or_User_Releases_Their_Seat() {
+    passengerIds.subList(0, 3).forEach(this::book);
+
+    assertThat(transactionTemplate.execute(status -> {
+      final List<Integer> journeyIds = passengerJourneyRepository.releaseSeatsByPassengerId(passengerIds.get(0));
+      jdbcTemplate.update("delete from passenger where id = ?", passengerIds.get(0));
+      return journeyIds;
+    })).containsExactly(journeyId);
+    assertThat(seatsTaken()).isEqualTo(2);
+    assertThat(transactionTemplate.execute(status -> {
+      final List<Integer> journeyIds = passengerJourneyRepository.releaseSeatsByPlatformUserId(passengerIds.get(1));
+      jdbcTemplate.update("delete from platform_user where id = ?", passengerIds.get(1));
+      return journeyIds;
+    })).containsExactly(journeyId);
+    assertThat(seatsTaken()).isEqualTo(1);
+    assertThat(countBookings()).isEqualTo(1);
+    assertThat(transactionTemplate.execute(status ->
+        passengerJourneyRepository.releaseSeatsByPassengerId(passengerIds.get(3)))).isEmpty();
+    assertThat(seatsTaken()).isEqualTo(1);
+  }
+
+  /**
+   * Releases all bookers at once, one thread each.
+   *
+   * @return how many of them were booked
+   */
+  private int bookConcurrently(final List<Integer> bookers) throws Exception {
+    final ExecutorService executorService = Executors.newFixedThreadPool(bookers.size());
+    final CountDownLatch start = new CountDownLatch(1);
+    try {
+      final List<Future<Integer>> bookings = bookers.stream()
+          .map(passengerId -> executorService.submit(() -> {
+            start.await();
+            return book(passengerId);
+          }))
+          .collect(Collectors.toList());
+      start.countDown();
+      int booked = 0;
+      for (final Future<Integer> booking : bookings) {
+        try {
+          booked += booking.get(1, TimeUnit.MINUTES);
+        } catch (final ExecutionException ex) {
+          // The same passenger booking twice at once is stopped by the unique index
+          assertThat(ex.getCause()).isInstanceOf(DataIntegrityViolationException.class);
+        }
+      }
+      return booked;
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private int book(final int passengerId) {
+    return transactionTemplate.execute(status -> passengerJourneyRepository.bookSeat(journeyId, passengerId));
+  }
+
+  private int countBookings() {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from passenger_journey where journey_id = ?", Integer.class, journeyId);
+  }
+
+  private int seatsTaken() {
+    return jdbcTemplate.queryForObject("select seats_taken from journey where id = ?", Integer.class, journeyId);
+  }
+
+  private int insertPlatformUser(final String name) {
+    return jdbcTemplate.queryForObject("insert into platform_user"
+        + " (created_date, first_name, last_name, dob, email, password, user_access_status_id)"
+        + " values (current_date, 'First', 'Last', date '1990-01-01', ?, 'password', ?) returning id",
+        Integer.class, name + EMAIL_DOMAIN, ACTIVE_STATUS_ID);
+  }
+}
@@ -0,0 +1,66 @@
+package com.unosquare.carmigo.repository;
+
+import static com.unosquare.carmigo.constant.AppConstants.LOCKED_OUT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.PlatformUserStatusChange;
+import com.unosquare.carmigo.entity.UserAccessStatus;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+public class PlatformUserRepositoryTest extends AbstractRepositoryTest {
+
+  private static final int ACTIVE_STATUS_ID = 2;
+  private static final String EMAIL = "user@car-migo.com";
+
+  @Autowired private TestEntityManager testEntityManager;
+  @Autowired private PlatformUserRepository platformUserRepository;
+  @Autowired private PlatformUserStatusChangeRepository platformUserStatusChangeRepository;
+
+  @Test
+  public void update_User_Access_Status_By_Email_Changes_Status_Only_Once() {
+    final PlatformUser platformUser = persistPlatformUser();
+
+    assertThat(platformUserRepository.updateUserAccessStatusByEmail(EMAIL, LOCKED_OUT)).isEqualTo(1);
+    assertThat(platformUserRepository.updateUserAccessStatusByEmail(EMAIL, LOCKED_OUT)).isZero();
+    assertThat(platformUserRepository.updateUserAccessStatusByEmail("other@car-migo.com", LOCKED_OUT)).isZero();
+    testEntityManager.clear();
+
+    assertThat(platformUserRepository.findPlatformUserByEmail(EMAIL).orElseThrow().getUserAccessStatus().getStatus())
+        .isEqualTo(LOCKED_OUT);
+    // Changes the ETag of the user, as the status is part of their representation
+    assertThat(platformUserRepository.findVersionById(platformUser.getId())).contains(1);
+  }
+
+  @Test
+  public void status_Change_Is_Recorded_As_An_Instant_Whatever_The_Session_Time_Zone() {
+    final PlatformUser platformUser = persistPlatformUser();
+    testEntityManager.getEntityManager().createNativeQuery("SET LOCAL TIME ZONE 'Pacific/Kiritimati'")
+        .executeUpdate();
+    final Instant before = Instant.now().minus(1, ChronoUnit.MINUTES);
+    platformUserRepository.updateUserAccessStatusByEmail(EMAIL, LOCKED_OUT);
+    testEntityManager.clear();
+
+    assertThat(platformUserStatusChangeRepository.findByChangedDateAfter(before))
+        .filteredOn(change -> change.getPlatformUserId() == platformUser.getId())
+        .singleElement()
+        .extracting(PlatformUserStatusChange::getChangedDate)
+        .matches(changedDate -> changedDate.isBefore(Instant.now().plus(1, ChronoUnit.MINUTES)));
+  }
+
+  private PlatformUser persistPlatformUser() {
+    final PlatformUser platformUser = new PlatformUser();
+    platformUser.setCreatedDate(Instant.now());
+    platformUser.setFirstName("First");
+    platformUser.setLastName("Last");
+    platformUser.setDob(Instant.parse("1990-01-01T00:00:00Z"));
+    platformUser.setEmail(EMAIL);
+    platformUser.setPassword("password");
+    platformUser.setUserAccessStatus(testEntityManager.find(UserAccessStatus.class, ACTIVE_STATUS_ID));
+    return testEntityManager.persistAndFlush(platformUser);
+  }
+}
@@ -0,0 +1,139 @@
+package com.unosquare.carmigo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.unosquare.carmigo.repository.projection.JourneyDriverProjection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Guards the indexes behind the journey repository queries. Each repository method is run once so that the SQL
+ * Hibernate actually generates for it is captured, then that SQL is explained with the same parameters bound.
+ * Sequential scans are disabled for the session, so the planner only picks one when no index can serve the query.
+ */
+@Import(QueryPlanTest.StatementCaptureConfiguration.class)
+public class QueryPlanTest extends AbstractRepositoryTest {
+
+  private static final String ROUTE_INDEX = "journey_location_id_from_location_id_to_date_time_idx";
+  private static final String DRIVER_INDEX = "journey_driver_id_date_time_idx";
+  private static final String PASSENGER_INDEX = "passenger_journey_passenger_id_idx";
+  private static final String BOOKING_INDEX = "passenger_journey_journey_id_passenger_id_key";
+  private static final Instant DATE_TIME_FROM = Instant.parse("2030-01-01T00:00:00Z");
+  private static final Instant DATE_TIME_TO = Instant.parse("2030-12-31T00:00:00Z");
+
+  @Autowired private CapturingStatementInspector statementInspector;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private JourneyRepository journeyRepository;
+  @Autowired private PassengerJourneyRepository passengerJourneyRepository;
+
+  @BeforeEach
+  public void setUp() {
+    jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+  }
+
+  @Test
+  public void find_Journey_Driver_Projections_By_Route_After_Uses_Route_Index() {
+    assertPlanUses(ROUTE_INDEX, () -> journeyRepository.findJourneyDriverProjectionsByRouteAfter(1, 2,
+            DATE_TIME_FROM, DATE_TIME_TO, DATE_TIME_FROM, 0, PageRequest.of(0, 51)),
+        1, 2, timestamp(DATE_TIME_FROM), timestamp(DATE_TIME_TO), timestamp(DATE_TIME_FROM),
+        timestamp(DATE_TIME_FROM), 0, 51);
+  }
+
+  @Test
+  public void stream_Journey_Driver_Projections_By_Route_Uses_Route_Index() {
+    assertPlanUses(ROUTE_INDEX, () -> {
+      try (final Stream<JourneyDriverProjection> journeys =
+          journeyRepository.streamJourneyDriverProjectionsByRoute(1, 2, DATE_TIME_FROM, DATE_TIME_TO)) {
+        journeys.count();
+      }
+    }, 1, 2, timestamp(DATE_TIME_FROM), timestamp(DATE_TIME_TO));
+  }
+
+  @Test
+  public void find_Journey_Driver_Projections_By_Driver_Id_Uses_Driver_Index() {
+    assertPlanUses(DRIVER_INDEX, () -> journeyRepository.findJourneyDriverProjectionsByDriverId(1), 1);
+  }
+
+  @Test
+  public void find_Journey_Passenger_Projections_By_Driver_Id_Uses_Driver_Index() {
+    assertPlanUses(DRIVER_INDEX, () -> journeyRepository.findJourneyPassengerProjectionsByDriverId(1), 1);
+  }
+
+  @Test
+  public void find_Journey_Driver_Projections_By_Passenger_Id_Uses_Passenger_Index() {
+    assertPlanUses(PASSENGER_INDEX, () -> journeyRepository.findJourneyDriverProjectionsByPassengerId(1), 1);
+  }
+
+  @Test
+  public void delete_By_Journey_Id_And_Passenger_Id_Uses_Booking_Index() {
+    assertPlanUses(BOOKING_INDEX, () -> passengerJourneyRepository.deleteByJourneyIdAndPassengerId(1, 1), 1, 1);
+  }
+
+  private void assertPlanUses(final String index, final Runnable repositoryQuery, final Object... parameters) {
+    statementInspector.clear();
+    repositoryQuery.run();
+    final String sql = statementInspector.lastStatement();
+    final List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+
+    assertThat(plan).as(sql + "\n" + String.join("\n", plan))
+        .anyMatch(line -> line.contains(index))
+        .noneMatch(line -> line.contains("Seq Scan"));
+  }
+
+  private static Timestamp timestamp(final Instant instant) {
+    return Timestamp.from(instant);
+  }
+
+  @TestConfiguration
+  static class StatementCaptureConfiguration {
+
+    @Bean
+    CapturingStatementInspector capturingStatementInspector() {
+      return new CapturingStatementInspector();
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementInspectorCustomizer(final CapturingStatementInspector inspector) {
+      return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+  }
+
+  /**
+   * Records every statement Hibernate prepares, leaving it unchanged.
+   */
+  static final class CapturingStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = -2817450391626054683L;
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(final String sql) {
+      statements.add(sql);
+      return sql;
+    }
+
+    void clear() {
+      statements.clear();
+    }
+
+    String lastStatement() {
+      assertThat(statements).as("statements prepared by the repository query").isNotEmpty();
+      return statements.get(statements.size() - 1);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.unosquare.carmigo.repository;
+
+import com.unosquare.carmigo.entity.Journey;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Picked up by the repository slice tests in place of CarMigoApplication so that only JPA is bootstrapped, leaving
+ * out Feign clients, security and web configuration.
+ */
+@SpringBootConfiguration
+@EntityScan(basePackageClasses = Journey.class)
+@EnableJpaRepositories(basePackageClasses = JourneyRepository.class)
+public class RepositoryTestApplication {}
@@ -0,0 +1,103 @@
+package com.unosquare.carmigo.security;
+
+import static com.unosquare.carmigo.constant.AppConstants.ACTIVE;
+import static com.unosquare.carmigo.constant.AppConstants.ADMIN;
+import static com.unosquare.carmigo.constant.AppConstants.SUSPENDED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.github.fge.jsonpatch.JsonPatch;
+import com.unosquare.carmigo.controller.DriverController;
+import com.unosquare.carmigo.controller.PlatformUserController;
+import com.unosquare.carmigo.exception.UnauthorizedException;
+import com.unosquare.carmigo.security.AppUser.CurrentAppUser;
+import java.lang.reflect.Method;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthorizationTest {
+
+  private static final int USER_ID = 7;
+
+  @Mock private AppUser appUserMock;
+  private AccessPolicyInterceptor accessPolicyInterceptor;
+  private MockHttpServletRequest request;
+  private Authorization authorization;
+  private HandlerMethod patchCurrentPlatformUser;
+  private HandlerMethod deleteCurrentDriver;
+
+  @BeforeEach
+  public void setUp() throws NoSuchMethodException {
+    patchCurrentPlatformUser = handlerMethod(
+        PlatformUserController.class.getMethod("patchCurrentPlatformUser", JsonPatch.class));
+    deleteCurrentDriver = handlerMethod(DriverController.class.getMethod("deleteCurrentDriver"));
+    accessPolicyInterceptor = new AccessPolicyInterceptor();
+    accessPolicyInterceptor.loadPolicies(List.of(patchCurrentPlatformUser, deleteCurrentDriver));
+    request = new MockHttpServletRequest();
+    authorization = new Authorization(appUserMock, request);
+  }
+
+  @Test
+  public void load_Policies_Resolves_Annotated_And_Default_Statuses() {
+    assertThat(accessPolicyInterceptor.getAllowedAccessStatuses(patchCurrentPlatformUser.getMethod()))
+        .containsExactlyInAnyOrder(ACTIVE, SUSPENDED);
+    assertThat(accessPolicyInterceptor.getAllowedAccessStatuses(deleteCurrentDriver.getMethod()))
+        .containsExactly(ACTIVE);
+  }
+
+  @Test
+  public void verify_User_Authorization_Allows_Suspended_User_Where_Handler_Allows_It() {
+    when(appUserMock.get()).thenReturn(currentAppUser(SUSPENDED));
+    handle(patchCurrentPlatformUser);
+
+    assertThatCode(() -> authorization.verifyUserAuthorization(USER_ID)).doesNotThrowAnyException();
+  }
+
+  @Test
+  public void verify_User_Authorization_Rejects_Suspended_User_Where_Handler_Does_Not_Allow_It() {
+    when(appUserMock.get()).thenReturn(currentAppUser(SUSPENDED));
+    handle(deleteCurrentDriver);
+
+    assertThatThrownBy(() -> authorization.verifyUserAuthorization(USER_ID))
+        .isInstanceOf(UnauthorizedException.class);
+  }
+
+  @Test
+  public void verify_User_Authorization_Rejects_Access_To_Another_User() {
+    when(appUserMock.get()).thenReturn(currentAppUser(ACTIVE));
+    handle(patchCurrentPlatformUser);
+
+    assertThatThrownBy(() -> authorization.verifyUserAuthorization(USER_ID + 1))
+        .isInstanceOf(UnauthorizedException.class);
+  }
+
+  @Test
+  public void verify_User_Authorization_Allows_Admin_Access_To_Another_User() {
+    when(appUserMock.get()).thenReturn(currentAppUser(ADMIN));
+    handle(deleteCurrentDriver);
+
+    assertThatCode(() -> authorization.verifyUserAuthorization(USER_ID + 1)).doesNotThrowAnyException();
+  }
+
+  private void handle(final HandlerMethod handlerMethod) {
+    accessPolicyInterceptor.preHandle(request, new MockHttpServletResponse(), handlerMethod);
+  }
+
+  private static HandlerMethod handlerMethod(final Method method) {
+    return new HandlerMethod(new Object(), method);
+  }
+
+  private static CurrentAppUser currentAppUser(final String status) {
+    return CurrentAppUser.builder().id(USER_ID).username("user@car-migo.com").userAccessStatus(status).build();
+  }
+}
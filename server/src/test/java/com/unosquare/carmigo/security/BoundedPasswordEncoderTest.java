@@ -0,0 +1,65 @@
+package com.unosquare.carmigo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.unosquare.carmigo.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+public class BoundedPasswordEncoderTest {
+
+  private MeterRegistry meterRegistry;
+  private ThreadPoolExecutor executor;
+  private BoundedPasswordEncoder boundedPasswordEncoder;
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+        new ThreadPoolExecutor.AbortPolicy());
+    boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, meterRegistry);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void encode_And_Matches_Run_On_Executor_And_Are_Timed() {
+    final String encodedPassword = boundedPasswordEncoder.encode("Password1!");
+
+    assertThat(boundedPasswordEncoder.matches("Password1!", encodedPassword)).isTrue();
+    assertThat(boundedPasswordEncoder.matches("Password2!", encodedPassword)).isFalse();
+    assertThat(meterRegistry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+  }
+
+  @Test
+  public void encode_Throws_TooManyRequestsException_When_Executor_Is_Saturated() throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    started.await();
+
+    assertThatThrownBy(() -> boundedPasswordEncoder.encode("Password1!"))
+        .isInstanceOf(TooManyRequestsException.class);
+    release.countDown();
+  }
+}
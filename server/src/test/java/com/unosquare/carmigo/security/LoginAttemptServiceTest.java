@@ -0,0 +1,83 @@
+package com.unosquare.carmigo.security;
+
+import static com.unosquare.carmigo.constant.AppConstants.LOCKED_OUT;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.exception.TooManyRequestsException;
+import com.unosquare.carmigo.exception.UnauthorizedException;
+import com.unosquare.carmigo.repository.PlatformUserRepository;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+@ExtendWith(MockitoExtension.class)
+public class LoginAttemptServiceTest {
+
+  private static final String EMAIL = "user@car-migo.com";
+
+  @Mock private PlatformUserRepository platformUserRepositoryMock;
+  @Mock private ApplicationEventPublisher applicationEventPublisherMock;
+  private MockHttpServletRequest request;
+  private LoginAttemptService loginAttemptService;
+
+  @BeforeEach
+  public void setUp() {
+    request = new MockHttpServletRequest();
+    request.setRemoteAddr("10.0.0.1");
+    loginAttemptService = new LoginAttemptService(platformUserRepositoryMock, applicationEventPublisherMock,
+        request, 3, 5, Duration.ofMinutes(15), 100);
+  }
+
+  @Test
+  public void login_Failed_Locks_Out_User_Once_On_Reaching_Limit() {
+    when(platformUserRepositoryMock.updateUserAccessStatusByEmail(EMAIL, LOCKED_OUT)).thenReturn(1);
+    fail(EMAIL, 2);
+    assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    verify(platformUserRepositoryMock, never()).updateUserAccessStatusByEmail(anyString(), anyString());
+
+    fail(EMAIL, 2);
+    assertThatThrownBy(() -> loginAttemptService.checkAllowed(EMAIL)).isInstanceOf(UnauthorizedException.class);
+    verify(platformUserRepositoryMock, times(1)).updateUserAccessStatusByEmail(EMAIL, LOCKED_OUT);
+    verify(applicationEventPublisherMock, times(1)).publishEvent(any(PlatformUserChangedEvent.class));
+  }
+
+  @Test
+  public void check_Allowed_Rejects_Client_Over_Limit_Across_Emails() {
+    for (int i = 0; i < 5; i++) {
+      loginAttemptService.loginFailed("user" + i + "@car-migo.com");
+    }
+
+    assertThatThrownBy(() -> loginAttemptService.checkAllowed("other@car-migo.com"))
+        .isInstanceOf(TooManyRequestsException.class);
+    request.setRemoteAddr("10.0.0.2");
+    assertThatCode(() -> loginAttemptService.checkAllowed("other@car-migo.com")).doesNotThrowAnyException();
+  }
+
+  @Test
+  public void login_Succeeded_Resets_Email_Counter() {
+    fail(EMAIL, 2);
+    loginAttemptService.loginSucceeded(EMAIL);
+    fail(EMAIL, 2);
+
+    assertThatCode(() -> loginAttemptService.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    verify(platformUserRepositoryMock, never()).updateUserAccessStatusByEmail(anyString(), anyString());
+  }
+
+  private void fail(final String email, final int times) {
+    for (int i = 0; i < times; i++) {
+      loginAttemptService.loginFailed(email);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package com.unosquare.carmigo.security;
+
+import static com.unosquare.carmigo.constant.AppConstants.ACTIVE;
+import static com.unosquare.carmigo.constant.AppConstants.LOCKED_OUT;
+import static com.unosquare.carmigo.constant.AppConstants.SUSPENDED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.PlatformUserStatusChange;
+import com.unosquare.carmigo.entity.UserAccessStatus;
+import com.unosquare.carmigo.exception.UnauthorizedException;
+import com.unosquare.carmigo.repository.PlatformUserRepository;
+import com.unosquare.carmigo.repository.PlatformUserStatusChangeRepository;
+import com.unosquare.carmigo.util.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+@ExtendWith(MockitoExtension.class)
+public class UserSecurityServiceTest {
+
+  private static final int USER_ID = 7;
+  private static final String EMAIL = "user@car-migo.com";
+  private static final Instant ISSUED_AT = Instant.now().minus(10, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.SECONDS);
+
+  @Mock private PlatformUserRepository platformUserRepositoryMock;
+  @Mock private PlatformUserStatusChangeRepository platformUserStatusChangeRepositoryMock;
+  private AccessStatusChangeRegistry accessStatusChangeRegistry;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    accessStatusChangeRegistry =
+        new AccessStatusChangeRegistry(platformUserStatusChangeRepositoryMock, Duration.ofMinutes(15),
+            Duration.ofSeconds(30));
+  }
+
+  @Test
+  public void load_User_By_Claims_In_Stateless_Mode_Does_Not_Query_Users() {
+    refreshRegistry();
+    final UserDetails userDetails = statelessService().loadUserByClaims(claims(ACTIVE));
+
+    assertThat(((CustomUserDetails) userDetails).getId()).isEqualTo(USER_ID);
+    assertThat(userDetails.getUsername()).isEqualTo(EMAIL);
+    assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(ACTIVE);
+    verify(platformUserRepositoryMock, never()).findPlatformUserByEmail(anyString());
+  }
+
+  @Test
+  public void load_User_By_Claims_Applies_Status_Changed_After_Token_Was_Issued() {
+    refreshRegistry(new PlatformUserStatusChange(USER_ID, SUSPENDED, ISSUED_AT.plus(5, ChronoUnit.MINUTES)));
+    final UserDetails userDetails = statelessService().loadUserByClaims(claims(ACTIVE));
+
+    assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(SUSPENDED);
+  }
+
+  @Test
+  public void load_User_By_Claims_Ignores_Status_Changed_Before_Token_Was_Issued() {
+    refreshRegistry(new PlatformUserStatusChange(USER_ID, LOCKED_OUT, ISSUED_AT.minus(5, ChronoUnit.MINUTES)));
+    final UserDetails userDetails = statelessService().loadUserByClaims(claims(ACTIVE));
+
+    assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(ACTIVE);
+  }
+
+  @Test
+  public void load_User_By_Claims_Rejects_Locked_Out_Or_Deleted_User() {
+    refreshRegistry(new PlatformUserStatusChange(USER_ID, LOCKED_OUT, ISSUED_AT.plus(5, ChronoUnit.MINUTES)));
+    assertThatThrownBy(() -> statelessService().loadUserByClaims(claims(ACTIVE)))
+        .isInstanceOf(UnauthorizedException.class);
+
+    refreshRegistry(new PlatformUserStatusChange(USER_ID, null, ISSUED_AT.plus(5, ChronoUnit.MINUTES)));
+    assertThatThrownBy(() -> statelessService().loadUserByClaims(claims(ACTIVE)))
+        .isInstanceOf(UnauthorizedException.class);
+  }
+
+  @Test
+  public void load_User_By_Claims_Queries_User_Until_Registry_Is_Loaded() {
+    when(platformUserRepositoryMock.findPlatformUserByEmail(EMAIL)).thenReturn(Optional.of(platformUser(ACTIVE)));
+    statelessService().loadUserByClaims(claims(ACTIVE));
+
+    verify(platformUserRepositoryMock).findPlatformUserByEmail(EMAIL);
+  }
+
+  @Test
+  public void load_User_By_Claims_Queries_User_Once_Registry_Is_Stale() throws Exception {
+    accessStatusChangeRegistry =
+        new AccessStatusChangeRegistry(platformUserStatusChangeRepositoryMock, Duration.ofMinutes(15),
+            Duration.ofMillis(10));
+    refreshRegistry();
+    Thread.sleep(100);
+    when(platformUserRepositoryMock.findPlatformUserByEmail(EMAIL)).thenReturn(Optional.of(platformUser(SUSPENDED)));
+    final UserDetails userDetails = statelessService().loadUserByClaims(claims(ACTIVE));
+
+    assertThat(accessStatusChangeRegistry.isLoaded()).isFalse();
+    assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(SUSPENDED);
+    verify(platformUserRepositoryMock).findPlatformUserByEmail(EMAIL);
+  }
+
+  @Test
+  public void load_User_By_Claims_Queries_User_When_Not_Stateless() {
+    when(platformUserRepositoryMock.findPlatformUserByEmail(EMAIL)).thenReturn(Optional.of(platformUser(SUSPENDED)));
+    final UserDetails userDetails = userSecurityService(false).loadUserByClaims(claims(ACTIVE));
+
+    assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(SUSPENDED);
+  }
+
+  @Test
+  public void load_User_By_Username_Queries_User_Once_And_Serves_Repeats_From_Cache() {
+    when(platformUserRepositoryMock.findPlatformUserByEmail(EMAIL)).thenReturn(Optional.of(platformUser(ACTIVE)));
+    final UserSecurityService userSecurityService = userSecurityService(false);
+    final UserDetails first = userSecurityService.loadUserByUsername(EMAIL);
+    ((CustomUserDetails) first).eraseCredentials();
+    final UserDetails second = userSecurityService.loadUserByUsername(EMAIL);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getPassword()).isEqualTo("password");
+    verify(platformUserRepositoryMock, times(1)).findPlatformUserByEmail(EMAIL);
+    assertThat(cacheGets("hit")).isEqualTo(1);
+    assertThat(cacheGets("miss")).isEqualTo(1);
+  }
+
+  @Test
+  public void load_User_By_Username_Sees_Suspension_Right_After_User_Changed_Event() {
+    when(platformUserRepositoryMock.findPlatformUserByEmail(EMAIL))
+        .thenReturn(Optional.of(platformUser(ACTIVE)), Optional.of(platformUser(SUSPENDED)));
+    final UserSecurityService userSecurityService = userSecurityService(false);
+    userSecurityService.loadUserByUsername(EMAIL);
+    userSecurityService.onPlatformUserChanged(new PlatformUserChangedEvent(Set.of(EMAIL)));
+    final UserDetails userDetails = userSecurityService.loadUserByUsername(EMAIL);
+
+    assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(SUSPENDED);
+    verify(platformUserRepositoryMock, times(2)).findPlatformUserByEmail(EMAIL);
+  }
+
+  @Test
+  public void load_User_By_Username_Does_Not_Cache_Unknown_Email() {
+    final UserSecurityService userSecurityService = userSecurityService(false);
+
+    assertThatThrownBy(() -> userSecurityService.loadUserByUsername(EMAIL)).isInstanceOf(UnauthorizedException.class);
+    assertThatThrownBy(() -> userSecurityService.loadUserByUsername(EMAIL)).isInstanceOf(UnauthorizedException.class);
+    verify(platformUserRepositoryMock, times(2)).findPlatformUserByEmail(EMAIL);
+  }
+
+  private UserSecurityService statelessService() {
+    return userSecurityService(true);
+  }
+
+  private UserSecurityService userSecurityService(final boolean stateless) {
+    return new UserSecurityService(platformUserRepositoryMock, accessStatusChangeRegistry, meterRegistry, stateless,
+        100, Duration.ofMinutes(1));
+  }
+
+  private double cacheGets(final String result) {
+    return meterRegistry.get("cache.gets").tag("cache", "user-details").tag("result", result).functionCounter()
+        .count();
+  }
+
+  private void refreshRegistry(final PlatformUserStatusChange... changes) {
+    when(platformUserStatusChangeRepositoryMock.findByChangedDateAfter(any(Instant.class)))
+        .thenReturn(List.of(changes));
+    accessStatusChangeRegistry.refresh();
+  }
+
+  private static Claims claims(final String status) {
+    final Claims claims = new DefaultClaims();
+    claims.setSubject(EMAIL);
+    claims.setIssuedAt(Date.from(ISSUED_AT));
+    claims.put(JwtTokenUtils.USER_ID_CLAIM, USER_ID);
+    claims.put(JwtTokenUtils.ACCESS_STATUS_CLAIM, status);
+    return claims;
+  }
+
+  private static PlatformUser platformUser(final String status) {
+    final UserAccessStatus userAccessStatus = new UserAccessStatus();
+    userAccessStatus.setStatus(status);
+    final PlatformUser platformUser = new PlatformUser();
+    platformUser.setId(USER_ID);
+    platformUser.setEmail(EMAIL);
+    platformUser.setPassword("password");
+    platformUser.setUserAccessStatus(userAccessStatus);
+    return platformUser;
+  }
+}
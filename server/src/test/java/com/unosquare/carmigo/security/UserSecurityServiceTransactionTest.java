@@ -0,0 +1,84 @@
+package com.unosquare.carmigo.security;
+
+import static com.unosquare.carmigo.constant.AppConstants.ACTIVE;
+import static com.unosquare.carmigo.constant.AppConstants.SUSPENDED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.unosquare.carmigo.repository.AbstractRepositoryTest;
+import com.unosquare.carmigo.repository.PlatformUserRepository;
+import com.unosquare.carmigo.repository.RepositoryTestApplication;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Changes a user in a committed transaction while another thread looks them up, so the data is set up and removed
+ * with plain SQL rather than in the rolled back transaction of each test.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = RepositoryTestApplication.class)
+@Import({UserSecurityService.class, AccessStatusChangeRegistry.class, SimpleMeterRegistry.class})
+public class UserSecurityServiceTransactionTest extends AbstractRepositoryTest {
+
+  private static final String EMAIL = "eviction@car-migo.com";
+  private static final int ACTIVE_STATUS_ID = 2;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+  @Autowired private ApplicationEventPublisher applicationEventPublisher;
+  @Autowired private PlatformUserRepository platformUserRepository;
+  @Autowired private UserSecurityService userSecurityService;
+
+  @BeforeEach
+  public void setUp() {
+    jdbcTemplate.update("insert into platform_user"
+        + " (created_date, first_name, last_name, dob, email, password, user_access_status_id)"
+        + " values (current_date, 'First', 'Last', date '1990-01-01', ?, 'password', ?)", EMAIL, ACTIVE_STATUS_ID);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    jdbcTemplate.update("delete from platform_user where email = ?", EMAIL);
+  }
+
+  @Test
+  public void lookup_Before_Commit_Does_Not_Outlive_The_Change() {
+    assertThat(status(userSecurityService.loadUserByUsername(EMAIL))).isEqualTo(ACTIVE);
+    transactionTemplate.executeWithoutResult(transactionStatus -> {
+      platformUserRepository.updateUserAccessStatusByEmail(EMAIL, SUSPENDED);
+      applicationEventPublisher.publishEvent(new PlatformUserChangedEvent(Set.of(EMAIL)));
+      // A concurrent request still reads the committed row, and may cache it
+      assertThat(status(CompletableFuture.supplyAsync(() -> userSecurityService.loadUserByUsername(EMAIL))
+          .orTimeout(10, TimeUnit.SECONDS).join())).isEqualTo(ACTIVE);
+    });
+
+    assertThat(status(userSecurityService.loadUserByUsername(EMAIL))).isEqualTo(SUSPENDED);
+  }
+
+  @Test
+  public void change_Published_Outside_A_Transaction_Evicts_At_Once() {
+    assertThat(status(userSecurityService.loadUserByUsername(EMAIL))).isEqualTo(ACTIVE);
+    platformUserRepository.updateUserAccessStatusByEmail(EMAIL, SUSPENDED);
+    applicationEventPublisher.publishEvent(new PlatformUserChangedEvent(Set.of(EMAIL)));
+
+    assertThat(status(userSecurityService.loadUserByUsername(EMAIL))).isEqualTo(SUSPENDED);
+  }
+
+  private static String status(final UserDetails userDetails) {
+    return userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow();
+  }
+}
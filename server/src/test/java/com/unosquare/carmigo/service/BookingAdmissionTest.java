@@ -0,0 +1,181 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.exception.ConflictException;
+import com.unosquare.carmigo.exception.ResourceNotFoundException;
+import com.unosquare.carmigo.exception.TooManyRequestsException;
+import com.unosquare.carmigo.repository.JourneyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAdmissionTest {
+
+  private static final int JOURNEY_ID = 7;
+
+  @Mock private JourneyRepository journeyRepositoryMock;
+  private MeterRegistry meterRegistry;
+  private final AtomicInteger bookings = new AtomicInteger();
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  public void admit_Answers_Full_Without_Booking_Once_Seats_Run_Out() {
+    when(journeyRepositoryMock.findSeatsLeftById(JOURNEY_ID)).thenReturn(Optional.of(2));
+    final BookingAdmission bookingAdmission = bookingAdmission(10);
+    bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet);
+    bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet);
+
+    assertThatThrownBy(() -> bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet))
+        .isInstanceOf(ConflictException.class);
+    assertThat(bookings).hasValue(2);
+    assertThat(rejections("full")).isEqualTo(1);
+    verify(journeyRepositoryMock, times(1)).findSeatsLeftById(JOURNEY_ID);
+  }
+
+  @Test
+  public void admit_Serialises_Concurrent_Bookings_And_Sends_Only_Winners_To_The_Database() throws Exception {
+    when(journeyRepositoryMock.findSeatsLeftById(JOURNEY_ID)).thenReturn(Optional.of(10));
+    final BookingAdmission bookingAdmission = bookingAdmission(500);
+    final AtomicInteger concurrentBookings = new AtomicInteger();
+    final AtomicInteger maximumConcurrentBookings = new AtomicInteger();
+    final List<Throwable> failures = admitConcurrently(bookingAdmission, 200, () -> {
+      maximumConcurrentBookings.accumulateAndGet(concurrentBookings.incrementAndGet(), Math::max);
+      bookings.incrementAndGet();
+      concurrentBookings.decrementAndGet();
+    });
+
+    assertThat(bookings).hasValue(10);
+    assertThat(maximumConcurrentBookings).hasValue(1);
+    assertThat(failures).hasSize(190).allMatch(ConflictException.class::isInstance);
+    assertThat(rejections("full")).isEqualTo(190);
+    assertThat(meterRegistry.get("booking.admission.wait").timer().count()).isPositive();
+  }
+
+  @Test
+  public void admit_Turns_Bookings_Away_Once_The_Queue_Is_Full() throws Exception {
+    when(journeyRepositoryMock.findSeatsLeftById(JOURNEY_ID)).thenReturn(Optional.of(10));
+    final BookingAdmission bookingAdmission = bookingAdmission(1);
+    final CountDownLatch booking = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      final Future<?> holder = executorService.submit(() -> bookingAdmission.admit(JOURNEY_ID, () -> {
+        booking.countDown();
+        awaitQuietly(release);
+      }));
+      booking.await(10, TimeUnit.SECONDS);
+      final Future<?> waiter =
+          executorService.submit(() -> bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet));
+      while (bookingAdmission.queueLength(JOURNEY_ID) == 0) {
+        Thread.sleep(10);
+      }
+
+      assertThatThrownBy(() -> bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet))
+          .isInstanceOf(TooManyRequestsException.class);
+      assertThat(rejections("queue_full")).isEqualTo(1);
+      release.countDown();
+      holder.get(10, TimeUnit.SECONDS);
+      waiter.get(10, TimeUnit.SECONDS);
+      assertThat(bookings).hasValue(1);
+    } finally {
+      release.countDown();
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void admit_Reads_Seats_Left_Again_After_A_Failed_Booking_Or_Invalidation() {
+    when(journeyRepositoryMock.findSeatsLeftById(JOURNEY_ID)).thenReturn(Optional.of(1), Optional.of(1),
+        Optional.of(0));
+    final BookingAdmission bookingAdmission = bookingAdmission(10);
+
+    assertThatThrownBy(() -> bookingAdmission.admit(JOURNEY_ID, () -> {
+      throw new ConflictException("Already booked");
+    })).hasMessage("Already booked");
+    bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet);
+    bookingAdmission.invalidate(JOURNEY_ID);
+    assertThatThrownBy(() -> bookingAdmission.admit(JOURNEY_ID, bookings::incrementAndGet))
+        .isInstanceOf(ConflictException.class);
+    assertThat(bookings).hasValue(1);
+    verify(journeyRepositoryMock, times(3)).findSeatsLeftById(JOURNEY_ID);
+  }
+
+  @Test
+  public void admit_Throws_ResourceNotFoundException_For_Unknown_Journey() {
+    when(journeyRepositoryMock.findSeatsLeftById(JOURNEY_ID)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> bookingAdmission(10).admit(JOURNEY_ID, bookings::incrementAndGet))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThat(bookings).hasValue(0);
+  }
+
+  private BookingAdmission bookingAdmission(final int queueCapacity) {
+    return new BookingAdmission(journeyRepositoryMock, meterRegistry, queueCapacity, Duration.ofSeconds(30),
+        Duration.ofSeconds(30), Duration.ofMinutes(10));
+  }
+
+  private List<Throwable> admitConcurrently(final BookingAdmission bookingAdmission, final int bookers,
+      final Runnable booking) throws Exception {
+    final ExecutorService executorService = Executors.newFixedThreadPool(bookers);
+    final CountDownLatch start = new CountDownLatch(1);
+    try {
+      final List<Future<?>> admissions = IntStream.range(0, bookers)
+          .mapToObj(i -> executorService.submit(() -> {
+            awaitQuietly(start);
+            bookingAdmission.admit(JOURNEY_ID, booking);
+          }))
+          .collect(Collectors.toList());
+      start.countDown();
+      final List<Throwable> failures = new ArrayList<>();
+      for (final Future<?> admission : admissions) {
+        try {
+          admission.get(1, TimeUnit.MINUTES);
+        } catch (final ExecutionException ex) {
+          failures.add(ex.getCause());
+        }
+      }
+      return failures;
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private double rejections(final String reason) {
+    return meterRegistry.get("booking.admission.rejections").tag("reason", reason).counter().count();
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.exception.ServiceUnavailableException;
+import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.openfeign.DistanceApi;
+import com.unosquare.carmigo.util.ResourceUtility;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Runs DistanceService over a real Feign client against a local stub of the distance service that can be made slow
+ * or failing.
+ */
+public class DistanceServiceResilienceTest {
+
+  private static final String GET_DISTANCE_VALID_JSON =
+      ResourceUtility.generateStringFromResource("responseJson/GetDistanceValid.json");
+  private static final int READ_TIMEOUT_MILLIS = 300;
+  private static final int CIRCUIT_BREAKER_WINDOW = 4;
+  private static final int MAX_CONCURRENT_CALLS = 2;
+
+  private final AtomicInteger upstreamCalls = new AtomicInteger();
+  private final AtomicInteger upstreamCallsInFlight = new AtomicInteger();
+  private final AtomicInteger maxUpstreamCallsInFlight = new AtomicInteger();
+  private volatile int upstreamStatus = 200;
+  private volatile long upstreamLatencyMillis;
+
+  private HttpServer server;
+  private DistanceApi distanceApi;
+  private CircuitBreaker circuitBreaker;
+  private Bulkhead bulkhead;
+  private DistanceService distanceService;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/get", this::handleGetDistance);
+    server.start();
+    distanceApi = Feign.builder()
+        .contract(new SpringMvcContract())
+        .decoder(new SpringDecoder(() -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter())))
+        .options(new Request.Options(
+            READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, true))
+        .retryer(Retryer.NEVER_RETRY)
+        .target(DistanceApi.class, "http://localhost:" + server.getAddress().getPort() + "/get");
+    circuitBreaker = CircuitBreaker.of("distance", CircuitBreakerConfig.custom()
+        .slidingWindowSize(CIRCUIT_BREAKER_WINDOW)
+        .minimumNumberOfCalls(CIRCUIT_BREAKER_WINDOW)
+        .failureRateThreshold(50)
+        .waitDurationInOpenState(Duration.ofMinutes(1))
+        .build());
+    bulkhead = Bulkhead.of("distance", BulkheadConfig.custom()
+        .maxConcurrentCalls(MAX_CONCURRENT_CALLS)
+        .maxWaitDuration(Duration.ZERO)
+        .build());
+    // Nothing stays fresh, so every lookup reaches the stub and only the stale copy can answer for it
+    distanceService = distanceService(Duration.ZERO);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void slow_Upstream_Fails_After_Read_Timeout_With_ServiceUnavailableException() {
+    upstreamLatencyMillis = 5_000;
+    final long start = System.nanoTime();
+
+    assertThatThrownBy(() -> distanceService.calculateDistance(criteria("Belfast")))
+        .isInstanceOf(ServiceUnavailableException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+  }
+
+  @Test
+  public void failing_Upstream_Serves_Stale_Distance() {
+    final GrabDistanceDTO fresh = distanceService.calculateDistance(criteria("Belfast"));
+    upstreamStatus = 500;
+    final GrabDistanceDTO stale = distanceService.calculateDistance(criteria("Belfast"));
+
+    assertThat(stale).isEqualTo(fresh);
+    assertThat(upstreamCalls).hasValue(2);
+  }
+
+  @Test
+  public void stale_Distance_Is_Not_Cached_As_Fresh() throws InterruptedException {
+    final Duration expireAfterWrite = Duration.ofMillis(200);
+    distanceService = distanceService(expireAfterWrite);
+    final GrabDistanceDTO fresh = distanceService.calculateDistance(criteria("Belfast"));
+    Thread.sleep(expireAfterWrite.toMillis() * 2);
+    upstreamStatus = 500;
+    assertThat(distanceService.calculateDistance(criteria("Belfast"))).isEqualTo(fresh);
+    upstreamStatus = 200;
+    distanceService.calculateDistance(criteria("Belfast"));
+
+    // The upstream is asked again as soon as it recovers, instead of the stale answer being served until it expires
+    assertThat(upstreamCalls).hasValue(3);
+  }
+
+  @Test
+  public void repeated_Upstream_Failures_Open_Circuit_And_Stop_Calling_Upstream() {
+    upstreamStatus = 500;
+    for (int i = 0; i < CIRCUIT_BREAKER_WINDOW * 3; i++) {
+      assertThatThrownBy(() -> distanceService.calculateDistance(criteria("Belfast")))
+          .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(upstreamCalls).hasValue(CIRCUIT_BREAKER_WINDOW);
+  }
+
+  @Test
+  public void bulkhead_Limits_Concurrent_Upstream_Calls() throws Exception {
+    upstreamLatencyMillis = 200;
+    final int callers = MAX_CONCURRENT_CALLS * 3;
+    final ExecutorService executorService = Executors.newFixedThreadPool(callers);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<GrabDistanceDTO>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < callers; i++) {
+        final CreateCalculateDistanceCriteria criteria = criteria("Town " + i);
+        results.add(executorService.submit(() -> {
+          start.await();
+          return distanceService.calculateDistance(criteria);
+        }));
+      }
+      start.countDown();
+      int rejected = 0;
+      for (final Future<GrabDistanceDTO> result : results) {
+        try {
+          result.get(5, TimeUnit.SECONDS);
+        } catch (final ExecutionException ex) {
+          assertThat(ex).hasCauseInstanceOf(ServiceUnavailableException.class);
+          rejected++;
+        }
+      }
+
+      assertThat(maxUpstreamCallsInFlight.get()).isLessThanOrEqualTo(MAX_CONCURRENT_CALLS);
+      assertThat(rejected).isPositive();
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  private DistanceService distanceService(final Duration expireAfterWrite) {
+    return new DistanceService(distanceApi, mock(Gazetteer.class), new SimpleMeterRegistry(), circuitBreaker,
+        bulkhead, MoreExecutors.newDirectExecutorService(), 100, expireAfterWrite);
+  }
+
+  private void handleGetDistance(final HttpExchange exchange) throws IOException {
+    upstreamCalls.incrementAndGet();
+    maxUpstreamCallsInFlight.accumulateAndGet(upstreamCallsInFlight.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(upstreamLatencyMillis);
+      final byte[] body = GET_DISTANCE_VALID_JSON.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+      exchange.sendResponseHeaders(upstreamStatus, body.length);
+      exchange.getResponseBody().write(body);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (final IOException ex) {
+      // The client gave up waiting
+    } finally {
+      upstreamCallsInFlight.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private static CreateCalculateDistanceCriteria criteria(final String locationFrom) {
+    final CreateCalculateDistanceCriteria criteria = new CreateCalculateDistanceCriteria();
+    criteria.setLocationFrom(locationFrom);
+    criteria.setCountryFrom("UK");
+    criteria.setLocationTo("Newry");
+    criteria.setCountryTo("UK");
+    return criteria;
+  }
+}
@@ -0,0 +1,373 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flextrade.jfixture.FixtureAnnotations;
+import com.flextrade.jfixture.JFixture;
+import com.flextrade.jfixture.annotations.Fixture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.unosquare.carmigo.dto.CreateDistanceMatrixDTO;
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabDistanceMatrixDTO;
+import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.openfeign.Distance;
+import com.unosquare.carmigo.openfeign.DistanceApi;
+import com.unosquare.carmigo.openfeign.DistanceHolder;
+import com.unosquare.carmigo.openfeign.Geocode;
+import com.unosquare.carmigo.openfeign.Points;
+import com.unosquare.carmigo.openfeign.PointsProperty;
+import com.unosquare.carmigo.openfeign.Steps;
+import com.unosquare.carmigo.service.Gazetteer.Place;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.NoResultException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class DistanceServiceTest {
+
+  private static final int CONCURRENT_CALLERS = 16;
+
+  @Mock private DistanceApi distanceApiMock;
+  @Mock private Gazetteer gazetteerMock;
+  private MeterRegistry meterRegistry;
+  private CircuitBreaker circuitBreaker;
+  private DistanceService distanceService;
+
+  @Fixture private DistanceHolder distanceHolderFixture;
+  @Fixture private CreateCalculateDistanceCriteria createCalculateDistanceCriteriaFixture;
+
+  @BeforeEach
+  public void setUp() {
+    final JFixture jFixture = new JFixture();
+    jFixture.customise().circularDependencyBehaviour().omitSpecimen();
+    FixtureAnnotations.initFixtures(this, jFixture);
+    meterRegistry = new SimpleMeterRegistry();
+    circuitBreaker = CircuitBreaker.ofDefaults("distance");
+    distanceService = new DistanceService(distanceApiMock, gazetteerMock, meterRegistry, circuitBreaker,
+        Bulkhead.ofDefaults("distance"), MoreExecutors.newDirectExecutorService(), 100, Duration.ofHours(1));
+  }
+
+  @Test
+  public void calculate_Distance_Returns_GrabDistanceDTO() {
+    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolderFixture);
+    final GrabDistanceDTO grabDistanceDTO = distanceService.calculateDistance(createCalculateDistanceCriteriaFixture);
+
+    assertThat(grabDistanceDTO.getLocationFrom().getLocation())
+        .isEqualTo(distanceHolderFixture.getPoints().get(0).getProperties().getGeocode().getName());
+    assertThat(grabDistanceDTO.getLocationFrom().getCoordinates().getLatitude())
+        .isEqualTo(distanceHolderFixture.getPoints().get(0).getProperties().getGeocode().getLatitude());
+    assertThat(grabDistanceDTO.getLocationFrom().getCoordinates().getLongitude())
+        .isEqualTo(distanceHolderFixture.getPoints().get(0).getProperties().getGeocode().getLongitude());
+    assertThat(grabDistanceDTO.getLocationTo().getLocation())
+        .isEqualTo(distanceHolderFixture.getPoints().get(1).getProperties().getGeocode().getName());
+    assertThat(grabDistanceDTO.getLocationTo().getCoordinates().getLatitude())
+        .isEqualTo(distanceHolderFixture.getPoints().get(1).getProperties().getGeocode().getLatitude());
+    assertThat(grabDistanceDTO.getLocationTo().getCoordinates().getLongitude())
+        .isEqualTo(distanceHolderFixture.getPoints().get(1).getProperties().getGeocode().getLongitude());
+    verify(distanceApiMock).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Serves_Normalised_Route_From_Cache() {
+    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolderFixture);
+    final GrabDistanceDTO first = distanceService.calculateDistance(criteria("Belfast", "UK", "Newry", "UK"));
+    final GrabDistanceDTO second = distanceService.calculateDistance(criteria(" BELFAST ", "uk", "newry", " Uk"));
+
+    assertThat(second).isSameAs(first);
+    verify(distanceApiMock).getDistance(anyString());
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "distance").tag("result", "hit").functionCounter()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  public void calculate_Distance_Is_Direction_Aware() {
+    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolderFixture);
+    distanceService.calculateDistance(criteria("Belfast", "UK", "Newry", "UK"));
+    distanceService.calculateDistance(criteria("Newry", "UK", "Belfast", "UK"));
+
+    verify(distanceApiMock, times(2)).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Throws_NoResultException_And_Does_Not_Cache_Empty_Response() {
+    when(distanceApiMock.getDistance(anyString())).thenReturn(new DistanceHolder());
+
+    assertThatThrownBy(() -> distanceService.calculateDistance(createCalculateDistanceCriteriaFixture))
+        .isInstanceOf(NoResultException.class);
+    assertThatThrownBy(() -> distanceService.calculateDistance(createCalculateDistanceCriteriaFixture))
+        .isInstanceOf(NoResultException.class);
+    verify(distanceApiMock, times(2)).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Throws_NoResultException_When_Response_Has_No_Steps() {
+    when(distanceApiMock.getDistance(anyString()))
+        .thenReturn(distanceHolder(geocode("Belfast", 54.5973, -5.9301), geocode("Newry", 54.1751, -6.3402)));
+
+    assertThatThrownBy(() -> distanceService.calculateDistance(criteria("Belfast", "UK", "Newry", "UK")))
+        .isInstanceOf(NoResultException.class);
+  }
+
+  @Test
+  public void calculate_Distance_Matches_Geocoded_Points_To_Places_By_Name() {
+    // Reordered by the service
+    final DistanceHolder distanceHolder =
+        distanceHolder(geocode("Newry", 54.1751, -6.3402), geocode("Belfast", 54.5973, -5.9301));
+    distanceHolder.setSteps(List.of(step(56.7)));
+    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolder);
+    final GrabDistanceDTO grabDistanceDTO = distanceService.calculateDistance(criteria("Belfast", "UK", "Newry", "UK"));
+
+    assertThat(grabDistanceDTO.getLocationFrom().getLocation()).isEqualTo("Belfast");
+    assertThat(grabDistanceDTO.getLocationFrom().getCoordinates().getLatitude()).isEqualTo(54.5973);
+    assertThat(grabDistanceDTO.getLocationTo().getLocation()).isEqualTo("Newry");
+    assertThat(grabDistanceDTO.getLocationTo().getCoordinates().getLatitude()).isEqualTo(54.1751);
+    assertThat(grabDistanceDTO.getDistance().getKm()).isEqualTo(56.7);
+  }
+
+  @Test
+  public void calculate_Distance_Answers_From_Gazetteer_Without_Upstream_Call() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    when(gazetteerMock.find("Dublin", "Ireland")).thenReturn(Optional.of(new Place("Dublin", "ie", 53.3498, -6.2603)));
+    final GrabDistanceDTO grabDistanceDTO = distanceService.calculateDistance(
+        criteria("Belfast", "UK", "Dublin", "Ireland"));
+
+    assertThat(grabDistanceDTO.getLocationFrom().getLocation()).isEqualTo("Belfast");
+    assertThat(grabDistanceDTO.getLocationTo().getCoordinates().getLatitude()).isEqualTo(53.3498);
+    assertThat(grabDistanceDTO.getDistance().getKm()).isEqualTo(140.4);
+    assertThat(grabDistanceDTO.getDistance().getMi()).isEqualTo(87.2);
+    verify(distanceApiMock, never()).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Runs_Hook_Only_Before_Remote_Call() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    when(gazetteerMock.find("Dublin", "Ireland")).thenReturn(Optional.of(new Place("Dublin", "ie", 53.3498, -6.2603)));
+    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolderFixture);
+    final AtomicInteger remoteCalls = new AtomicInteger();
+    distanceService.calculateDistance(criteria("Belfast", "UK", "Dublin", "Ireland"), remoteCalls::incrementAndGet);
+    distanceService.calculateDistance(criteria("Belfast", "UK", "Newry", "UK"), remoteCalls::incrementAndGet);
+    distanceService.calculateDistance(criteria("Belfast", "UK", "Newry", "UK"), remoteCalls::incrementAndGet);
+
+    assertThat(remoteCalls).hasValue(1);
+    verify(distanceApiMock).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Calls_Upstream_When_Gazetteer_Cannot_Resolve_Both_Places() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolderFixture);
+    distanceService.calculateDistance(criteria("Belfast", "UK", "Nowhere", "UK"));
+
+    verify(distanceApiMock).getDistance(anyString());
+  }
+
+  @Test
+  public void concurrent_Calculate_Distance_For_Same_Route_Share_One_Upstream_Call() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    when(distanceApiMock.getDistance(anyString())).thenAnswer(invocation -> {
+      release.await();
+      return distanceHolderFixture;
+    });
+    final List<Future<GrabDistanceDTO>> results = calculateDistanceConcurrently(release);
+
+    final GrabDistanceDTO first = results.get(0).get(5, TimeUnit.SECONDS);
+    for (final Future<GrabDistanceDTO> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+    }
+    verify(distanceApiMock).getDistance(anyString());
+  }
+
+  @Test
+  public void concurrent_Calculate_Distance_For_Same_Route_Share_One_Upstream_Failure() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    when(distanceApiMock.getDistance(anyString())).thenAnswer(invocation -> {
+      release.await();
+      throw new IllegalStateException("upstream failed");
+    });
+    final List<Future<GrabDistanceDTO>> results = calculateDistanceConcurrently(release);
+
+    for (final Future<GrabDistanceDTO> result : results) {
+      assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("upstream failed");
+    }
+    verify(distanceApiMock).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Matrix_Dedupes_Places_And_Answers_From_Gazetteer() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    when(gazetteerMock.find("Dublin", "Ireland")).thenReturn(Optional.of(new Place("Dublin", "ie", 53.3498, -6.2603)));
+    final GrabDistanceMatrixDTO grabDistanceMatrixDTO = distanceService.calculateDistanceMatrix(matrix(
+        List.of(place("Belfast", "UK"), place(" belfast ", "uk")),
+        List.of(place("Dublin", "Ireland"), place("Belfast", "UK"))));
+
+    assertThat(grabDistanceMatrixDTO.getOrigins()).extracting(GrabDistanceDTO.Location::getLocation)
+        .containsExactly("Belfast");
+    assertThat(grabDistanceMatrixDTO.getDestinations()).extracting(GrabDistanceDTO.Location::getLocation)
+        .containsExactly("Dublin", "Belfast");
+    assertThat(grabDistanceMatrixDTO.getKm()).containsExactly(List.of(140.4, 0.0));
+    assertThat(grabDistanceMatrixDTO.getMi()).containsExactly(List.of(87.2, 0.0));
+    verify(gazetteerMock).find("Belfast", "UK");
+    verify(distanceApiMock, never()).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Matrix_Geocodes_Unresolved_Places_In_One_Route_And_Remembers_Them() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    when(distanceApiMock.getDistance("[{\"t\":\"Lisburn,UK\"},{\"t\":\"Bangor,UK\"}]"))
+        .thenReturn(distanceHolder(geocode("Lisburn", 54.5162, -6.058), geocode("Bangor", 54.6536, -5.6682)));
+    final CreateDistanceMatrixDTO createDistanceMatrixDTO = matrix(
+        List.of(place("Belfast", "UK")), List.of(place("Lisburn", "UK"), place("Bangor", "UK")));
+    final GrabDistanceMatrixDTO first = distanceService.calculateDistanceMatrix(createDistanceMatrixDTO);
+    final GrabDistanceMatrixDTO second = distanceService.calculateDistanceMatrix(createDistanceMatrixDTO);
+
+    assertThat(first.getDestinations()).extracting(GrabDistanceDTO.Location::getLocation)
+        .containsExactly("Lisburn", "Bangor");
+    assertThat(first.getKm()).containsExactly(List.of(12.2, 18.0));
+    assertThat(second).isEqualTo(first);
+    verify(distanceApiMock).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Matrix_Matches_Geocoded_Points_To_Places_By_Name() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    // Reordered, and Holywood left out
+    when(distanceApiMock.getDistance("[{\"t\":\"Lisburn,UK\"},{\"t\":\"Bangor,UK\"},{\"t\":\"Holywood,UK\"}]"))
+        .thenReturn(distanceHolder(geocode("Bangor", 54.6536, -5.6682), geocode("Lisburn", 54.5162, -6.058)));
+    final GrabDistanceMatrixDTO grabDistanceMatrixDTO = distanceService.calculateDistanceMatrix(matrix(
+        List.of(place("Belfast", "UK")),
+        List.of(place("Lisburn", "UK"), place("Bangor", "UK"), place("Holywood", "UK"))));
+
+    assertThat(grabDistanceMatrixDTO.getDestinations()).extracting(GrabDistanceDTO.Location::getLocation)
+        .containsExactly("Lisburn", "Bangor", "Holywood");
+    assertThat(grabDistanceMatrixDTO.getKm()).containsExactly(Arrays.asList(12.2, 18.0, null));
+  }
+
+  @Test
+  public void calculate_Distance_Matrix_Leaves_Unresolved_Pairs_Null_When_Upstream_Is_Unavailable() {
+    when(gazetteerMock.find("Belfast", "UK")).thenReturn(Optional.of(new Place("Belfast", "gb", 54.5973, -5.9301)));
+    circuitBreaker.transitionToForcedOpenState();
+    final GrabDistanceMatrixDTO grabDistanceMatrixDTO = distanceService.calculateDistanceMatrix(matrix(
+        List.of(place("Belfast", "UK")), List.of(place("Belfast", "UK"), place("Atlantis", "UK"))));
+
+    assertThat(grabDistanceMatrixDTO.getDestinations()).extracting(GrabDistanceDTO.Location::getLocation)
+        .containsExactly("Belfast", "Atlantis");
+    assertThat(grabDistanceMatrixDTO.getDestinations().get(1).getCoordinates()).isNull();
+    assertThat(grabDistanceMatrixDTO.getKm()).containsExactly(Arrays.asList(0.0, null));
+    verify(distanceApiMock, never()).getDistance(anyString());
+  }
+
+  @Test
+  public void calculate_Distance_Matrix_Rethrows_Unexpected_Geocoding_Failure_Unwrapped() {
+    when(distanceApiMock.getDistance(anyString())).thenThrow(new IllegalStateException("upstream failed"));
+
+    assertThatThrownBy(() -> distanceService.calculateDistanceMatrix(matrix(
+        List.of(place("Belfast", "UK")), List.of(place("Atlantis", "UK")))))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("upstream failed");
+  }
+
+  /**
+   * Starts the callers together and lets the upstream call complete only once they are all waiting on it.
+   */
+  private List<Future<GrabDistanceDTO>> calculateDistanceConcurrently(final CountDownLatch release)
+      throws InterruptedException {
+    final ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENT_CALLERS);
+    final CountDownLatch started = new CountDownLatch(CONCURRENT_CALLERS);
+    final List<Future<GrabDistanceDTO>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < CONCURRENT_CALLERS; i++) {
+        results.add(executorService.submit(() -> {
+          started.countDown();
+          return distanceService.calculateDistance(createCalculateDistanceCriteriaFixture);
+        }));
+      }
+      started.await(5, TimeUnit.SECONDS);
+      Thread.sleep(200);
+      release.countDown();
+      return results;
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  private static CreateCalculateDistanceCriteria criteria(final String locationFrom, final String countryFrom,
+      final String locationTo, final String countryTo) {
+    final CreateCalculateDistanceCriteria criteria = new CreateCalculateDistanceCriteria();
+    criteria.setLocationFrom(locationFrom);
+    criteria.setCountryFrom(countryFrom);
+    criteria.setLocationTo(locationTo);
+    criteria.setCountryTo(countryTo);
+    return criteria;
+  }
+
+  private static CreateDistanceMatrixDTO matrix(final List<CreateDistanceMatrixDTO.Place> origins,
+      final List<CreateDistanceMatrixDTO.Place> destinations) {
+    final CreateDistanceMatrixDTO createDistanceMatrixDTO = new CreateDistanceMatrixDTO();
+    createDistanceMatrixDTO.setOrigins(origins);
+    createDistanceMatrixDTO.setDestinations(destinations);
+    return createDistanceMatrixDTO;
+  }
+
+  private static CreateDistanceMatrixDTO.Place place(final String location, final String country) {
+    final CreateDistanceMatrixDTO.Place place = new CreateDistanceMatrixDTO.Place();
+    place.setLocation(location);
+    place.setCountry(country);
+    return place;
+  }
+
+  private static DistanceHolder distanceHolder(final Geocode... geocodes) {
+    final List<Points> points = new ArrayList<>();
+    for (final Geocode geocode : geocodes) {
+      final PointsProperty pointsProperty = new PointsProperty();
+      pointsProperty.setGeocode(geocode);
+      final Points point = new Points();
+      point.setProperties(pointsProperty);
+      points.add(point);
+    }
+    final DistanceHolder distanceHolder = new DistanceHolder();
+    distanceHolder.setPoints(points);
+    return distanceHolder;
+  }
+
+  private static Steps step(final double km) {
+    final Distance distance = new Distance();
+    distance.setGreatCircle(km);
+    final Steps step = new Steps();
+    step.setDistance(distance);
+    return step;
+  }
+
+  private static Geocode geocode(final String name, final double latitude, final double longitude) {
+    final Geocode geocode = new Geocode();
+    geocode.setName(name);
+    geocode.setLatitude(latitude);
+    geocode.setLongitude(longitude);
+    return geocode;
+  }
+}
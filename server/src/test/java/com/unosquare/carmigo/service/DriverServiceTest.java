@@ -0,0 +1,56 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.repository.DriverRepository;
+import com.unosquare.carmigo.repository.projection.DriverVersionProjection;
+import com.unosquare.carmigo.security.Authorization;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class DriverServiceTest {
+
+  private static final int DRIVER_ID = 7;
+
+  @Mock private DriverRepository driverRepositoryMock;
+  @Mock private Authorization authorizationMock;
+  @InjectMocks private DriverService driverService;
+
+  @Test
+  public void get_Driver_Entity_Tag_Without_License_Number_Uses_Version_Alone() {
+    when(driverRepositoryMock.findDriverVersionProjectionById(DRIVER_ID)).thenReturn(Optional.of(projection(3, null)));
+
+    assertThat(driverService.getDriverEntityTag(DRIVER_ID).getValue()).isEqualTo("\"3\"");
+  }
+
+  @Test
+  public void get_Driver_Entity_Tag_Changes_With_License_Number() {
+    when(driverRepositoryMock.findDriverVersionProjectionById(DRIVER_ID))
+        .thenReturn(Optional.of(projection(3, "Aa")), Optional.of(projection(3, "BB")));
+
+    // "Aa" and "BB" share a String hash code
+    assertThat(driverService.getDriverEntityTag(DRIVER_ID).getValue())
+        .startsWith("\"3.")
+        .isNotEqualTo(driverService.getDriverEntityTag(DRIVER_ID).getValue());
+  }
+
+  private static DriverVersionProjection projection(final int version, final String licenseNumber) {
+    return new DriverVersionProjection() {
+      @Override
+      public int getVersion() {
+        return version;
+      }
+
+      @Override
+      public String getLicenseNumber() {
+        return licenseNumber;
+      }
+    };
+  }
+}
@@ -0,0 +1,90 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.unosquare.carmigo.service.Gazetteer.Place;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GazetteerTest {
+
+  private static Gazetteer bundledGazetteer;
+
+  @BeforeAll
+  public static void setUp() throws IOException {
+    bundledGazetteer = new Gazetteer("");
+  }
+
+  @Test
+  public void find_Resolves_Bundled_Place_By_Name_And_Country_Alias() {
+    final Place place = bundledGazetteer.find(" rostrevor ", "Northern  Ireland").orElseThrow();
+
+    assertThat(place.getName()).isEqualTo("Rostrevor");
+    assertThat(place.getCountryCode()).isEqualTo("gb");
+    assertThat(place.getLatitude()).isEqualTo(54.101);
+    assertThat(place.getLongitude()).isEqualTo(-6.2);
+  }
+
+  @Test
+  public void find_Resolves_Country_By_Iso_Code_And_English_Name() {
+    assertThat(bundledGazetteer.find("Dublin", "IE")).isPresent();
+    assertThat(bundledGazetteer.find("Dublin", "Ireland")).isPresent();
+    assertThat(bundledGazetteer.find("Dublin", "IRL")).isPresent();
+    assertThat(bundledGazetteer.find("Dublin", "GB")).isEmpty();
+  }
+
+  @Test
+  public void find_Falls_Back_To_Unambiguous_Name_When_Country_Is_Blank() {
+    assertThat(bundledGazetteer.find("Belfast", " ")).map(Place::getName).contains("Belfast");
+    assertThat(bundledGazetteer.find("Belfast", null)).map(Place::getName).contains("Belfast");
+  }
+
+  @Test
+  public void find_Returns_Empty_When_Country_Is_Not_Recognised() {
+    assertThat(bundledGazetteer.find("Belfast", "Untied Kingdom")).isEmpty();
+  }
+
+  @Test
+  public void find_Returns_Empty_For_Unknown_Place() {
+    assertThat(bundledGazetteer.find("Atlantis", "UK")).isEmpty();
+    assertThat(bundledGazetteer.find("Atlantis", "")).isEmpty();
+  }
+
+  @Test
+  public void find_By_Prefix_Returns_Places_In_Key_Order() {
+    assertThat(bundledGazetteer.findByPrefix("new", 10)).extracting(Place::getName)
+        .containsExactly("New York", "Newcastle upon Tyne", "Newry", "Newtownards");
+    assertThat(bundledGazetteer.findByPrefix("new", 2)).hasSize(2);
+  }
+
+  @Test
+  public void compiled_File_Is_Mapped_From_Configured_Path(@TempDir final Path directory) throws IOException {
+    final Path file = directory.resolve("places.bin");
+    Gazetteer.compile(csv("# comment", "", "Springfield,US,39.7817,-89.6501", "Springfield,US,0,0",
+        "Springfield,AU,-27.6540,152.9170"), file);
+    final Gazetteer gazetteer = new Gazetteer(file.toString());
+
+    assertThat(gazetteer.size()).isEqualTo(2);
+    assertThat(gazetteer.find("springfield", "usa")).map(Place::getLatitude).contains(39.7817);
+    // Ambiguous without a country
+    assertThat(gazetteer.find("Springfield", "Simpsons")).isEmpty();
+  }
+
+  @Test
+  public void constructor_Rejects_File_That_Is_Not_A_Gazetteer(@TempDir final Path directory) throws IOException {
+    final Path file = Files.writeString(directory.resolve("places.csv"), "Belfast,GB,54.5973,-5.9301");
+
+    assertThatThrownBy(() -> new Gazetteer(file.toString())).isInstanceOf(IllegalStateException.class);
+  }
+
+  private static BufferedReader csv(final String... lines) {
+    return new BufferedReader(new StringReader(String.join("\n", lines)));
+  }
+}
@@ -0,0 +1,178 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.repository.JourneyRepository;
+import com.unosquare.carmigo.repository.projection.JourneyIndexProjection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class JourneySearchIndexTest {
+
+  private static final Instant MORNING = Instant.parse("2022-12-01T09:00:00Z");
+  private static final Instant NOON = Instant.parse("2022-12-01T12:00:00Z");
+  private static final Instant EVENING = Instant.parse("2022-12-01T18:00:00Z");
+  private static final Instant MIDNIGHT = Instant.parse("2022-12-02T00:00:00Z");
+  private static final int REFRESHERS = 16;
+
+  @Mock private JourneyRepository journeyRepositoryMock;
+  @InjectMocks private JourneySearchIndex journeySearchIndex;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(journeySearchIndex, "enabled", true);
+  }
+
+  @Test
+  public void search_Returns_Journeys_Of_Route_Within_Window_In_Departure_Order() {
+    journeySearchIndex.put(3, 1, 2, EVENING, 2, 10);
+    journeySearchIndex.put(1, 1, 2, MORNING, 3, 11);
+    journeySearchIndex.put(2, 1, 2, NOON, 1, 12);
+    journeySearchIndex.put(4, 2, 1, NOON, 4, 13);
+    final JourneySearchIndex.Slice slice = journeySearchIndex.search(1, 2, MORNING, NOON, MORNING, 0, 10);
+
+    assertThat(slice.getJourneyIds()).containsExactly(1, 2);
+    assertThat(slice.getDepartures()).containsExactly(MORNING.getEpochSecond(), NOON.getEpochSecond());
+    assertThat(slice.getFreeSeats()).containsExactly(3, 1);
+    assertThat(slice.getDriverIds()).containsExactly(11, 12);
+  }
+
+  @Test
+  public void search_Resumes_After_Keyset_Position_And_Honours_Limit() {
+    journeySearchIndex.put(1, 1, 2, NOON, 3, 10);
+    journeySearchIndex.put(2, 1, 2, NOON, 3, 10);
+    journeySearchIndex.put(3, 1, 2, NOON, 3, 10);
+    journeySearchIndex.put(4, 1, 2, EVENING, 3, 10);
+
+    assertThat(journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, MORNING, 0, 2).getJourneyIds())
+        .containsExactly(1, 2);
+    assertThat(journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, NOON, 2, 2).getJourneyIds())
+        .containsExactly(3, 4);
+    assertThat(journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, EVENING, 4, 2).size()).isZero();
+  }
+
+  @Test
+  public void put_Existing_Journey_Moves_It_And_Remove_Drops_It() {
+    journeySearchIndex.put(1, 1, 2, MORNING, 3, 10);
+    journeySearchIndex.put(2, 1, 2, NOON, 3, 10);
+    journeySearchIndex.put(1, 1, 2, EVENING, 2, 10);
+
+    assertThat(journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, MORNING, 0, 10).getJourneyIds())
+        .containsExactly(2, 1);
+
+    journeySearchIndex.remove(2);
+    journeySearchIndex.put(1, 3, 4, EVENING, 2, 10);
+
+    assertThat(journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, MORNING, 0, 10).size()).isZero();
+    assertThat(journeySearchIndex.search(3, 4, MORNING, MIDNIGHT, MORNING, 0, 10).getJourneyIds())
+        .containsExactly(1);
+  }
+
+  @Test
+  public void concurrent_Refreshes_Of_A_Journey_Keep_It_In_Its_Route_Once() throws Exception {
+    journeySearchIndex.put(2, 1, 2, MORNING, 3, 10);
+    when(journeyRepositoryMock.findForSearchIndexById(1)).thenReturn(Optional.of(row(1, NOON, 4, 1)));
+    final ExecutorService executorService = Executors.newFixedThreadPool(REFRESHERS);
+    final CountDownLatch start = new CountDownLatch(1);
+    try {
+      final List<Future<?>> refreshes = IntStream.range(0, REFRESHERS)
+          .mapToObj(i -> executorService.submit(() -> {
+            start.await();
+            for (int refresh = 0; refresh < 100; refresh++) {
+              journeySearchIndex.refresh(1);
+            }
+            return null;
+          }))
+          .collect(Collectors.toList());
+      start.countDown();
+      for (final Future<?> refresh : refreshes) {
+        refresh.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    final JourneySearchIndex.Slice slice = journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, MORNING, 0, 10);
+
+    assertThat(slice.getJourneyIds()).containsExactly(2, 1);
+    assertThat(slice.getFreeSeats()).containsExactly(3, 3);
+  }
+
+  @Test
+  public void refresh_Removes_Journey_No_Longer_In_Repository() {
+    journeySearchIndex.put(1, 1, 2, MORNING, 3, 10);
+    when(journeyRepositoryMock.findForSearchIndexById(1)).thenReturn(Optional.empty());
+    journeySearchIndex.refresh(1);
+
+    assertThat(journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, MORNING, 0, 10).size()).isZero();
+  }
+
+  @Test
+  public void rebuild_Loads_Every_Journey_From_Repository() {
+    final List<JourneyIndexProjection> rows = new ArrayList<>(List.of(
+        row(2, NOON, 4, 1), row(1, MORNING, 3, 3)));
+    when(journeyRepositoryMock.findAllForSearchIndex()).thenReturn(rows);
+    journeySearchIndex.rebuild();
+    final JourneySearchIndex.Slice slice = journeySearchIndex.search(1, 2, MORNING, MIDNIGHT, MORNING, 0, 10);
+
+    assertThat(slice.getJourneyIds()).containsExactly(1, 2);
+    assertThat(slice.getFreeSeats()).containsExactly(0, 3);
+  }
+
+  private static JourneyIndexProjection row(final int id, final Instant dateTime, final int maxPassengers,
+      final int passengerCount) {
+    return new JourneyIndexProjection() {
+      @Override
+      public int getId() {
+        return id;
+      }
+
+      @Override
+      public int getLocationIdFrom() {
+        return 1;
+      }
+
+      @Override
+      public int getLocationIdTo() {
+        return 2;
+      }
+
+      @Override
+      public Instant getDateTime() {
+        return dateTime;
+      }
+
+      @Override
+      public int getMaxPassengers() {
+        return maxPassengers;
+      }
+
+      @Override
+      public int getDriverId() {
+        return 10;
+      }
+
+      @Override
+      public int getPassengerCount() {
+        return passengerCount;
+      }
+    };
+  }
+}
@@ -1,47 +1,77 @@
 package com.unosquare.carmigo.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flextrade.jfixture.FixtureAnnotations;
 import com.flextrade.jfixture.JFixture;
 import com.flextrade.jfixture.annotations.Fixture;
 import com.github.fge.jsonpatch.JsonPatch;
+import com.unosquare.carmigo.configuration.MapperConfiguration;
 import com.unosquare.carmigo.dto.CreateJourneyDTO;
 import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.dto.GrabJourneyBatchItemDTO;
 import com.unosquare.carmigo.dto.GrabJourneyDTO;
+import com.unosquare.carmigo.dto.GrabJourneyPageDTO;
+import com.unosquare.carmigo.dto.GrabPassengerDTO;
 import com.unosquare.carmigo.entity.Driver;
 import com.unosquare.carmigo.entity.Journey;
 import com.unosquare.carmigo.entity.Location;
+import com.unosquare.carmigo.exception.BadRequestException;
+import com.unosquare.carmigo.exception.ConflictException;
+import com.unosquare.carmigo.exception.PatchException;
+import com.unosquare.carmigo.exception.PreconditionFailedException;
+import com.unosquare.carmigo.exception.ResourceNotFoundException;
+import com.unosquare.carmigo.mapper.JourneyMapper;
 import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
 import com.unosquare.carmigo.model.request.CreateSearchJourneysCriteria;
 import com.unosquare.carmigo.model.response.DistanceViewModel;
-import com.unosquare.carmigo.openfeign.DistanceApi;
-import com.unosquare.carmigo.openfeign.DistanceHolder;
-import com.unosquare.carmigo.openfeign.Points;
+import com.unosquare.carmigo.repository.DriverRepository;
 import com.unosquare.carmigo.repository.JourneyRepository;
+import com.unosquare.carmigo.repository.LocationRepository;
 import com.unosquare.carmigo.repository.PassengerJourneyRepository;
-import com.unosquare.carmigo.util.MapperUtils;
+import com.unosquare.carmigo.repository.PassengerRepository;
+import com.unosquare.carmigo.repository.projection.JourneyDriverProjection;
+import com.unosquare.carmigo.repository.projection.JourneyPassengerProjection;
+import com.unosquare.carmigo.repository.projection.JourneyVersionProjection;
+import com.unosquare.carmigo.security.Authorization;
+import com.unosquare.carmigo.util.JsonPatchCompiler;
+import com.unosquare.carmigo.util.KeysetCursor;
 import com.unosquare.carmigo.util.PatchUtility;
 import com.unosquare.carmigo.util.ResourceUtility;
+import com.unosquare.carmigo.util.Tagged;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 public class JourneyServiceTest {
@@ -51,18 +81,31 @@ public class JourneyServiceTest {
 
   @Mock private JourneyRepository journeyRepositoryMock;
   @Mock private PassengerJourneyRepository passengerJourneyRepositoryMock;
-  @Mock private ModelMapper modelMapperMock;
-  @Mock private ObjectMapper objectMapperMock;
+  @Mock private LocationRepository locationRepositoryMock;
+  @Mock private DriverRepository driverRepositoryMock;
+  @Mock private PassengerRepository passengerRepositoryMock;
+  @Mock private JourneyMapper journeyMapperMock;
   @Mock private EntityManager entityManagerMock;
-  @Mock private DistanceApi distanceApiMock;
+  @Mock private Metamodel metamodelMock;
+  @Mock private EntityType<Journey> journeyEntityTypeMock;
+  @Mock private Query queryMock;
+  @Mock private JourneyVersionProjection journeyVersionProjectionMock;
+  @Mock private DistanceService distanceServiceMock;
+  @Mock private JourneySearchIndex journeySearchIndexMock;
+  @Mock private LocationDistanceService locationDistanceServiceMock;
+  @Mock private Authorization authorizationMock;
+  @Mock private BookingAdmission bookingAdmissionMock;
+  @Spy private JsonPatchCompiler jsonPatchCompiler = new JsonPatchCompiler(
+      new MapperConfiguration().objectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
   @InjectMocks private JourneyService journeyService;
 
   @Fixture private GrabJourneyDTO grabJourneyDTOFixture;
   @Fixture private Journey journeyFixture;
   @Fixture private CreateJourneyDTO createJourneyDTOFixture;
-  @Fixture private List<Journey> journeyFixtureList;
+  @Fixture private JourneyDriverProjection journeyDriverProjectionFixture;
+  @Fixture private List<JourneyDriverProjection> journeyDriverProjectionFixtureList;
+  @Fixture private List<JourneyPassengerProjection> journeyPassengerProjectionFixtureList;
   @Fixture private CreateSearchJourneysCriteria createSearchJourneysCriteriaFixture;
-  @Fixture private DistanceHolder distanceHolderFixture;
   @Fixture private CreateCalculateDistanceCriteria createCalculateDistanceCriteriaFixture;
 
   @BeforeEach
@@ -74,61 +117,147 @@ public class JourneyServiceTest {
 
   @Test
   public void get_Journey_By_Id_Returns_GrabJourneyDTO() {
-    when(journeyRepositoryMock.findById(anyInt())).thenReturn(Optional.of(journeyFixture));
-    when(modelMapperMock.map(journeyFixture, GrabJourneyDTO.class)).thenReturn(grabJourneyDTOFixture);
+    when(journeyRepositoryMock.findJourneyDriverProjectionById(anyInt()))
+        .thenReturn(Optional.of(journeyDriverProjectionFixture));
     final GrabJourneyDTO grabJourneyDTO = journeyService.getJourneyById(anyInt());
 
-    assertThat(grabJourneyDTO.getId()).isEqualTo(grabJourneyDTOFixture.getId());
-    assertThat(grabJourneyDTO.getCreatedDate()).isEqualTo(grabJourneyDTOFixture.getCreatedDate());
-    assertThat(grabJourneyDTO.getLocationFrom()).isEqualTo(grabJourneyDTOFixture.getLocationFrom());
-    assertThat(grabJourneyDTO.getLocationTo()).isEqualTo(grabJourneyDTOFixture.getLocationTo());
-    assertThat(grabJourneyDTO.getMaxPassengers()).isEqualTo(grabJourneyDTOFixture.getMaxPassengers());
-    assertThat(grabJourneyDTO.getDateTime()).isEqualTo(grabJourneyDTOFixture.getDateTime());
-    assertThat(grabJourneyDTO.getDriver()).isEqualTo(grabJourneyDTOFixture.getDriver());
-    verify(journeyRepositoryMock).findById(anyInt());
+    assertThat(grabJourneyDTO.getId()).isEqualTo(journeyDriverProjectionFixture.getId());
+    assertThat(grabJourneyDTO.getCreatedDate()).isEqualTo(journeyDriverProjectionFixture.getCreatedDate());
+    assertThat(grabJourneyDTO.getLocationFrom().getId()).isEqualTo(journeyDriverProjectionFixture.getLocationIdFrom());
+    assertThat(grabJourneyDTO.getLocationTo().getDescription())
+        .isEqualTo(journeyDriverProjectionFixture.getLocationDescriptionTo());
+    assertThat(grabJourneyDTO.getMaxPassengers()).isEqualTo(journeyDriverProjectionFixture.getMaxPassengers());
+    assertThat(grabJourneyDTO.getDateTime()).isEqualTo(journeyDriverProjectionFixture.getDateTime());
+    assertThat(grabJourneyDTO.getDriver().getId()).isEqualTo(journeyDriverProjectionFixture.getDriverId());
+    assertThat(grabJourneyDTO.getDriver().getPlatformUser().getEmail())
+        .isEqualTo(journeyDriverProjectionFixture.getEmail());
+    assertThat(grabJourneyDTO.getDriver().getPlatformUser().getUserAccessStatus().getStatus())
+        .isEqualTo(journeyDriverProjectionFixture.getUserAccessStatus());
+    verify(journeyRepositoryMock).findJourneyDriverProjectionById(anyInt());
+    verify(journeyRepositoryMock, never()).findById(anyInt());
+  }
+
+  @Test
+  public void get_Journey_By_Id_Throws_ResourceNotFoundException_When_Missing() {
+    when(journeyRepositoryMock.findJourneyDriverProjectionById(anyInt())).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> journeyService.getJourneyById(1)).isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  public void search_Journeys_Returns_GrabJourneyPageDTO() {
+    createSearchJourneysCriteriaFixture.setContinuationToken(null);
+    createSearchJourneysCriteriaFixture.setLimit(journeyDriverProjectionFixtureList.size());
+    when(journeyRepositoryMock.findJourneyDriverProjectionsByRouteAfter(anyInt(), anyInt(), any(Instant.class),
+        any(Instant.class), any(Instant.class), anyInt(), any(Pageable.class)))
+        .thenReturn(journeyDriverProjectionFixtureList);
+    final GrabJourneyPageDTO grabJourneyPageDTO = journeyService.searchJourneys(createSearchJourneysCriteriaFixture);
+
+    assertThat(grabJourneyPageDTO.getJourneys().size()).isEqualTo(journeyDriverProjectionFixtureList.size());
+    assertThat(grabJourneyPageDTO.getContinuationToken()).isNull();
+    verify(journeyRepositoryMock).findJourneyDriverProjectionsByRouteAfter(anyInt(), anyInt(), any(Instant.class),
+        any(Instant.class), any(Instant.class), anyInt(), any(Pageable.class));
+  }
+
+  @Test
+  public void search_Journeys_Returns_Continuation_Token_When_More_Results() {
+    createSearchJourneysCriteriaFixture.setContinuationToken(null);
+    createSearchJourneysCriteriaFixture.setLimit(journeyDriverProjectionFixtureList.size() - 1);
+    when(journeyRepositoryMock.findJourneyDriverProjectionsByRouteAfter(anyInt(), anyInt(), any(Instant.class),
+        any(Instant.class), any(Instant.class), anyInt(), any(Pageable.class)))
+        .thenReturn(journeyDriverProjectionFixtureList);
+    final GrabJourneyPageDTO grabJourneyPageDTO = journeyService.searchJourneys(createSearchJourneysCriteriaFixture);
+    final JourneyDriverProjection last =
+        journeyDriverProjectionFixtureList.get(journeyDriverProjectionFixtureList.size() - 2);
+    final KeysetCursor cursor = KeysetCursor.decode(grabJourneyPageDTO.getContinuationToken());
+
+    assertThat(grabJourneyPageDTO.getJourneys().size()).isEqualTo(journeyDriverProjectionFixtureList.size() - 1);
+    assertThat(cursor.getDateTime()).isEqualTo(last.getDateTime());
+    assertThat(cursor.getId()).isEqualTo(last.getId());
+  }
+
+  @Test
+  public void search_Journeys_Uses_Search_Index_When_Enabled() {
+    createSearchJourneysCriteriaFixture.setContinuationToken(null);
+    createSearchJourneysCriteriaFixture.setLimit(journeyDriverProjectionFixtureList.size());
+    final int[] journeyIds = journeyDriverProjectionFixtureList.stream().mapToInt(JourneyDriverProjection::getId)
+        .toArray();
+    final JourneySearchIndex.Slice slice = new JourneySearchIndex.Slice(
+        new long[journeyIds.length], journeyIds, new int[journeyIds.length], new int[journeyIds.length]);
+    when(journeySearchIndexMock.isEnabled()).thenReturn(true);
+    when(journeySearchIndexMock.search(anyInt(), anyInt(), any(Instant.class), any(Instant.class),
+        any(Instant.class), anyInt(), anyInt())).thenReturn(slice);
+    when(journeyRepositoryMock.findJourneyDriverProjectionsByIdIn(anyList()))
+        .thenReturn(journeyDriverProjectionFixtureList);
+    final GrabJourneyPageDTO grabJourneyPageDTO = journeyService.searchJourneys(createSearchJourneysCriteriaFixture);
+
+    assertThat(grabJourneyPageDTO.getJourneys().size()).isEqualTo(journeyDriverProjectionFixtureList.size());
+    verify(journeyRepositoryMock, never()).findJourneyDriverProjectionsByRouteAfter(anyInt(), anyInt(),
+        any(Instant.class), any(Instant.class), any(Instant.class), anyInt(), any(Pageable.class));
+  }
+
+  @Test
+  public void search_Journeys_Throws_ResourceNotFoundException_When_Search_Index_Has_No_Match() {
+    createSearchJourneysCriteriaFixture.setContinuationToken(null);
+    when(journeySearchIndexMock.isEnabled()).thenReturn(true);
+    when(journeySearchIndexMock.search(anyInt(), anyInt(), any(Instant.class), any(Instant.class),
+        any(Instant.class), anyInt(), anyInt())).thenReturn(new JourneySearchIndex.Slice(
+        new long[0], new int[0], new int[0], new int[0]));
+
+    assertThatThrownBy(() -> journeyService.searchJourneys(createSearchJourneysCriteriaFixture))
+        .isInstanceOf(ResourceNotFoundException.class);
+    verify(journeyRepositoryMock, never()).findJourneyDriverProjectionsByIdIn(anyList());
   }
 
   @Test
-  public void search_Journeys_Returns_List_of_GrabJourneyDTO() {
-    when(journeyRepositoryMock.findJourneysByLocationFromIdAndLocationToIdAndDateTimeBetween(
-        anyInt(), anyInt(), any(Instant.class), any(Instant.class))).thenReturn(journeyFixtureList);
-    final List<GrabJourneyDTO> grabJourneyDTOList = MapperUtils.mapList(journeyFixtureList, GrabJourneyDTO.class,
-        modelMapperMock);
-    final List<GrabJourneyDTO> journeyList = journeyService.searchJourneys(createSearchJourneysCriteriaFixture);
+  public void search_Journeys_Throws_BadRequestException_For_Invalid_Continuation_Token() {
+    createSearchJourneysCriteriaFixture.setContinuationToken("not-a-token");
 
-    assertThat(journeyList.size()).isEqualTo(grabJourneyDTOList.size());
-    verify(journeyRepositoryMock).findJourneysByLocationFromIdAndLocationToIdAndDateTimeBetween(
-        anyInt(), anyInt(), any(Instant.class), any(Instant.class));
+    assertThatThrownBy(() -> journeyService.searchJourneys(createSearchJourneysCriteriaFixture))
+        .isInstanceOf(BadRequestException.class);
   }
 
   @Test
   public void get_Journeys_By_Driver_Id_Returns_List_Of_GrabJourneyDTO() {
-    when(journeyRepositoryMock.findJourneysByDriverId(anyInt())).thenReturn(journeyFixtureList);
-    final List<GrabJourneyDTO> grabJourneyDTOList = MapperUtils.mapList(
-        journeyFixtureList, GrabJourneyDTO.class, modelMapperMock);
+    final JourneyDriverProjection journeyDriverProjection = journeyDriverProjectionFixtureList.get(0);
+    final List<JourneyPassengerProjection> journeyPassengerProjectionList = journeyPassengerProjectionFixtureList
+        .stream()
+        .map(passenger -> new JourneyPassengerProjection(journeyDriverProjection.getId(), passenger.getId(),
+            passenger.getPlatformUserId(), passenger.getPlatformUserCreatedDate(), passenger.getFirstName(),
+            passenger.getLastName(), passenger.getDob(), passenger.getEmail(), passenger.getPhoneNumber(),
+            passenger.getUserAccessStatusId(), passenger.getUserAccessStatus()))
+        .collect(Collectors.toList());
+    when(journeyRepositoryMock.findJourneyDriverProjectionsByDriverId(anyInt()))
+        .thenReturn(journeyDriverProjectionFixtureList);
+    when(journeyRepositoryMock.findJourneyPassengerProjectionsByDriverId(anyInt()))
+        .thenReturn(journeyPassengerProjectionList);
     final List<GrabJourneyDTO> journeyDriverList = journeyService.getJourneysByDriverId(anyInt());
 
-    assertThat(journeyDriverList.size()).isEqualTo(grabJourneyDTOList.size());
-    verify(journeyRepositoryMock).findJourneysByDriverId(anyInt());
+    assertThat(journeyDriverList.size()).isEqualTo(journeyDriverProjectionFixtureList.size());
+    assertThat(journeyDriverList.get(0).getPassengers()).extracting(GrabPassengerDTO::getId)
+        .containsExactlyElementsOf(journeyPassengerProjectionList.stream()
+            .map(JourneyPassengerProjection::getId).collect(Collectors.toList()));
+    assertThat(journeyDriverList.get(1).getPassengers()).isEmpty();
+    verify(journeyRepositoryMock).findJourneyDriverProjectionsByDriverId(anyInt());
+    verify(journeyRepositoryMock).findJourneyPassengerProjectionsByDriverId(anyInt());
   }
 
   @Test
   public void get_Journeys_By_Passengers_Id_Returns_List_Of_GrabJourneyDTO() {
-    when(journeyRepositoryMock.findJourneysByPassengersId(anyInt())).thenReturn(journeyFixtureList);
-    final List<GrabJourneyDTO> grabJourneyDTOList = MapperUtils.mapList(
-        journeyFixtureList, GrabJourneyDTO.class, modelMapperMock);
+    when(journeyRepositoryMock.findJourneyDriverProjectionsByPassengerId(anyInt()))
+        .thenReturn(journeyDriverProjectionFixtureList);
     final List<GrabJourneyDTO> journeyList = journeyService.getJourneysByPassengersId(anyInt());
 
-    assertThat(journeyList.size()).isEqualTo(grabJourneyDTOList.size());
-    verify(journeyRepositoryMock).findJourneysByPassengersId(anyInt());
+    assertThat(journeyList.size()).isEqualTo(journeyDriverProjectionFixtureList.size());
+    verify(journeyRepositoryMock).findJourneyDriverProjectionsByPassengerId(anyInt());
   }
 
   @Test
   public void create_Journey_Returns_GrabJourneyDTO() {
     final Journey spyJourney = spy(new Journey());
-    when(modelMapperMock.map(createJourneyDTOFixture, Journey.class)).thenReturn(spyJourney);
+    when(journeyMapperMock.toJourney(createJourneyDTOFixture)).thenReturn(spyJourney);
     when(journeyRepositoryMock.save(spyJourney)).thenReturn(journeyFixture);
-    when(modelMapperMock.map(journeyFixture, GrabJourneyDTO.class)).thenReturn(grabJourneyDTOFixture);
+    when(journeyMapperMock.toGrabJourneyDTO(journeyFixture)).thenReturn(grabJourneyDTOFixture);
     spyJourney.setCreatedDate(any(Instant.class));
     spyJourney.setLocationFrom(any(Location.class));
     spyJourney.setLocationTo(any(Location.class));
@@ -140,30 +269,164 @@ public class JourneyServiceTest {
     assertThat(grabJourneyDTO.getLocationTo()).isEqualTo(grabJourneyDTOFixture.getLocationTo());
     assertThat(grabJourneyDTO.getDriver()).isEqualTo(grabJourneyDTOFixture.getDriver());
     verify(journeyRepositoryMock).save(any(Journey.class));
+    verify(journeySearchIndexMock).put(journeyFixture);
   }
 
   @Test
-  public void patch_Journey_Returns_GrabJourneyDTO() throws Exception {
-    when(journeyRepositoryMock.findById(anyInt())).thenReturn(Optional.of(journeyFixture));
-    when(modelMapperMock.map(journeyFixture, GrabJourneyDTO.class)).thenReturn(grabJourneyDTOFixture);
-    final JsonPatch patch = PatchUtility.jsonPatch(PATCH_JOURNEY_VALID_JSON);
-    final JsonNode journeyNode = PatchUtility.jsonNode(journeyFixture, patch);
-    when(objectMapperMock.convertValue(grabJourneyDTOFixture, JsonNode.class)).thenReturn(journeyNode);
-    when(objectMapperMock.treeToValue(journeyNode, Journey.class)).thenReturn(journeyFixture);
-    when(journeyRepositoryMock.save(journeyFixture)).thenReturn(journeyFixture);
-    when(modelMapperMock.map(journeyFixture, GrabJourneyDTO.class)).thenReturn(grabJourneyDTOFixture);
-    final GrabJourneyDTO grabJourneyDTO = journeyService.patchJourney(journeyFixture.getId(), patch);
+  public void create_Journey_Attaches_Precomputed_Distance() {
+    final GrabDistanceDTO.Distance distance = new GrabDistanceDTO.Distance();
+    distance.setKm(12.3);
+    distance.setMi(7.6);
+    when(journeyMapperMock.toJourney(createJourneyDTOFixture)).thenReturn(new Journey());
+    when(journeyRepositoryMock.save(any(Journey.class))).thenReturn(journeyFixture);
+    when(journeyMapperMock.toGrabJourneyDTO(journeyFixture)).thenReturn(grabJourneyDTOFixture);
+    when(locationDistanceServiceMock.findDistance(
+        createJourneyDTOFixture.getLocationIdFrom(), createJourneyDTOFixture.getLocationIdTo()))
+        .thenReturn(Optional.of(distance));
+    final GrabJourneyDTO grabJourneyDTO = journeyService.createJourney(createJourneyDTOFixture);
 
-    assertThat(grabJourneyDTO.getMaxPassengers()).isEqualTo(grabJourneyDTOFixture.getMaxPassengers());
-    assertThat(grabJourneyDTO.getLocationFrom().getId()).isEqualTo(grabJourneyDTOFixture.getLocationFrom().getId());
-    verify(journeyRepositoryMock).findById(anyInt());
-    verify(journeyRepositoryMock).save(any(Journey.class));
+    assertThat(grabJourneyDTO.getDistance()).isEqualTo(distance);
+  }
+
+  @Test
+  public void create_Journeys_Persists_Valid_Journeys_And_Reports_Rejected_Ones() {
+    final CreateJourneyDTO valid = createJourneyDTO(1, 2, 3, Instant.now());
+    final Journey journey = new Journey();
+    when(locationRepositoryMock.findIdsByIdIn(anyCollection())).thenReturn(Set.of(1, 2));
+    when(driverRepositoryMock.findIdsByIdIn(anyCollection())).thenReturn(Set.of(3));
+    when(journeyMapperMock.toJourney(valid)).thenReturn(journey);
+    doAnswer(invocation -> {
+      invocation.<Journey>getArgument(0).setId(42);
+      return null;
+    }).when(entityManagerMock).persist(journey);
+    final List<GrabJourneyBatchItemDTO> results = journeyService.createJourneys(List.of(valid,
+        createJourneyDTO(1, 9, 3, Instant.now()), createJourneyDTO(1, 2, 8, Instant.now()),
+        createJourneyDTO(1, 2, 3, null)));
+
+    assertThat(results).extracting(GrabJourneyBatchItemDTO::getIndex).containsExactly(0, 1, 2, 3);
+    assertThat(results).extracting(GrabJourneyBatchItemDTO::getStatus).containsExactly(201, 404, 404, 400);
+    assertThat(results).extracting(GrabJourneyBatchItemDTO::getId).containsExactly(42, null, null, null);
+    assertThat(results.get(1).getError()).isEqualTo("Location id 9 not found.");
+    assertThat(results.get(2).getError()).isEqualTo("Driver id 8 not found.");
+    assertThat(journey.getCreatedDate()).isNotNull();
+    verify(entityManagerMock, times(1)).persist(any(Journey.class));
+    verify(entityManagerMock).flush();
+    verify(journeySearchIndexMock).put(journey);
+  }
+
+  @Test
+  public void create_Journeys_Flushes_And_Clears_Every_Fifty_Journeys() {
+    when(locationRepositoryMock.findIdsByIdIn(anyCollection())).thenReturn(Set.of(1, 2));
+    when(driverRepositoryMock.findIdsByIdIn(anyCollection())).thenReturn(Set.of(3));
+    when(journeyMapperMock.toJourney(any(CreateJourneyDTO.class))).thenAnswer(invocation -> new Journey());
+    final List<GrabJourneyBatchItemDTO> results = journeyService.createJourneys(IntStream.range(0, 120)
+        .mapToObj(index -> createJourneyDTO(1, 2, 3, Instant.now()))
+        .collect(Collectors.toList()));
+
+    assertThat(results).hasSize(120).allMatch(result -> result.getStatus() == 201);
+    verify(entityManagerMock, times(120)).persist(any(Journey.class));
+    verify(entityManagerMock, times(3)).flush();
+    verify(entityManagerMock, times(3)).clear();
+    verify(journeySearchIndexMock, times(120)).put(any(Journey.class));
+  }
+
+  @Test
+  public void create_Journeys_Indexes_Journeys_Only_Once_Transaction_Commits() {
+    when(locationRepositoryMock.findIdsByIdIn(anyCollection())).thenReturn(Set.of(1, 2));
+    when(driverRepositoryMock.findIdsByIdIn(anyCollection())).thenReturn(Set.of(3));
+    when(journeyMapperMock.toJourney(any(CreateJourneyDTO.class))).thenAnswer(invocation -> new Journey());
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      journeyService.createJourneys(IntStream.range(0, 60)
+          .mapToObj(index -> createJourneyDTO(1, 2, 3, Instant.now()))
+          .collect(Collectors.toList()));
+
+      verify(journeySearchIndexMock, never()).put(any(Journey.class));
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      verify(journeySearchIndexMock, times(60)).put(any(Journey.class));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void create_Journeys_Throws_BadRequestException_When_Batch_Is_Empty() {
+    assertThatThrownBy(() -> journeyService.createJourneys(List.of())).isInstanceOf(BadRequestException.class);
+    verify(entityManagerMock, never()).persist(any());
+  }
+
+  @Test
+  public void patch_Journey_Updates_Patched_Columns_And_Version_In_One_Statement() throws Exception {
+    stubJourneyQuery();
+    when(queryMock.executeUpdate()).thenReturn(1);
+    when(journeyVersionProjectionMock.getVersion()).thenReturn(4);
+    when(journeyVersionProjectionMock.getDriverVersion()).thenReturn(7);
+    when(journeyRepositoryMock.findJourneyVersionProjectionById(journeyFixture.getId()))
+        .thenReturn(Optional.of(journeyVersionProjectionMock));
+    when(journeyRepositoryMock.findJourneyDriverProjectionById(journeyFixture.getId()))
+        .thenReturn(Optional.of(journeyDriverProjectionFixture));
+    final Tagged<GrabJourneyDTO> grabJourneyDTO = journeyService.patchJourney(journeyFixture.getId(),
+        PatchUtility.jsonPatch(PATCH_JOURNEY_VALID_JSON), null);
+
+    assertThat(grabJourneyDTO.getValue().getId()).isEqualTo(journeyDriverProjectionFixture.getId());
+    assertThat(grabJourneyDTO.getEntityTag().getValue()).isEqualTo("\"4.7.0\"");
+    verify(entityManagerMock).createQuery("UPDATE Journey e SET e.locationFrom = :set_locationFrom,"
+        + " e.maxPassengers = :set_maxPassengers, e.version = e.version + 1 WHERE e.id = :id");
+    verify(queryMock).setParameter("set_maxPassengers", 5);
+    verify(journeySearchIndexMock).refresh(journeyFixture.getId());
+    verify(journeyRepositoryMock, never()).save(any(Journey.class));
+  }
+
+  @Test
+  public void patch_Journey_Rejects_Field_Outside_Whitelist_Before_Querying() throws Exception {
+    final JsonPatch patch = PatchUtility.jsonPatch("[{\"op\": \"replace\", \"path\": \"/createdDate\","
+        + " \"value\": \"2030-01-01T00:00:00Z\"}]");
+
+    assertThatThrownBy(() -> journeyService.patchJourney(journeyFixture.getId(), patch, null))
+        .isInstanceOf(PatchException.class);
+    verify(entityManagerMock, never()).createQuery(anyString());
+  }
+
+  @Test
+  public void patch_Journey_Throws_PatchException_When_Test_Operation_Fails() throws Exception {
+    stubJourneyQuery();
+    when(queryMock.executeUpdate()).thenReturn(0);
+    when(journeyRepositoryMock.findVersionById(journeyFixture.getId())).thenReturn(Optional.of(2));
+    final JsonPatch patch = PatchUtility.jsonPatch("[{\"op\": \"test\", \"path\": \"/maxPassengers\", \"value\": 3},"
+        + " {\"op\": \"replace\", \"path\": \"/maxPassengers\", \"value\": 4}]");
+
+    assertThatThrownBy(() -> journeyService.patchJourney(journeyFixture.getId(), patch, "\"2.7.0\""))
+        .isInstanceOf(PatchException.class);
+    verify(entityManagerMock).createQuery("UPDATE Journey e SET e.maxPassengers = :set_maxPassengers,"
+        + " e.version = e.version + 1 WHERE e.id = :id AND e.maxPassengers = :test_maxPassengers"
+        + " AND e.version IN :versions");
+    verify(journeySearchIndexMock, never()).refresh(anyInt());
+  }
+
+  @Test
+  public void patch_Journey_Throws_PreconditionFailedException_When_If_Match_Is_Outdated() throws Exception {
+    stubJourneyQuery();
+    when(queryMock.executeUpdate()).thenReturn(0);
+    when(journeyRepositoryMock.findVersionById(journeyFixture.getId())).thenReturn(Optional.of(2));
+    final JsonPatch patch =
+        PatchUtility.jsonPatch("[{\"op\": \"replace\", \"path\": \"/maxPassengers\", \"value\": 4}]");
+
+    assertThatThrownBy(() -> journeyService.patchJourney(journeyFixture.getId(), patch, "\"1.7.0\""))
+        .isInstanceOf(PreconditionFailedException.class);
+    verify(queryMock).setParameter("versions", Set.of(1));
+    verify(journeySearchIndexMock, never()).refresh(anyInt());
+  }
+
+  @Test
+  public void get_Journey_Entity_Tag_Throws_ResourceNotFoundException_When_Missing() {
+    assertThatThrownBy(() -> journeyService.getJourneyEntityTag(1)).isInstanceOf(ResourceNotFoundException.class);
   }
 
   @Test
   public void delete_Journey_By_Id_Returns_Void() {
     journeyService.deleteJourneyById(anyInt());
     verify(journeyRepositoryMock).deleteById(anyInt());
+    verify(journeySearchIndexMock).remove(anyInt());
   }
 
   @Test
@@ -173,25 +436,92 @@ public class JourneyServiceTest {
   }
 
   @Test
-  public void calculate_Distance_Returns_GrabDistanceDTO() {
-    DistanceHolder distanceHolder = new DistanceHolder();
-    distanceHolder.setPoints(List.of(new Points(), new Points()));
-    when(distanceApiMock.getDistance(anyString())).thenReturn(distanceHolderFixture);
-    final GrabDistanceDTO grabDistanceDTO = journeyService
-        .calculateDistance(createCalculateDistanceCriteriaFixture);
-
-    assertThat(grabDistanceDTO.getLocationFrom().getLocation())
-        .isEqualTo(distanceHolderFixture.getPoints().get(0).getProperties().getGeocode().getName());
-    assertThat(grabDistanceDTO.getLocationFrom().getCoordinates().getLatitude())
-        .isEqualTo(distanceHolderFixture.getPoints().get(0).getProperties().getGeocode().getLatitude());
-    assertThat(grabDistanceDTO.getLocationFrom().getCoordinates().getLongitude())
-        .isEqualTo(distanceHolderFixture.getPoints().get(0).getProperties().getGeocode().getLongitude());
-    assertThat(grabDistanceDTO.getLocationTo().getLocation())
-        .isEqualTo(distanceHolderFixture.getPoints().get(1).getProperties().getGeocode().getName());
-    assertThat(grabDistanceDTO.getLocationTo().getCoordinates().getLatitude())
-        .isEqualTo(distanceHolderFixture.getPoints().get(1).getProperties().getGeocode().getLatitude());
-    assertThat(grabDistanceDTO.getLocationTo().getCoordinates().getLongitude())
-        .isEqualTo(distanceHolderFixture.getPoints().get(1).getProperties().getGeocode().getLongitude());
-    verify(distanceApiMock).getDistance(anyString());
+  public void on_Seats_Released_Invalidates_Admission_And_Refreshes_Search_Index() {
+    journeyService.onSeatsReleased(new SeatsReleasedEvent(List.of(1, 3)));
+
+    verify(bookingAdmissionMock).invalidate(1);
+    verify(bookingAdmissionMock).invalidate(3);
+    verify(journeySearchIndexMock).refresh(1);
+    verify(journeySearchIndexMock).refresh(3);
+  }
+
+  @Test
+  public void book_Seat_Refreshes_Search_Index_When_Booked() {
+    admitBookings();
+    when(passengerRepositoryMock.existsById(2)).thenReturn(true);
+    when(passengerJourneyRepositoryMock.bookSeat(1, 2)).thenReturn(1);
+    journeyService.bookSeat(1, 2);
+
+    verify(authorizationMock).verifyUserAuthorization(2);
+    verify(journeySearchIndexMock).refresh(1);
+    verify(journeyRepositoryMock, never()).existsById(anyInt());
+  }
+
+  @Test
+  public void book_Seat_Throws_ConflictException_When_Journey_Is_Full() {
+    admitBookings();
+    when(passengerRepositoryMock.existsById(2)).thenReturn(true);
+    when(journeyRepositoryMock.existsById(1)).thenReturn(true);
+
+    assertThatThrownBy(() -> journeyService.bookSeat(1, 2))
+        .isInstanceOf(ConflictException.class)
+        .hasMessage("Journey id 1 is full.");
+    verify(journeySearchIndexMock, never()).refresh(anyInt());
+  }
+
+  @Test
+  public void book_Seat_Throws_ConflictException_When_Already_Booked() {
+    admitBookings();
+    when(passengerRepositoryMock.existsById(2)).thenReturn(true);
+    when(journeyRepositoryMock.existsById(1)).thenReturn(true);
+    when(passengerJourneyRepositoryMock.existsByJourneyIdAndPassengerId(1, 2)).thenReturn(true);
+
+    assertThatThrownBy(() -> journeyService.bookSeat(1, 2))
+        .isInstanceOf(ConflictException.class)
+        .hasMessage("Passenger id 2 has already booked journey id 1.");
+  }
+
+  @Test
+  public void book_Seat_Throws_ResourceNotFoundException_When_Journey_Or_Passenger_Is_Missing() {
+    admitBookings();
+    when(passengerRepositoryMock.existsById(2)).thenReturn(true);
+
+    assertThatThrownBy(() -> journeyService.bookSeat(1, 2)).isInstanceOf(ResourceNotFoundException.class);
+    assertThatThrownBy(() -> journeyService.bookSeat(1, 3)).isInstanceOf(ResourceNotFoundException.class);
+    verify(passengerJourneyRepositoryMock, never()).bookSeat(1, 3);
+  }
+
+  @Test
+  public void calculate_Distance_Delegates_To_DistanceService() {
+    final GrabDistanceDTO grabDistanceDTO = new GrabDistanceDTO();
+    when(distanceServiceMock.calculateDistance(createCalculateDistanceCriteriaFixture)).thenReturn(grabDistanceDTO);
+
+    assertThat(journeyService.calculateDistance(createCalculateDistanceCriteriaFixture)).isSameAs(grabDistanceDTO);
+    verify(distanceServiceMock).calculateDistance(createCalculateDistanceCriteriaFixture);
+  }
+
+  private void admitBookings() {
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(1).run();
+      return null;
+    }).when(bookingAdmissionMock).admit(anyInt(), any(Runnable.class));
+  }
+
+  private void stubJourneyQuery() {
+    when(entityManagerMock.getMetamodel()).thenReturn(metamodelMock);
+    when(metamodelMock.entity(Journey.class)).thenReturn(journeyEntityTypeMock);
+    when(journeyEntityTypeMock.getName()).thenReturn("Journey");
+    when(entityManagerMock.createQuery(anyString())).thenReturn(queryMock);
+  }
+
+  private static CreateJourneyDTO createJourneyDTO(final int locationIdFrom, final int locationIdTo,
+      final int driverId, final Instant dateTime) {
+    final CreateJourneyDTO createJourneyDTO = new CreateJourneyDTO();
+    createJourneyDTO.setLocationIdFrom(locationIdFrom);
+    createJourneyDTO.setLocationIdTo(locationIdTo);
+    createJourneyDTO.setMaxPassengers(3);
+    createJourneyDTO.setDateTime(dateTime);
+    createJourneyDTO.setDriverId(driverId);
+    return createJourneyDTO;
   }
 }
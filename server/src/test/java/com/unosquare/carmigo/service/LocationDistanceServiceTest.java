@@ -0,0 +1,137 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.dto.GrabDistanceDTO;
+import com.unosquare.carmigo.entity.Location;
+import com.unosquare.carmigo.entity.LocationDistance;
+import com.unosquare.carmigo.entity.LocationDistanceId;
+import com.unosquare.carmigo.exception.ServiceUnavailableException;
+import com.unosquare.carmigo.model.request.CreateCalculateDistanceCriteria;
+import com.unosquare.carmigo.repository.LocationDistanceRepository;
+import com.unosquare.carmigo.repository.LocationRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationDistanceServiceTest {
+
+  private static final List<Location> LOCATIONS =
+      List.of(new Location(1, "Rostrevor"), new Location(2, "Belfast"), new Location(3, "Downpatrick"));
+
+  @Mock private LocationRepository locationRepositoryMock;
+  @Mock private LocationDistanceRepository locationDistanceRepositoryMock;
+  @Mock private DistanceService distanceServiceMock;
+  @Captor private ArgumentCaptor<Collection<LocationDistance>> locationDistancesCaptor;
+  private final List<Runnable> precomputeRuns = new ArrayList<>();
+  private LocationDistanceService locationDistanceService;
+
+  @BeforeEach
+  public void setUp() {
+    locationDistanceService = new LocationDistanceService(locationRepositoryMock, locationDistanceRepositoryMock,
+        distanceServiceMock, precomputeRuns::add, 1000, "UK", Duration.ofDays(30));
+  }
+
+  @Test
+  public void refresh_Resolves_Each_Pair_Once_And_Stores_Both_Directions() {
+    when(locationRepositoryMock.findAll(any(Sort.class))).thenReturn(LOCATIONS);
+    when(distanceServiceMock.calculateDistance(any(), any())).thenReturn(grabDistanceDTO(10.0));
+    locationDistanceService.refreshLocationDistances();
+
+    verify(distanceServiceMock, times(3)).calculateDistance(any(), any());
+    verify(locationDistanceRepositoryMock).upsertAll(locationDistancesCaptor.capture());
+    assertThat(ids(locationDistancesCaptor.getValue())).containsExactlyInAnyOrder(
+        new LocationDistanceId(1, 2), new LocationDistanceId(2, 1), new LocationDistanceId(1, 3),
+        new LocationDistanceId(3, 1), new LocationDistanceId(2, 3), new LocationDistanceId(3, 2));
+  }
+
+  @Test
+  public void refresh_Skips_Pairs_That_Are_Not_Stale() {
+    when(locationRepositoryMock.findAll(any(Sort.class))).thenReturn(LOCATIONS);
+    final Instant fresh = Instant.now().minus(1, ChronoUnit.DAYS);
+    final Instant stale = Instant.now().minus(60, ChronoUnit.DAYS);
+    when(locationDistanceRepositoryMock.findAll()).thenReturn(List.of(
+        new LocationDistance(new LocationDistanceId(1, 2), 10.0, 6.2, fresh),
+        new LocationDistance(new LocationDistanceId(2, 1), 10.0, 6.2, fresh),
+        new LocationDistance(new LocationDistanceId(1, 3), 10.0, 6.2, fresh),
+        new LocationDistance(new LocationDistanceId(3, 1), 10.0, 6.2, stale)));
+    when(distanceServiceMock.calculateDistance(any(), any())).thenReturn(grabDistanceDTO(10.0));
+    locationDistanceService.refreshLocationDistances();
+
+    verify(distanceServiceMock, never()).calculateDistance(argThat(criteria -> criteria.getLocationFrom()
+        .equals("Rostrevor") && criteria.getLocationTo().equals("Belfast")), any());
+    verify(distanceServiceMock, times(2)).calculateDistance(any(), any());
+  }
+
+  @Test
+  public void refresh_Stops_When_Distance_Service_Is_Unavailable_And_Keeps_Resolved_Pairs() {
+    when(locationRepositoryMock.findAll(any(Sort.class))).thenReturn(LOCATIONS);
+    when(distanceServiceMock.calculateDistance(any(CreateCalculateDistanceCriteria.class), any()))
+        .thenReturn(grabDistanceDTO(10.0))
+        .thenThrow(new ServiceUnavailableException("Distance service is unavailable"));
+    locationDistanceService.refreshLocationDistances();
+
+    verify(distanceServiceMock, times(2)).calculateDistance(any(), any());
+    verify(locationDistanceRepositoryMock).upsertAll(locationDistancesCaptor.capture());
+    assertThat(ids(locationDistancesCaptor.getValue()))
+        .containsExactlyInAnyOrder(new LocationDistanceId(1, 2), new LocationDistanceId(2, 1));
+  }
+
+  @Test
+  public void schedule_Hands_Run_To_Precompute_Executor_And_Skips_While_It_Is_Going() {
+    when(locationRepositoryMock.findAll(any(Sort.class))).thenReturn(LOCATIONS);
+    when(distanceServiceMock.calculateDistance(any(), any())).thenReturn(grabDistanceDTO(10.0));
+    locationDistanceService.scheduleLocationDistanceRefresh();
+    locationDistanceService.scheduleLocationDistanceRefresh();
+
+    assertThat(precomputeRuns).hasSize(1);
+    verify(distanceServiceMock, never()).calculateDistance(any(), any());
+    precomputeRuns.get(0).run();
+    verify(distanceServiceMock, times(3)).calculateDistance(any(), any());
+    locationDistanceService.scheduleLocationDistanceRefresh();
+    assertThat(precomputeRuns).hasSize(2);
+  }
+
+  @Test
+  public void find_Distance_Returns_Stored_Distance() {
+    when(locationDistanceRepositoryMock.findById(new LocationDistanceId(1, 2)))
+        .thenReturn(Optional.of(new LocationDistance(new LocationDistanceId(1, 2), 10.0, 6.2, Instant.now())));
+    final Optional<GrabDistanceDTO.Distance> distance = locationDistanceService.findDistance(1, 2);
+
+    assertThat(distance).map(GrabDistanceDTO.Distance::getKm).contains(10.0);
+    assertThat(distance).map(GrabDistanceDTO.Distance::getMi).contains(6.2);
+  }
+
+  private static GrabDistanceDTO grabDistanceDTO(final double km) {
+    final GrabDistanceDTO.Distance distance = new GrabDistanceDTO.Distance();
+    distance.setKm(km);
+    distance.setMi(km / 1.609344);
+    final GrabDistanceDTO grabDistanceDTO = new GrabDistanceDTO();
+    grabDistanceDTO.setDistance(distance);
+    return grabDistanceDTO;
+  }
+
+  private static List<LocationDistanceId> ids(final Collection<LocationDistance> locationDistances) {
+    return locationDistances.stream().map(LocationDistance::getId).collect(Collectors.toCollection(ArrayList::new));
+  }
+}
@@ -0,0 +1,102 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.unosquare.carmigo.configuration.MapperConfiguration;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.UserAccessStatus;
+import com.unosquare.carmigo.exception.PatchException;
+import com.unosquare.carmigo.mapper.PlatformUserMapper;
+import com.unosquare.carmigo.repository.PassengerJourneyRepository;
+import com.unosquare.carmigo.repository.PlatformUserRepository;
+import com.unosquare.carmigo.security.Authorization;
+import com.unosquare.carmigo.security.PlatformUserChangedEvent;
+import com.unosquare.carmigo.util.JsonPatchCompiler;
+import com.unosquare.carmigo.util.PatchUtility;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+public class PlatformUserServiceTest {
+
+  private static final int USER_ID = 7;
+  private static final String PATCH_STATUS =
+      "[{\"op\": \"replace\", \"path\": \"/userAccessStatus/id\", \"value\": 4}]";
+
+  @Mock private PlatformUserRepository platformUserRepositoryMock;
+  @Mock private PassengerJourneyRepository passengerJourneyRepositoryMock;
+  @Mock private PlatformUserMapper platformUserMapperMock;
+  @Mock private EntityManager entityManagerMock;
+  @Mock private Metamodel metamodelMock;
+  @Mock private EntityType<PlatformUser> platformUserEntityTypeMock;
+  @Mock private Query queryMock;
+  @Mock private Authorization authorizationMock;
+  @Mock private ApplicationEventPublisher applicationEventPublisherMock;
+  @Spy private JsonPatchCompiler jsonPatchCompiler = new JsonPatchCompiler(
+      new MapperConfiguration().objectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+  @InjectMocks private PlatformUserService platformUserService;
+
+  @Test
+  public void patch_Current_Platform_User_Rejects_Access_Status() throws Exception {
+    assertThatThrownBy(() ->
+        platformUserService.patchCurrentPlatformUser(USER_ID, PatchUtility.jsonPatch(PATCH_STATUS), null))
+        .isInstanceOf(PatchException.class)
+        .hasMessage("/userAccessStatus/id cannot be patched");
+    verifyNoInteractions(entityManagerMock, applicationEventPublisherMock);
+  }
+
+  @Test
+  public void patch_Platform_User_By_Id_Updates_Access_Status() throws Exception {
+    final PlatformUser platformUser = new PlatformUser();
+    platformUser.setId(USER_ID);
+    platformUser.setEmail("user@car-migo.com");
+    when(entityManagerMock.getMetamodel()).thenReturn(metamodelMock);
+    when(metamodelMock.entity(PlatformUser.class)).thenReturn(platformUserEntityTypeMock);
+    when(platformUserEntityTypeMock.getName()).thenReturn("PlatformUser");
+    when(entityManagerMock.createQuery(anyString())).thenReturn(queryMock);
+    when(entityManagerMock.getReference(UserAccessStatus.class, 4)).thenReturn(new UserAccessStatus());
+    when(queryMock.executeUpdate()).thenReturn(1);
+    when(platformUserRepositoryMock.findById(USER_ID)).thenReturn(Optional.of(platformUser));
+    platformUserService.patchPlatformUserById(USER_ID, PatchUtility.jsonPatch(PATCH_STATUS), null);
+
+    verify(entityManagerMock).createQuery("UPDATE PlatformUser e SET e.userAccessStatus = :set_userAccessStatus,"
+        + " e.version = e.version + 1 WHERE e.id = :id");
+    verify(applicationEventPublisherMock).publishEvent(any(PlatformUserChangedEvent.class));
+  }
+
+  @Test
+  public void delete_Platform_User_By_Id_Releases_Seats_Before_Deleting() {
+    final PlatformUser platformUser = new PlatformUser();
+    platformUser.setId(USER_ID);
+    platformUser.setEmail("user@car-migo.com");
+    when(platformUserRepositoryMock.findById(USER_ID)).thenReturn(Optional.of(platformUser));
+    when(passengerJourneyRepositoryMock.releaseSeatsByPlatformUserId(USER_ID)).thenReturn(List.of(3, 5));
+    platformUserService.deletePlatformUserById(USER_ID);
+
+    final InOrder inOrder = inOrder(passengerJourneyRepositoryMock, platformUserRepositoryMock);
+    inOrder.verify(passengerJourneyRepositoryMock).releaseSeatsByPlatformUserId(USER_ID);
+    inOrder.verify(platformUserRepositoryMock).deleteById(USER_ID);
+    verify(applicationEventPublisherMock).publishEvent(argThat((final Object event) ->
+        event instanceof SeatsReleasedEvent && ((SeatsReleasedEvent) event).getJourneyIds().equals(List.of(3, 5))));
+  }
+}
@@ -0,0 +1,117 @@
+package com.unosquare.carmigo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.hash.Hashing;
+import com.unosquare.carmigo.dto.GrabAuthenticationDTO;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.RefreshToken;
+import com.unosquare.carmigo.exception.UnauthorizedException;
+import com.unosquare.carmigo.repository.RefreshTokenRepository;
+import com.unosquare.carmigo.security.CustomUserDetails;
+import com.unosquare.carmigo.security.UserSecurityService;
+import com.unosquare.carmigo.util.JwtTokenUtils;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+  private static final int USER_ID = 7;
+  private static final String EMAIL = "user@car-migo.com";
+  private static final String REFRESH_TOKEN = "Vb0tYV6oTGbVZ8t7JtCq9YtI8lE2QYz7nX3wKp1rM4s";
+  private static final String REFRESH_TOKEN_HASH =
+      Hashing.sha256().hashString(REFRESH_TOKEN, StandardCharsets.UTF_8).toString();
+
+  @Mock private RefreshTokenRepository refreshTokenRepositoryMock;
+  @Mock private UserSecurityService userSecurityServiceMock;
+  @Mock private JwtTokenUtils jwtTokenUtilsMock;
+  @Mock private EntityManager entityManagerMock;
+  @Captor private ArgumentCaptor<RefreshToken> refreshTokenCaptor;
+  private RefreshTokenService refreshTokenService;
+
+  @BeforeEach
+  public void setUp() {
+    refreshTokenService = new RefreshTokenService(refreshTokenRepositoryMock, userSecurityServiceMock,
+        jwtTokenUtilsMock, entityManagerMock, Duration.ofDays(30));
+  }
+
+  @Test
+  public void create_Refresh_Token_Stores_Only_Its_Hash() {
+    final String refreshToken = refreshTokenService.createRefreshToken(USER_ID);
+
+    verify(refreshTokenRepositoryMock).save(refreshTokenCaptor.capture());
+    assertThat(refreshTokenCaptor.getValue().getTokenHash())
+        .isEqualTo(Hashing.sha256().hashString(refreshToken, StandardCharsets.UTF_8).toString())
+        .isNotEqualTo(refreshToken);
+    assertThat(refreshTokenCaptor.getValue().getExpiryDate()).isAfter(Instant.now().plus(29, ChronoUnit.DAYS));
+  }
+
+  @Test
+  public void refresh_Authentication_Token_Rotates_Refresh_Token_Without_Verifying_Password() {
+    final CustomUserDetails userDetails = new CustomUserDetails(USER_ID, EMAIL, "password", List.of());
+    when(refreshTokenRepositoryMock.findByTokenHash(REFRESH_TOKEN_HASH))
+        .thenReturn(Optional.of(storedRefreshToken(Instant.now().plus(1, ChronoUnit.DAYS))));
+    when(refreshTokenRepositoryMock.deleteByTokenHash(REFRESH_TOKEN_HASH)).thenReturn(1);
+    when(userSecurityServiceMock.loadUserByUsername(EMAIL)).thenReturn(userDetails);
+    when(jwtTokenUtilsMock.generateToken(userDetails)).thenReturn("jwt");
+    final GrabAuthenticationDTO grabAuthenticationDTO = refreshTokenService.refreshAuthenticationToken(REFRESH_TOKEN);
+
+    assertThat(grabAuthenticationDTO.getJwt()).isEqualTo("jwt");
+    assertThat(grabAuthenticationDTO.getRefreshToken()).isNotEqualTo(REFRESH_TOKEN);
+    verify(refreshTokenRepositoryMock).save(any(RefreshToken.class));
+  }
+
+  @Test
+  public void refresh_Authentication_Token_Rejects_Expired_Refresh_Token() {
+    when(refreshTokenRepositoryMock.findByTokenHash(REFRESH_TOKEN_HASH))
+        .thenReturn(Optional.of(storedRefreshToken(Instant.now().minus(1, ChronoUnit.MINUTES))));
+
+    assertThatThrownBy(() -> refreshTokenService.refreshAuthenticationToken(REFRESH_TOKEN))
+        .isInstanceOf(UnauthorizedException.class);
+    verify(refreshTokenRepositoryMock, never()).deleteByTokenHash(anyString());
+  }
+
+  @Test
+  public void refresh_Authentication_Token_Rejects_Refresh_Token_Already_Used() {
+    when(refreshTokenRepositoryMock.findByTokenHash(REFRESH_TOKEN_HASH))
+        .thenReturn(Optional.of(storedRefreshToken(Instant.now().plus(1, ChronoUnit.DAYS))));
+    when(refreshTokenRepositoryMock.deleteByTokenHash(REFRESH_TOKEN_HASH)).thenReturn(0);
+
+    assertThatThrownBy(() -> refreshTokenService.refreshAuthenticationToken(REFRESH_TOKEN))
+        .isInstanceOf(UnauthorizedException.class);
+    verify(refreshTokenRepositoryMock, never()).save(any(RefreshToken.class));
+  }
+
+  @Test
+  public void revoke_Refresh_Token_Deletes_It_By_Hash() {
+    refreshTokenService.revokeRefreshToken(REFRESH_TOKEN);
+
+    verify(refreshTokenRepositoryMock).deleteByTokenHash(REFRESH_TOKEN_HASH);
+  }
+
+  private static RefreshToken storedRefreshToken(final Instant expiryDate) {
+    final PlatformUser platformUser = new PlatformUser();
+    platformUser.setId(USER_ID);
+    platformUser.setEmail(EMAIL);
+    return new RefreshToken(1, REFRESH_TOKEN_HASH, platformUser, Instant.now(), expiryDate);
+  }
+}
@@ -0,0 +1,33 @@
+package com.unosquare.carmigo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class EntityTagTest {
+
+  @Test
+  public void of_Joins_Version_And_Dependencies_Into_Strong_Tag() {
+    assertThat(EntityTag.of(3).getValue()).isEqualTo("\"3\"");
+    assertThat(EntityTag.of(3, 7, 0L).getValue()).isEqualTo("\"3.7.0\"");
+  }
+
+  @Test
+  public void parse_If_Match_Without_Precondition() {
+    assertThat(EntityTag.parseIfMatch(null)).isEmpty();
+    assertThat(EntityTag.parseIfMatch(" * ")).isEmpty();
+  }
+
+  @Test
+  public void parse_If_Match_Reads_Leading_Version_Of_Each_Strong_Tag() {
+    assertThat(EntityTag.parseIfMatch(EntityTag.of(3, 7, 0L).getValue())).contains(Set.of(3));
+    assertThat(EntityTag.parseIfMatch("\"3\", W/\"4\", \"5.1\"")).contains(Set.of(3, 5));
+  }
+
+  @Test
+  public void parse_If_Match_Never_Matches_Weak_Or_Unknown_Tags() {
+    assertThat(EntityTag.parseIfMatch("W/\"3\"")).contains(Set.of(-1));
+    assertThat(EntityTag.parseIfMatch("\"abc\", 3")).contains(Set.of(-1));
+  }
+}
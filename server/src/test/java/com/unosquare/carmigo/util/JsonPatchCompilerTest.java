@@ -0,0 +1,80 @@
+package com.unosquare.carmigo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.unosquare.carmigo.configuration.MapperConfiguration;
+import com.unosquare.carmigo.entity.PlatformUser;
+import com.unosquare.carmigo.entity.UserAccessStatus;
+import com.unosquare.carmigo.exception.PatchException;
+import com.unosquare.carmigo.model.request.CreatePlatformUserViewModel;
+import java.time.Instant;
+import javax.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+public class JsonPatchCompilerTest {
+
+  private static final PatchableFields PATCHABLE_FIELDS = PatchableFields.forEntity(PlatformUser.class)
+      .field("/email", "email", String.class)
+      .field("/dob", "dob", Instant.class)
+      .reference("/userAccessStatus/id", "userAccessStatus", UserAccessStatus.class)
+      .constrainedBy(CreatePlatformUserViewModel.class)
+      .build();
+
+  private final JsonPatchCompiler jsonPatchCompiler = new JsonPatchCompiler(
+      new MapperConfiguration().objectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+
+  @Test
+  public void compile_Converts_Values_To_Field_Types() throws Exception {
+    final PartialUpdate partialUpdate = compile("[{\"op\": \"replace\", \"path\": \"/userAccessStatus/id\","
+        + " \"value\": \"2\"}, {\"op\": \"add\", \"path\": \"/dob\", \"value\": \"1990-01-01T00:00:00Z\"}]");
+
+    assertThat(partialUpdate.findAssignedValue("userAccessStatus")).contains(2);
+    assertThat(partialUpdate.findAssignedValue("dob")).contains(Instant.parse("1990-01-01T00:00:00Z"));
+  }
+
+  @Test
+  public void compile_Returns_Empty_Update_For_Empty_Patch() throws Exception {
+    assertThat(compile("[]").isEmpty()).isTrue();
+  }
+
+  @Test
+  public void compile_Rejects_Paths_Outside_Whitelist() {
+    assertThatThrownBy(() -> compile("[{\"op\": \"replace\", \"path\": \"/password\", \"value\": \"secret\"}]"))
+        .isInstanceOf(PatchException.class)
+        .hasMessage("/password cannot be patched");
+  }
+
+  @Test
+  public void compile_Rejects_Unsupported_Operations_And_Nulls() {
+    assertThatThrownBy(() -> compile("[{\"op\": \"remove\", \"path\": \"/email\"}]"))
+        .isInstanceOf(PatchException.class);
+    assertThatThrownBy(() -> compile("[{\"op\": \"replace\", \"path\": \"/email\", \"value\": null}]"))
+        .isInstanceOf(PatchException.class);
+  }
+
+  @Test
+  public void compile_Rejects_Values_Failing_Type_Or_Constraints() {
+    assertThatThrownBy(() -> compile("[{\"op\": \"replace\", \"path\": \"/dob\", \"value\": \"yesterday\"}]"))
+        .isInstanceOf(PatchException.class);
+    assertThatThrownBy(() -> compile("[{\"op\": \"replace\", \"path\": \"/email\", \"value\": \"not-an-email\"}]"))
+        .isInstanceOf(PatchException.class)
+        .hasMessageStartingWith("/email ");
+  }
+
+  @Test
+  public void compile_Tests_Value_Set_Earlier_In_The_Same_Patch() throws Exception {
+    final String replace = "{\"op\": \"replace\", \"path\": \"/email\", \"value\": \"new@car-migo.com\"}";
+
+    assertThat(compile(String.format("[%s, {\"op\": \"test\", \"path\": \"/email\", \"value\": \"new@car-migo.com\"}]",
+        replace)).findAssignedValue("email")).contains("new@car-migo.com");
+    assertThatThrownBy(() -> compile(String.format(
+        "[%s, {\"op\": \"test\", \"path\": \"/email\", \"value\": \"old@car-migo.com\"}]", replace)))
+        .isInstanceOf(PatchException.class)
+        .hasMessage("Test of /email failed");
+  }
+
+  private PartialUpdate compile(final String patch) throws Exception {
+    return jsonPatchCompiler.compile(PATCHABLE_FIELDS, PatchUtility.jsonPatch(patch));
+  }
+}
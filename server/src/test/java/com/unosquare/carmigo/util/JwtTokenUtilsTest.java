@@ -0,0 +1,94 @@
+package com.unosquare.carmigo.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.unosquare.carmigo.exception.ExpiredJwtException;
+import com.unosquare.carmigo.security.CustomUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class JwtTokenUtilsTest {
+
+  private static final String KEY = "dGVzdCBzaWduaW5nIGtleSBmb3IgdGhlIGNhci1taWdvIGp3dCB0b2tlbiB1dGlscw==";
+
+  private final UserDetails userDetails = new User("user@car-migo.com", "password", List.of());
+  private MeterRegistry meterRegistry;
+  private JwtTokenUtils jwtTokenUtils;
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    jwtTokenUtils = new JwtTokenUtils(KEY, Duration.ofMinutes(15), 100, meterRegistry);
+  }
+
+  @Test
+  public void parse_Claims_Verifies_Token_Once_And_Serves_Repeats_From_Cache() {
+    final String token = jwtTokenUtils.generateToken(userDetails);
+    final Claims first = jwtTokenUtils.parseClaims(token);
+    final Claims second = jwtTokenUtils.parseClaims(token);
+
+    assertThat(first.getSubject()).isEqualTo(userDetails.getUsername());
+    assertThat(second).isSameAs(first);
+    assertThat(cacheGets("hit")).isEqualTo(1);
+    assertThat(cacheGets("miss")).isEqualTo(1);
+  }
+
+  @Test
+  public void generate_Token_Carries_User_Id_And_Access_Status() {
+    final Claims claims = jwtTokenUtils.parseClaims(jwtTokenUtils.generateToken(
+        new CustomUserDetails(7, "user@car-migo.com", "password", List.of(new SimpleGrantedAuthority("ACTIVE")))));
+
+    assertThat(claims.get(JwtTokenUtils.USER_ID_CLAIM, Integer.class)).isEqualTo(7);
+    assertThat(claims.get(JwtTokenUtils.ACCESS_STATUS_CLAIM, String.class)).isEqualTo("ACTIVE");
+  }
+
+  @Test
+  public void validate_Claims_Rejects_Token_Of_Another_User() {
+    final Claims claims = jwtTokenUtils.parseClaims(jwtTokenUtils.generateToken(userDetails));
+
+    assertThat(jwtTokenUtils.validateClaims(claims, userDetails)).isTrue();
+    assertThat(jwtTokenUtils.validateClaims(claims, new User("other@car-migo.com", "password", List.of())))
+        .isFalse();
+  }
+
+  @Test
+  public void parse_Claims_Throws_ExpiredJwtException_For_Expired_Token() {
+    final String token = Jwts.builder()
+        .setSubject(userDetails.getUsername())
+        .setExpiration(Date.from(Instant.now().minus(1, ChronoUnit.MINUTES)))
+        .signWith(SignatureAlgorithm.HS256, KEY)
+        .compact();
+
+    assertThatThrownBy(() -> jwtTokenUtils.parseClaims(token)).isInstanceOf(ExpiredJwtException.class);
+  }
+
+  @Test
+  public void parse_Claims_Does_Not_Cache_Token_With_Invalid_Signature() {
+    final String token = jwtTokenUtils.generateToken(userDetails);
+    final String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+    assertThatThrownBy(() -> jwtTokenUtils.parseClaims(tampered)).isInstanceOf(SignatureException.class);
+    assertThatThrownBy(() -> jwtTokenUtils.parseClaims(tampered)).isInstanceOf(SignatureException.class);
+    assertThat(cacheGets("hit")).isZero();
+  }
+
+  private double cacheGets(final String result) {
+    return meterRegistry.get("cache.gets").tag("cache", "jwt-claims").tag("result", result).functionCounter()
+        .count();
+  }
+}